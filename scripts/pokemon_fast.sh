@@ -0,0 +1,20 @@
+#!/bin/bash
+
+# Inicialização rápida do Pokémon do Dia: usa o arquivo AppCDS gerado pelo
+# "mvn -Pcds package" (quando existir), só o compilador C1 e o GC serial, que bastam
+# para uma execução curta da CLI. Não use para --server.
+
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+JAR=$(ls "$DIR"/target/pokemon-do-dia-*.jar 2>/dev/null | grep -v original | head -n 1)
+if [ -z "$JAR" ]; then
+    echo "JAR não encontrado. Rode 'mvn package' antes." >&2
+    exit 1
+fi
+
+OPCOES=(-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xshare:auto)
+ARQUIVO="${JAR%.jar}.jsa"
+if [ -f "$ARQUIVO" ]; then
+    OPCOES+=("-XX:SharedArchiveFile=$ARQUIVO")
+fi
+
+exec java "${OPCOES[@]}" -jar "$JAR" "$@"
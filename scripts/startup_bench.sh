@@ -0,0 +1,59 @@
+#!/bin/bash
+
+# Benchmark de inicialização: mede o tempo até a primeira linha de saída
+# (time-to-first-output) da execução padrão e do modo rápido (scripts/pokemon_fast.sh).
+# Uso: scripts/startup_bench.sh [repetições]   (padrão: 10)
+#
+# Para medir o caminho local, rode --sync antes (ou aponte POKEMON_DEX_FILE para
+# uma Pokédex binária); sem ela, a medição inclui a rede.
+
+set -e
+
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+REPETICOES=${1:-10}
+JAR=$(ls "$DIR"/target/pokemon-do-dia-*.jar 2>/dev/null | grep -v original | head -n 1)
+if [ -z "$JAR" ]; then
+    echo "JAR não encontrado. Rode 'mvn package' antes." >&2
+    exit 1
+fi
+if [ ! -f "${JAR%.jar}.jsa" ]; then
+    echo "⚠️  Arquivo AppCDS ausente; o modo rápido vai rodar sem ele (gere com 'mvn -Pcds package' em JDK 13+)." >&2
+fi
+
+# Imprime os milissegundos entre o início do processo e a primeira linha de saída.
+primeira_saida() {
+    local inicio fim
+    inicio=$(date +%s%N)
+    "$@" 2>/dev/null | {
+        IFS= read -r _ || true
+        fim=$(date +%s%N)
+        echo $(( (fim - inicio) / 1000000 ))
+        cat > /dev/null
+    }
+}
+
+# Mediana dos valores recebidos na entrada padrão.
+mediana() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR % 2) print v[(NR + 1) / 2]; else print int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+medir() {
+    local nome=$1
+    shift
+    primeira_saida "$@" > /dev/null # aquecimento do cache de disco do sistema
+    local tempos=()
+    for _ in $(seq "$REPETICOES"); do
+        tempos+=("$(primeira_saida "$@")")
+    done
+    local med
+    med=$(printf "%s\n" "${tempos[@]}" | mediana)
+    local min
+    min=$(printf "%s\n" "${tempos[@]}" | sort -n | head -n 1)
+    printf "%-8s mediana %5d ms   mínimo %5d ms\n" "$nome" "$med" "$min" >&2
+    echo "$med"
+}
+
+echo "⏱️  Tempo até a primeira saída ($REPETICOES execuções cada)" >&2
+PADRAO=$(medir "padrão" java -jar "$JAR")
+RAPIDO=$(medir "rápido" "$DIR/scripts/pokemon_fast.sh")
+awk -v p="$PADRAO" -v r="$RAPIDO" 'BEGIN { if (p > 0) printf "Modo rápido: %.0f%% do tempo padrão\n", 100 * r / p }'
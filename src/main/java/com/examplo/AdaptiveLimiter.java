@@ -0,0 +1,193 @@
+package com.examplo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controle adaptativo de concorrência para buscas em massa.
+ * <ul>
+ *   <li>um balde de fichas limita a taxa de requisições por segundo;</li>
+ *   <li>o limite de requisições em andamento segue AIMD: cresce 1 a cada "janela"
+ *       de respostas rápidas e cai pela metade com 429, erros ou latência subindo;</li>
+ *   <li>Retry-After pausa novas requisições até o instante pedido pelo servidor.</li>
+ * </ul>
+ * Quem chama {@link #acquire()} deve sempre devolver a vaga com exatamente um de
+ * {@link #onSuccess(long)}, {@link #onThrottled(long)}, {@link #onDropped()} ou
+ * {@link #onRejected()}.
+ */
+public class AdaptiveLimiter {
+    /** Fator de redução do limite em sinal de sobrecarga. */
+    static final double FATOR_REDUCAO = 0.5;
+    /**
+     * Média curta acima de TOLERANCIA × a média longa indica fila se formando no servidor.
+     * A média longa (e não a mínima) serve de referência para um único valor baixo fora
+     * da curva não fazer toda latência normal parecer alta.
+     */
+    static final double TOLERANCIA_LATENCIA = 2.0;
+    /** Diferença mínima para considerar a latência alta; evita reagir a ruído de poucos ms. */
+    static final long FOLGA_LATENCIA_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final double ALFA_CURTO = 0.2;
+    private static final double ALFA_LONGO = 0.02;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double ratePerSecond;
+    private final double burst;
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+    private long pausedUntil;
+    private long lastDecrease;
+    private double smoothedLatency;
+    private double baselineLatency;
+    private long throttled;
+    private long decreases;
+
+    /**
+     * @param ratePerSecond requisições por segundo; zero ou negativo desliga o balde de fichas
+     * @param burst         fichas acumuláveis (rajada máxima)
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double ratePerSecond, int burst) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limites inválidos: inicial=" + initialLimit
+                    + ", mínimo=" + minLimit + ", máximo=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.limit = initialLimit;
+        this.tokens = this.burst;
+    }
+
+    /** Limitador de concorrência fixa e sem limite de taxa. */
+    public static AdaptiveLimiter fixed(int limit) {
+        return new AdaptiveLimiter(limit, limit, limit, 0, 0);
+    }
+
+    /** Bloqueia até haver vaga, ficha disponível e nenhuma pausa de Retry-After em vigor. */
+    public synchronized void acquire() throws InterruptedException {
+        waiting++;
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                long waitNanos;
+                if (now < pausedUntil) {
+                    waitNanos = pausedUntil - now;
+                } else if (inFlight >= limit()) {
+                    waitNanos = 0; // até alguma vaga ser devolvida
+                } else if (ratePerSecond <= 0) {
+                    break;
+                } else {
+                    refill(now);
+                    if (tokens >= 1) {
+                        tokens -= 1;
+                        break;
+                    }
+                    waitNanos = (long) Math.ceil((1 - tokens) / ratePerSecond * 1e9);
+                }
+                if (waitNanos == 0) {
+                    wait();
+                } else {
+                    TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+                }
+            }
+            inFlight++;
+        } finally {
+            waiting--;
+        }
+    }
+
+    /** Resposta recebida: aumento aditivo, a menos que a latência indique fila no servidor. */
+    public synchronized void onSuccess(long latencyNanos) {
+        release();
+        if (smoothedLatency == 0) {
+            smoothedLatency = latencyNanos;
+            baselineLatency = latencyNanos;
+        } else {
+            smoothedLatency += ALFA_CURTO * (latencyNanos - smoothedLatency);
+            baselineLatency += ALFA_LONGO * (latencyNanos - baselineLatency);
+        }
+        if (smoothedLatency > TOLERANCIA_LATENCIA * baselineLatency
+                && smoothedLatency - baselineLatency > FOLGA_LATENCIA_NANOS) {
+            decrease();
+        } else {
+            // +1/limite por resposta equivale a +1 por janela completa
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /** 429 (ou 503 com Retry-After): redução multiplicativa e pausa pelo tempo pedido. */
+    public synchronized void onThrottled(long retryAfterNanos) {
+        release();
+        throttled++;
+        decrease();
+        if (retryAfterNanos > 0) {
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + retryAfterNanos);
+        }
+    }
+
+    /** Falha de rede ou erro do servidor sem Retry-After. */
+    public synchronized void onDropped() {
+        release();
+        decrease();
+    }
+
+    /** Erro do cliente (4xx): devolve a vaga sem mexer no limite, pois não indica sobrecarga. */
+    public synchronized void onRejected() {
+        release();
+    }
+
+    private void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /** Reduz no máximo uma vez por latência média, para uma rajada de 429 não derrubar o limite a 1. */
+    private void decrease() {
+        long now = System.nanoTime();
+        long window = Math.max((long) smoothedLatency, TimeUnit.MILLISECONDS.toNanos(10));
+        if (decreases > 0 && now - lastDecrease < window) {
+            return;
+        }
+        lastDecrease = now;
+        decreases++;
+        limit = Math.max(minLimit, limit * FATOR_REDUCAO);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefill) / 1e9 * ratePerSecond);
+        lastRefill = now;
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /** Threads bloqueadas em {@link #acquire()}. */
+    public synchronized int waiting() {
+        return waiting;
+    }
+
+    public synchronized long throttled() {
+        return throttled;
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    /** Expõe limite, requisições em andamento e 429 recebidos como medidores. */
+    public void registerGauges(PokemonMetrics metrics) {
+        metrics.registerGauge("limiter.limit", this::limit);
+        metrics.registerGauge("limiter.inFlight", this::inFlight);
+        metrics.registerGauge("limiter.waiting", this::waiting);
+        metrics.registerGauge("limiter.throttled", this::throttled);
+    }
+}
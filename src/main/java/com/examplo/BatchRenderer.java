@@ -0,0 +1,334 @@
+package com.examplo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Renderiza muitos registros direto num canal NIO, à medida que ficam prontos. Cada registro
+ * é montado num StringBuilder reutilizado pelo {@link RecordTemplate}, codificado em UTF-8
+ * para um ByteBuffer também reutilizado e escrito no canal quando o buffer enche ou quando
+ * não há outro registro pronto: em regime, nada é alocado por registro além do que a fonte
+ * (JSON, Pokédex binária) já cria.
+ *
+ * Na ordem de chegada um registro sai assim que é buscado; na ordem de entrada os que chegam
+ * adiantados esperam numa janela indexada pela posição até os anteriores ficarem prontos.
+ */
+public class BatchRenderer {
+    public static final int CONCORRENCIA_PADRAO = 8;
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    /** Formatos de saída. */
+    public enum Format {
+        TEXT(RecordTemplate.TEXT, null, "\n\n"),
+        JSONL(RecordTemplate.JSON_LINES, null, "\n"),
+        CSV(RecordTemplate.CSV, RecordTemplate.CSV_HEADER + "\n", "\n");
+
+        private final RecordTemplate template;
+        private final String header;
+        private final String separator;
+
+        Format(RecordTemplate template, String header, String separator) {
+            this.template = template;
+            this.header = header;
+            this.separator = separator;
+        }
+
+        /** Aceita "texto"/"text", "jsonl" e "csv". */
+        public static Format parse(String name) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "texto":
+                case "text":
+                    return TEXT;
+                case "jsonl":
+                    return JSONL;
+                case "csv":
+                    return CSV;
+                default:
+                    throw new IllegalArgumentException("Formato desconhecido: " + name);
+            }
+        }
+    }
+
+    /** Ordem dos registros na saída. */
+    public enum Order {
+        INPUT, ARRIVAL;
+
+        /** Aceita "entrada" e "chegada". */
+        public static Order parse(String name) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "entrada":
+                case "input":
+                    return INPUT;
+                case "chegada":
+                case "arrival":
+                    return ARRIVAL;
+                default:
+                    throw new IllegalArgumentException("Ordem desconhecida: " + name);
+            }
+        }
+    }
+
+    /** Registros escritos e ids que falharam. */
+    public static final class Report {
+        private final int written;
+        private final List<Integer> failedIds;
+
+        Report(int written, List<Integer> failedIds) {
+            this.written = written;
+            this.failedIds = failedIds;
+        }
+
+        public int written() {
+            return written;
+        }
+
+        public List<Integer> failedIds() {
+            return failedIds;
+        }
+    }
+
+    /** Resultado de uma busca, identificado pela posição na entrada. */
+    private static final class Fetched {
+        final int index;
+        final PokemonInfo info;
+
+        Fetched(int index, PokemonInfo info) {
+            this.index = index;
+            this.info = info;
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final StringBuilder record = new StringBuilder(256);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private char[] chars = new char[256];
+    private CharBuffer charView = CharBuffer.wrap(chars);
+    private boolean headerWritten;
+
+    public BatchRenderer(WritableByteChannel channel, Format format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+    /**
+     * Ids de uma expressão como "1-151", "1,4,7" ou "1-9,25,150-151", na ordem dada.
+     */
+    public static int[] parseIds(String expression) {
+        List<int[]> ranges = new ArrayList<>();
+        int total = 0;
+        for (String part : expression.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                int dash = trimmed.indexOf('-', 1);
+                int from = Integer.parseInt((dash < 0 ? trimmed : trimmed.substring(0, dash)).trim());
+                int to = dash < 0 ? from : Integer.parseInt(trimmed.substring(dash + 1).trim());
+                if (to < from) {
+                    throw new IllegalArgumentException("Intervalo de ids invertido: " + trimmed);
+                }
+                ranges.add(new int[]{from, to});
+                total += to - from + 1;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ids inválidos: " + trimmed, e);
+            }
+        }
+        int[] ids = new int[total];
+        int next = 0;
+        for (int[] range : ranges) {
+            for (int id = range[0]; id <= range[1]; id++) {
+                ids[next++] = id;
+            }
+        }
+        return ids;
+    }
+
+    /** Renderiza da Pokédex binária, sem rede; ids ausentes dela vão para failedIds. */
+    public Report render(int[] ids, PokedexFile dex) throws IOException {
+        writeHeader();
+        int written = 0;
+        List<Integer> failed = new ArrayList<>();
+        for (int id : ids) {
+            if (dex.contains(id)) {
+                write(id, dex.get(id));
+                written++;
+            } else {
+                failed.add(id);
+            }
+        }
+        flush();
+        return new Report(written, failed);
+    }
+
+    /**
+     * Busca e interpreta os registros em paralelo e escreve cada um assim que a ordem pedida
+     * permite. O canal só é usado pela thread chamadora.
+     */
+    public Report render(int[] ids, PokemonFetcher fetcher, int concurrency, Order order)
+            throws IOException, InterruptedException {
+        return render(ids, null, fetcher, concurrency, order);
+    }
+
+    /**
+     * Como {@link #render(int[], PokemonFetcher, int, Order)}, mas os ids que a Pokédex binária
+     * cobre saem dela, na thread chamadora; só os ausentes são buscados. dex pode ser null.
+     * Um id repetido na entrada ("1-9,5") é buscado uma vez só enquanto a busca está em voo.
+     */
+    public Report render(int[] ids, PokedexFile dex, PokemonFetcher fetcher, int concurrency, Order order)
+            throws IOException, InterruptedException {
+        writeHeader();
+        boolean[] local = new boolean[ids.length];
+        int missing = 0;
+        for (int i = 0; i < ids.length; i++) {
+            local[i] = dex != null && dex.contains(ids[i]);
+            if (!local[i]) {
+                missing++;
+            }
+        }
+        PokemonFetcher coalesced = new CoalescingFetcher(fetcher);
+        BlockingQueue<Fetched> ready = new LinkedBlockingQueue<>();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, missing)));
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                if (local[i]) {
+                    continue;
+                }
+                int index = i;
+                workers.execute(() -> {
+                    PokemonInfo info = null;
+                    try {
+                        info = PokemonJsonExtractor.extract(coalesced.fetch(ids[index]));
+                    } catch (IOException | RuntimeException e) {
+                        // info nula marca a falha; o id vai para o relatório
+                    } finally {
+                        // mesmo com um Error, a thread chamadora recebe o resultado e não trava no take
+                        ready.add(new Fetched(index, info));
+                    }
+                });
+            }
+
+            int written = 0;
+            if (order == Order.ARRIVAL) {
+                // os da Pokédex já estão prontos: saem enquanto os outros são buscados
+                for (int i = 0; i < ids.length; i++) {
+                    if (local[i]) {
+                        write(ids[i], dex.get(ids[i]));
+                        written++;
+                    }
+                }
+                flush();
+            }
+            // janela da ordem de entrada: posição -> registro que chegou antes da vez
+            PokemonInfo[] pending = order == Order.INPUT ? new PokemonInfo[ids.length] : null;
+            boolean[] done = order == Order.INPUT ? local.clone() : null;
+            int nextIndex = 0;
+            List<Integer> failed = new ArrayList<>();
+            for (int received = 0; received <= missing; received++) {
+                if (received > 0) {
+                    Fetched fetched = ready.take();
+                    if (fetched.info == null) {
+                        failed.add(ids[fetched.index]);
+                    }
+                    if (order == Order.ARRIVAL) {
+                        if (fetched.info != null) {
+                            write(ids[fetched.index], fetched.info);
+                            written++;
+                        }
+                    } else {
+                        pending[fetched.index] = fetched.info;
+                        done[fetched.index] = true;
+                    }
+                }
+                if (order == Order.INPUT) {
+                    while (nextIndex < ids.length && done[nextIndex]) {
+                        PokemonInfo info = local[nextIndex] ? dex.get(ids[nextIndex]) : pending[nextIndex];
+                        if (info != null) {
+                            write(ids[nextIndex], info);
+                            pending[nextIndex] = null;
+                            written++;
+                        }
+                        nextIndex++;
+                    }
+                }
+                if (ready.isEmpty()) {
+                    // nada mais pronto: entrega o que já foi renderizado em vez de esperar o buffer encher
+                    flush();
+                }
+            }
+            flush();
+            Collections.sort(failed);
+            return new Report(written, failed);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /** Renderiza um registro no buffer; o canal só é escrito quando o buffer enche. */
+    public void write(int id, PokemonInfo info) throws IOException {
+        record.setLength(0);
+        format.template.appendTo(id, info, record);
+        record.append(format.separator);
+        encode(record);
+    }
+
+    /** Escreve no canal o que está no buffer. */
+    public void flush() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private void writeHeader() throws IOException {
+        if (format.header != null && !headerWritten) {
+            record.setLength(0);
+            record.append(format.header);
+            encode(record);
+            headerWritten = true;
+        }
+    }
+
+    /** Copia os chars para um array reutilizado e codifica em UTF-8 direto no buffer de saída. */
+    private void encode(StringBuilder text) throws IOException {
+        int length = text.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charView = CharBuffer.wrap(chars);
+        }
+        text.getChars(0, length, chars, 0);
+        charView.clear();
+        charView.limit(length);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(charView, bytes, true);
+            if (result.isOverflow()) {
+                flush();
+                continue;
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            break;
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            flush();
+        }
+    }
+}
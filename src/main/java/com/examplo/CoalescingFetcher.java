@@ -0,0 +1,18 @@
+package com.examplo;
+
+import java.io.IOException;
+
+/** Fetcher que faz buscas simultâneas do mesmo id resultarem em uma única requisição. */
+public class CoalescingFetcher implements PokemonFetcher {
+    private final PokemonFetcher delegate;
+    private final SingleFlight<Integer, String> flights = new SingleFlight<>();
+
+    public CoalescingFetcher(PokemonFetcher delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String fetch(int id) throws IOException {
+        return flights.execute(id, () -> delegate.fetch(id));
+    }
+}
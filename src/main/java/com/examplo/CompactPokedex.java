@@ -0,0 +1,251 @@
+package com.examplo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pokédex compacta em memória, organizada como struct-of-arrays indexados pelo id.
+ * Guarda só os campos usados na formatação: nomes em um único pool de bytes,
+ * altura e peso em arrays de int e tipos e habilidades como códigos de dicionário.
+ * Não há objeto por entrada; a Pokédex inteira ocupa algumas dezenas de KB.
+ */
+public final class CompactPokedex {
+    public static final int MAX_TYPES = 2;
+    public static final int MAX_ABILITIES = 3;
+
+    private final int maxId;
+    private final BitSet present;
+    private final int[] nameStart;
+    private final short[] nameLength;
+    private final int[] height;
+    private final int[] weight;
+    // códigos de dicionário somados de 1; 0 indica slot vazio
+    private final short[] types;
+    private final short[] abilities;
+
+    private byte[] namePool = new byte[16 * 1024];
+    private int namePoolSize;
+
+    private final Dictionary typeDictionary = new Dictionary();
+    private final Dictionary abilityDictionary = new Dictionary();
+
+    public CompactPokedex(int maxId) {
+        this.maxId = maxId;
+        this.present = new BitSet(maxId + 1);
+        this.nameStart = new int[maxId + 1];
+        this.nameLength = new short[maxId + 1];
+        this.height = new int[maxId + 1];
+        this.weight = new int[maxId + 1];
+        this.types = new short[(maxId + 1) * MAX_TYPES];
+        this.abilities = new short[(maxId + 1) * MAX_ABILITIES];
+    }
+
+    /** Monta a Pokédex a partir das respostas JSON indexadas por id. */
+    public static CompactPokedex fromJson(Map<Integer, String> entries) {
+        int maxId = 0;
+        for (int id : entries.keySet()) {
+            maxId = Math.max(maxId, id);
+        }
+        CompactPokedex dex = new CompactPokedex(maxId);
+        for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+            dex.put(entry.getKey(), PokemonJsonExtractor.extract(entry.getValue()));
+        }
+        return dex;
+    }
+
+    /** Id repetido é rejeitado: o nome antigo ficaria perdido no pool de bytes. */
+    public void put(int id, PokemonInfo info) {
+        checkId(id);
+        if (present.get(id)) {
+            throw new IllegalArgumentException("Pokémon " + id + " já está na Pokédex");
+        }
+        if (info.types().size() > MAX_TYPES || info.abilities().size() > MAX_ABILITIES) {
+            throw new IllegalArgumentException("Pokémon " + id + " tem tipos ou habilidades demais");
+        }
+        byte[] name = info.name().getBytes(StandardCharsets.UTF_8);
+        if (namePoolSize + name.length > namePool.length) {
+            namePool = Arrays.copyOf(namePool, Math.max(namePool.length * 2, namePoolSize + name.length));
+        }
+        System.arraycopy(name, 0, namePool, namePoolSize, name.length);
+        nameStart[id] = namePoolSize;
+        nameLength[id] = (short) name.length;
+        namePoolSize += name.length;
+
+        height[id] = info.height();
+        weight[id] = info.weight();
+        for (int i = 0; i < MAX_TYPES; i++) {
+            types[id * MAX_TYPES + i] = i < info.types().size() ? typeDictionary.code(info.types().get(i)) : 0;
+        }
+        for (int i = 0; i < MAX_ABILITIES; i++) {
+            abilities[id * MAX_ABILITIES + i] = i < info.abilities().size()
+                    ? abilityDictionary.code(info.abilities().get(i)) : 0;
+        }
+        present.set(id);
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id <= maxId && present.get(id);
+    }
+
+    public int size() {
+        return present.cardinality();
+    }
+
+    public int maxId() {
+        return maxId;
+    }
+
+    public String name(int id) {
+        checkPresent(id);
+        return new String(namePool, nameStart[id], nameLength[id], StandardCharsets.UTF_8);
+    }
+
+    public int height(int id) {
+        checkPresent(id);
+        return height[id];
+    }
+
+    public int weight(int id) {
+        checkPresent(id);
+        return weight[id];
+    }
+
+    public String primaryType(int id) {
+        checkPresent(id);
+        return typeDictionary.name(types[id * MAX_TYPES]);
+    }
+
+    /** Código de dicionário do tipo no slot (0 quando vazio); usado pelos índices. */
+    public int typeCode(int id, int slot) {
+        checkPresent(id);
+        return types[id * MAX_TYPES + slot];
+    }
+
+    public int abilityCode(int id, int slot) {
+        checkPresent(id);
+        return abilities[id * MAX_ABILITIES + slot];
+    }
+
+    /** Código do tipo pelo nome, ou 0 se nenhum Pokémon tiver esse tipo. */
+    public int typeCode(String type) {
+        return typeDictionary.find(type);
+    }
+
+    public int abilityCode(String ability) {
+        return abilityDictionary.find(ability);
+    }
+
+    public String typeName(int code) {
+        return typeDictionary.name(code);
+    }
+
+    public String abilityName(int code) {
+        return abilityDictionary.name(code);
+    }
+
+    public int typeCount() {
+        return typeDictionary.size();
+    }
+
+    public int abilityCount() {
+        return abilityDictionary.size();
+    }
+
+    /** Reconstrói o PokemonInfo do id. */
+    public PokemonInfo get(int id) {
+        checkPresent(id);
+        return new PokemonInfo(name(id), height[id], weight[id],
+                decode(types, id * MAX_TYPES, MAX_TYPES, typeDictionary),
+                decode(abilities, id * MAX_ABILITIES, MAX_ABILITIES, abilityDictionary));
+    }
+
+    /** Mesmo texto de PokemonDoDia.formatPokemonInfo, renderizado com {@link RecordTemplate#TEXT}. */
+    public String format(int id) {
+        StringBuilder out = new StringBuilder(96);
+        formatTo(id, out);
+        return out.toString();
+    }
+
+    public void formatTo(int id, StringBuilder out) {
+        RecordTemplate.TEXT.appendTo(id, get(id), out);
+    }
+
+    /** Estimativa dos bytes de heap ocupados pelos arrays e dicionários. */
+    public long estimatedBytes() {
+        long bytes = namePool.length
+                + (long) nameStart.length * Integer.BYTES
+                + (long) nameLength.length * Short.BYTES
+                + (long) height.length * Integer.BYTES
+                + (long) weight.length * Integer.BYTES
+                + (long) types.length * Short.BYTES
+                + (long) abilities.length * Short.BYTES
+                + present.size() / 8;
+        return bytes + typeDictionary.estimatedBytes() + abilityDictionary.estimatedBytes();
+    }
+
+    private static List<String> decode(short[] codes, int start, int slots, Dictionary dictionary) {
+        List<String> names = new ArrayList<>(slots);
+        for (int i = start; i < start + slots && codes[i] != 0; i++) {
+            names.add(dictionary.name(codes[i]));
+        }
+        return names;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id > maxId) {
+            throw new IndexOutOfBoundsException("Id fora da Pokédex: " + id);
+        }
+    }
+
+    private void checkPresent(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Pokémon " + id + " não está na Pokédex");
+        }
+    }
+
+    /** Dicionário de nomes internados; os códigos começam em 1. */
+    private static final class Dictionary {
+        private final Map<String, Short> codes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        short code(String name) {
+            Short code = codes.get(name);
+            if (code == null) {
+                if (names.size() >= Short.MAX_VALUE) {
+                    throw new IllegalStateException("Dicionário cheio");
+                }
+                names.add(name.intern());
+                code = (short) names.size();
+                codes.put(name, code);
+            }
+            return code;
+        }
+
+        int find(String name) {
+            Short code = codes.get(name);
+            return code == null ? 0 : code;
+        }
+
+        String name(int code) {
+            return code == 0 ? null : names.get(code - 1);
+        }
+
+        int size() {
+            return names.size();
+        }
+
+        long estimatedBytes() {
+            long bytes = 0;
+            for (String name : names) {
+                // String + array de bytes + entrada do HashMap
+                bytes += 40 + name.length() + 48;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.examplo;
+
+import java.time.LocalDate;
+
+/** Escolhe o id pela data do calendário e um sal opcional; ids podem se repetir entre dias. */
+public class DateSeededSelector implements PokemonSelector {
+    private final int total;
+    private final long salt;
+
+    public DateSeededSelector(int total, String salt) {
+        if (total < 1) {
+            throw new IllegalArgumentException("Total de Pokémon deve ser positivo");
+        }
+        this.total = total;
+        // String.hashCode é especificado pela linguagem, então o sal vale igual em qualquer JVM
+        this.salt = salt.hashCode();
+    }
+
+    @Override
+    public int select(LocalDate date) {
+        long hash = PokemonSelector.mix(date.toEpochDay() ^ (salt << 32));
+        return (int) Math.floorMod(hash, (long) total) + 1;
+    }
+}
@@ -0,0 +1,97 @@
+package com.examplo;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pokémon com os recursos ligados já resolvidos: relações de dano dos tipos,
+ * descrição curta das habilidades e o gênero da espécie. Recursos que não puderam
+ * ser buscados ficam de fora, e o tipo de link afetado fica em {@link #incompleteLinks()}.
+ */
+public final class EnrichedPokemon {
+    private final int id;
+    private final PokemonInfo info;
+    private final List<TypeRelations> types;
+    private final Map<String, String> abilityEffects;
+    private final String genus;
+    private final Set<ResourceGraphFetcher.Link> incomplete;
+
+    public EnrichedPokemon(int id, PokemonInfo info, List<TypeRelations> types,
+                           Map<String, String> abilityEffects, String genus,
+                           Set<ResourceGraphFetcher.Link> incomplete) {
+        this.id = id;
+        this.info = info;
+        this.types = Collections.unmodifiableList(types);
+        this.abilityEffects = Collections.unmodifiableMap(abilityEffects);
+        this.genus = genus;
+        this.incomplete = Collections.unmodifiableSet(incomplete);
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public PokemonInfo info() {
+        return info;
+    }
+
+    public List<TypeRelations> types() {
+        return types;
+    }
+
+    /** Descrição curta por nome de habilidade, na ordem dos slots. */
+    public Map<String, String> abilityEffects() {
+        return abilityEffects;
+    }
+
+    /** Gênero da espécie (ex.: "Seed Pokémon"), ou null. */
+    public String genus() {
+        return genus;
+    }
+
+    /** Links pedidos com algum recurso que não pôde ser buscado. */
+    public Set<ResourceGraphFetcher.Link> incompleteLinks() {
+        return incomplete;
+    }
+
+    public boolean isComplete() {
+        return incomplete.isEmpty();
+    }
+
+    /**
+     * Tipos atacantes com multiplicador combinado acima de 1 contra todos os tipos
+     * do Pokémon, em ordem decrescente de multiplicador. Sem as relações de algum tipo
+     * o resultado estaria errado, então nesse caso lança IllegalStateException.
+     */
+    public Map<String, Double> weaknesses() {
+        if (incomplete.contains(ResourceGraphFetcher.Link.TYPE)) {
+            throw new IllegalStateException("Relações de dano incompletas para o Pokémon " + id);
+        }
+        Set<String> attackers = new LinkedHashSet<>();
+        for (TypeRelations type : types) {
+            attackers.addAll(type.doubleDamageFrom());
+        }
+        List<Map.Entry<String, Double>> found = new ArrayList<>();
+        for (String attacker : attackers) {
+            double multiplier = 1;
+            for (TypeRelations type : types) {
+                multiplier *= type.multiplierFrom(attacker);
+            }
+            if (multiplier > 1) {
+                found.add(new SimpleImmutableEntry<>(attacker, multiplier));
+            }
+        }
+        found.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        Map<String, Double> weaknesses = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : found) {
+            weaknesses.put(entry.getKey(), entry.getValue());
+        }
+        return weaknesses;
+    }
+}
@@ -0,0 +1,39 @@
+package com.examplo;
+
+import java.time.LocalDate;
+
+/**
+ * Restringe a escolha do dia ao resultado de uma consulta do {@link PokedexIndex}.
+ * O seletor base escolhe uma posição entre 1 e o tamanho do resultado, então os modos
+ * "data" e "sem-repeticao" continuam valendo dentro do subconjunto filtrado.
+ */
+public class FilteredSelector implements PokemonSelector {
+    private final int[] ids;
+    private final PokemonSelector positions;
+
+    public FilteredSelector(PokedexIndex.Query query, PokemonSelector positions) {
+        this.ids = query.toArray();
+        if (ids.length == 0) {
+            throw new IllegalArgumentException("Nenhum Pokémon atende ao filtro");
+        }
+        this.positions = positions;
+    }
+
+    /** Usa o seletor de POKEMON_SELECAO e POKEMON_SALT sobre o resultado da consulta. */
+    public static FilteredSelector fromEnvironment(PokedexIndex.Query query) {
+        int count = query.count();
+        if (count == 0) {
+            throw new IllegalArgumentException("Nenhum Pokémon atende ao filtro");
+        }
+        return new FilteredSelector(query, PokemonSelector.fromEnvironment(count));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    @Override
+    public int select(LocalDate date) {
+        return ids[positions.select(date) - 1];
+    }
+}
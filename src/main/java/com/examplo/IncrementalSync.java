@@ -0,0 +1,298 @@
+package com.examplo;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sincronização incremental: descobre o tamanho atual da Pokédex pela lista paginada
+ * (/pokemon?limit=&offset=), compara com o snapshot e o manifesto locais e busca só os
+ * ids novos ou renomeados. Sem mudanças, custa duas requisições pequenas: a sondagem com
+ * limit=1 e a lista completa condicional, respondida com 304.
+ */
+public class IncrementalSync {
+
+    /** O que uma sincronização incremental encontrou e fez. */
+    public static final class Report {
+        private final int count;
+        private final int listRequests;
+        private final boolean unchanged;
+        private final List<Integer> added;
+        private final List<Integer> changed;
+        private final List<Integer> removed;
+        private final PokedexSync.Result fetched;
+        private final List<Integer> invalid;
+
+        Report(int count, int listRequests, boolean unchanged, List<Integer> added, List<Integer> changed,
+               List<Integer> removed, PokedexSync.Result fetched, List<Integer> invalid) {
+            this.count = count;
+            this.listRequests = listRequests;
+            this.unchanged = unchanged;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+            this.fetched = fetched;
+            this.invalid = invalid;
+        }
+
+        /** Quantidade de ids da Pokédex nacional na lista atual. */
+        public int count() {
+            return count;
+        }
+
+        public int listRequests() {
+            return listRequests;
+        }
+
+        /** A lista respondeu 304 e a cópia local já estava completa: nada foi gravado. */
+        public boolean unchanged() {
+            return unchanged;
+        }
+
+        public List<Integer> added() {
+            return added;
+        }
+
+        public List<Integer> changed() {
+            return changed;
+        }
+
+        public List<Integer> removed() {
+            return removed;
+        }
+
+        /** Resultado das buscas por id, ou null quando nada precisou ser buscado. */
+        public PokedexSync.Result fetched() {
+            return fetched;
+        }
+
+        /** Payloads recebidos que não puderam ser lidos; ficaram fora do snapshot e do manifesto. */
+        public List<Integer> invalidIds() {
+            return invalid;
+        }
+
+        /** Ids cuja busca falhou e ids com payload inválido, em ordem. */
+        public List<Integer> failedIds() {
+            if (fetched == null) {
+                return invalid;
+            }
+            if (invalid.isEmpty()) {
+                return fetched.failedIds();
+            }
+            List<Integer> failed = new ArrayList<>(fetched.failedIds());
+            failed.addAll(invalid);
+            Collections.sort(failed);
+            return failed;
+        }
+
+        public String summary() {
+            if (unchanged) {
+                return "Pokédex local atualizada (" + count + " Pokémon, " + listRequests + " requisições)";
+            }
+            return "Pokédex com " + count + " Pokémon: " + added.size() + " novos, " + changed.size()
+                    + " alterados, " + removed.size() + " removidos"
+                    + (fetched != null ? ", " + fetched.notModifiedIds().size() + " sem mudança (304)" : "");
+        }
+    }
+
+    /** Uma página da lista com o ETag da resposta. */
+    private static final class Page {
+        final PokemonListing listing;
+        final String etag;
+
+        Page(PokemonListing listing, String etag) {
+            this.listing = listing;
+            this.etag = etag;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final PokedexSync sync;
+
+    /**
+     * @param baseUrl url de /pokemon/ com a barra final, a mesma usada para buscar por id
+     */
+    public IncrementalSync(OkHttpClient client, String baseUrl, PokedexSync sync) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.sync = sync;
+    }
+
+    /**
+     * Atualiza snapshot, manifesto e Pokédex binária nos caminhos informados.
+     * Com revalidate, todos os ids são pedidos de novo com requisições condicionais.
+     * Até haver algo a buscar, do snapshot só se leem os ids; os payloads são
+     * descomprimidos apenas para a regravação. Payloads que não podem ser lidos ficam de
+     * fora, e o manifesto é gravado por último, com o que de fato foi gravado.
+     */
+    public Report run(Path snapshotPath, Path manifestPath, Path dexPath, boolean revalidate)
+            throws IOException, InterruptedException {
+        PokedexManifest manifest = PokedexManifest.readIfExists(manifestPath);
+        Set<Integer> stored = PokedexSnapshot.readIds(snapshotPath);
+
+        // sondagem: só a contagem, com uma página de um item
+        int count = fetchPage(baseUrl + "?limit=1&offset=0", null).listing.count();
+        int listRequests = 1;
+
+        // lista completa, condicional quando a contagem bate com a da última sincronização
+        String knownEtag = count == manifest.count() ? manifest.listEtag() : null;
+        Page page = fetchPage(baseUrl + "?limit=" + Math.max(count, 1) + "&offset=0", knownEtag);
+        listRequests++;
+        String listEtag = page != null ? page.etag : knownEtag;
+        Map<Integer, String> names = new TreeMap<>();
+        if (page == null) {
+            // 304: a lista é a mesma que o manifesto já descreve
+            names.putAll(manifest.names());
+        } else {
+            names.putAll(page.listing.names());
+            while (page.listing.next() != null) {
+                page = fetchPage(page.listing.next(), null);
+                listRequests++;
+                names.putAll(page.listing.names());
+            }
+        }
+        names.keySet().removeIf(id -> id >= PokemonListing.PRIMEIRO_ID_DE_FORMA);
+
+        List<Integer> added = new ArrayList<>();
+        List<Integer> changed = new ArrayList<>();
+        List<Integer> removed = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : names.entrySet()) {
+            String known = manifest.name(entry.getKey());
+            if (!stored.contains(entry.getKey())) {
+                added.add(entry.getKey());
+            } else if (known != null && !known.equals(entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        if (page != null) {
+            for (int id : stored) {
+                if (!names.containsKey(id)) {
+                    removed.add(id);
+                }
+            }
+        }
+        if (page == null && !revalidate && added.isEmpty()) {
+            if (manifest.dexCount() != names.size()) {
+                // manifesto de uma versão que ainda não guardava o tamanho da Pokédex
+                manifest.setList(count, names.size(), manifest.listEtag());
+                manifest.write(manifestPath);
+            }
+            return new Report(names.size(), listRequests, true, added, changed, removed, null,
+                    Collections.emptyList());
+        }
+
+        List<Integer> candidates = new ArrayList<>(revalidate ? names.keySet() : added);
+        if (!revalidate) {
+            candidates.addAll(changed);
+            Collections.sort(candidates);
+        }
+        Map<Integer, PokedexSync.Validators> known = new TreeMap<>();
+        for (int id : candidates) {
+            PokedexSync.Validators validators = manifest.validators(id);
+            if (validators != null && stored.contains(id)) {
+                known.put(id, validators);
+            }
+        }
+        PokedexSync.Result fetched = null;
+        if (!candidates.isEmpty()) {
+            int[] ids = new int[candidates.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = candidates.get(i);
+            }
+            fetched = sync.fetchIds(ids, known);
+        }
+
+        PokedexSnapshot snapshot = PokedexSnapshot.readIfExists(snapshotPath);
+        Map<Integer, String> entries = new TreeMap<>();
+        if (snapshot != null) {
+            entries.putAll(snapshot.entries());
+        }
+        if (fetched != null) {
+            entries.putAll(fetched.entries());
+        }
+        for (int id : removed) {
+            entries.remove(id);
+            manifest.remove(id);
+        }
+        // valida tudo antes de gravar qualquer arquivo; o que não se lê fica de fora dos três
+        List<Integer> invalid = new ArrayList<>();
+        CompactPokedex dex = compact(entries, invalid);
+        Set<Integer> failed = fetched != null ? new HashSet<>(fetched.failedIds()) : Collections.emptySet();
+        for (Map.Entry<Integer, String> entry : names.entrySet()) {
+            if (failed.contains(entry.getKey())) {
+                // fica o nome antigo: a próxima sincronização vê a diferença e tenta de novo
+                continue;
+            }
+            if (invalid.contains(entry.getKey())) {
+                // fora do snapshot, o id volta como novo na próxima sincronização
+                manifest.remove(entry.getKey());
+                continue;
+            }
+            PokedexSync.Validators validators = fetched != null ? fetched.validators().get(entry.getKey()) : null;
+            manifest.put(entry.getKey(), entry.getValue(), validators);
+        }
+        // com falhas, um 304 da lista esconderia os ids pendentes; sem ETag ela vem inteira
+        manifest.setList(count, names.size(), failed.isEmpty() && invalid.isEmpty() ? listEtag : null);
+
+        PokedexSnapshot.write(snapshotPath, entries);
+        PokedexFile.write(dexPath, dex);
+        manifest.write(manifestPath);
+        return new Report(names.size(), listRequests, false, added, changed, removed, fetched, invalid);
+    }
+
+    /**
+     * Monta a Pokédex compacta a partir das entradas, tirando delas (e anotando em invalid)
+     * as que não puderem ser lidas, em vez de abortar a sincronização inteira.
+     */
+    private static CompactPokedex compact(Map<Integer, String> entries, List<Integer> invalid) {
+        int maxId = 0;
+        Map<Integer, PokemonInfo> infos = new TreeMap<>();
+        for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+            try {
+                infos.put(entry.getKey(), PokemonJsonExtractor.extract(entry.getValue()));
+                maxId = Math.max(maxId, entry.getKey());
+            } catch (RuntimeException e) {
+                invalid.add(entry.getKey());
+            }
+        }
+        CompactPokedex dex = new CompactPokedex(maxId);
+        for (Map.Entry<Integer, PokemonInfo> entry : infos.entrySet()) {
+            try {
+                dex.put(entry.getKey(), entry.getValue());
+            } catch (IllegalArgumentException e) {
+                invalid.add(entry.getKey());
+            }
+        }
+        Collections.sort(invalid);
+        entries.keySet().removeAll(invalid);
+        return dex;
+    }
+
+    /** Busca uma página da lista; retorna null quando a resposta condicional é 304. */
+    private Page fetchPage(String url, String etag) throws IOException {
+        Request.Builder builder = new Request.Builder().url(url);
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        try (Response response = client.newCall(builder.build()).execute()) {
+            if (response.code() == 304 && etag != null) {
+                return null;
+            }
+            if (response.isSuccessful() && response.body() != null) {
+                return new Page(PokemonListing.parse(response.body().charStream()), response.header("ETag"));
+            }
+            throw new IOException("Não foi possível buscar a lista de Pokémon (status: " + response.code() + ")");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.examplo;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Mede as fases de uma chamada OkHttp (DNS, conexão TCP, TLS, tempo até o primeiro byte
+ * e download do corpo) e registra cada duração no histograma correspondente.
+ * A conexão TCP termina onde o handshake TLS começa, então as duas fases não se sobrepõem.
+ * Chamadas canceladas de propósito, como o perdedor de uma requisição com hedge, não contam
+ * como falha. Uma instância por chamada, criada pela fábrica de {@link PokemonMetrics}.
+ */
+final class MetricsEventListener extends EventListener {
+    private final PokemonMetrics metrics;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long bodyStart;
+
+    MetricsEventListener(PokemonMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        metrics.histogram(PokemonMetrics.DNS).record(System.nanoTime() - dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        secureConnectStart = 0;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+        metrics.histogram(PokemonMetrics.CONNECT).record(secureConnectStart - connectStart);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        metrics.histogram(PokemonMetrics.TLS).record(System.nanoTime() - secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        // com TLS, a fase de conexão já foi registrada em secureConnectStart
+        if (secureConnectStart == 0) {
+            metrics.histogram(PokemonMetrics.CONNECT).record(System.nanoTime() - connectStart);
+        }
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        metrics.histogram(PokemonMetrics.TTFB).record(System.nanoTime() - requestStart);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        if (response.code() >= 500 || response.code() == 429) {
+            metrics.recordUpstreamError();
+        }
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        metrics.histogram(PokemonMetrics.BODY).record(System.nanoTime() - bodyStart);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        metrics.histogram(PokemonMetrics.CALL).record(System.nanoTime() - callStart);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        if (call.isCanceled()) {
+            return;
+        }
+        metrics.histogram(PokemonMetrics.CALL).record(System.nanoTime() - callStart);
+        metrics.recordFailure();
+    }
+}
@@ -0,0 +1,412 @@
+package com.examplo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Arquivo com o JSON original de cada Pokémon comprimido individualmente por Deflater,
+ * todos com o mesmo dicionário pré-definido treinado a partir de amostras. As chaves, os
+ * prefixos de url e os nomes de versão que se repetem em todo payload ficam no dicionário,
+ * então cada registro só paga pelo que tem de próprio. O índice ordenado por id permite
+ * descomprimir um único registro sem ler os outros.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * cabeçalho   magic "PKAR", versão, quantidade, tamanho do dicionário,
+ *             offset do índice, offset dos dados, 2 ints reservados
+ * dicionário  bytes UTF-8 (até 32 KiB, a janela do deflate)
+ * índice      por registro: id, offset relativo aos dados, tamanho comprimido e original
+ * dados       streams zlib, um por registro
+ * </pre>
+ */
+public final class PokedexArchive implements AutoCloseable {
+    public static final int MAGIC = 0x504B4152; // "PKAR"
+    public static final int VERSION = 1;
+    /** A janela do deflate é de 32 KiB: bytes do dicionário além disso nunca seriam referenciados. */
+    public static final int TAMANHO_MAXIMO_DICIONARIO = 32 * 1024;
+    /** Amostras usadas para treinar o dicionário, espalhadas pela Pokédex. */
+    public static final int AMOSTRAS_PADRAO = 64;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int INDEX_ENTRY_SIZE = 4 * Integer.BYTES;
+    private static final int TAMANHO_DMER = 8;
+    private static final int TAMANHO_SEGMENTO = 1024;
+    private static final int BITS_TABELA_DMER = 20;
+    private static final int TABELA_DMER = 1 << BITS_TABELA_DMER;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final byte[] dictionary;
+    private final int index;
+    private final int data;
+
+    private PokedexArchive(FileChannel channel, MappedByteBuffer buffer, int count, byte[] dictionary,
+                           int index, int data) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.count = count;
+        this.dictionary = dictionary;
+        this.index = index;
+        this.data = data;
+    }
+
+    /** Mapeia o arquivo e valida magic, versão, limites do índice e o fim do último registro. */
+    public static PokedexArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo comprimido com tamanho inválido: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Arquivo não é um arquivo comprimido da Pokédex: " + path);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Versão de arquivo comprimido não suportada: " + version);
+            }
+            int count = buffer.getInt(8);
+            int dictionaryLength = buffer.getInt(12);
+            int index = buffer.getInt(16);
+            int data = buffer.getInt(20);
+            if (count < 0 || dictionaryLength < 0 || index != HEADER_SIZE + dictionaryLength
+                    || data != index + (long) count * INDEX_ENTRY_SIZE || data > buffer.capacity()) {
+                throw new IOException("Arquivo comprimido truncado: " + path);
+            }
+            if (count > 0) {
+                // os registros são gravados em ordem: o último termina no fim do arquivo
+                int last = index + (count - 1) * INDEX_ENTRY_SIZE;
+                long end = data + (long) buffer.getInt(last + 4) + buffer.getInt(last + 8);
+                if (end > buffer.capacity()) {
+                    throw new IOException("Arquivo comprimido truncado: " + path);
+                }
+            }
+            byte[] dictionary = new byte[dictionaryLength];
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(HEADER_SIZE);
+            slice.get(dictionary);
+            return new PokedexArchive(channel, buffer, count, dictionary, index, data);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Grava as entradas com um dicionário treinado a partir de até {@link #AMOSTRAS_PADRAO} delas. */
+    public static void write(Path path, Map<Integer, String> entries) throws IOException {
+        List<String> samples = new ArrayList<>();
+        int step = Math.max(1, entries.size() / AMOSTRAS_PADRAO);
+        int i = 0;
+        for (String json : new TreeMap<>(entries).values()) {
+            if (i++ % step == 0 && samples.size() < AMOSTRAS_PADRAO) {
+                samples.add(json);
+            }
+        }
+        write(path, entries, trainDictionary(samples, TAMANHO_MAXIMO_DICIONARIO));
+    }
+
+    /** Grava as entradas ordenadas por id; o arquivo só substitui o anterior quando completo. */
+    public static void write(Path path, Map<Integer, String> entries, byte[] dictionary) throws IOException {
+        if (dictionary.length > TAMANHO_MAXIMO_DICIONARIO) {
+            throw new IllegalArgumentException("Dicionário maior que a janela do deflate: " + dictionary.length);
+        }
+        int count = entries.size();
+        int index = HEADER_SIZE + dictionary.length;
+        int data = index + count * INDEX_ENTRY_SIZE;
+        ByteBuffer indexBuffer = ByteBuffer.allocate(count * INDEX_ENTRY_SIZE);
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] chunk = new byte[64 * 1024];
+        try {
+            for (Map.Entry<Integer, String> entry : new TreeMap<>(entries).entrySet()) {
+                byte[] raw = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                int offset = records.size();
+                deflater.reset();
+                if (dictionary.length > 0) {
+                    deflater.setDictionary(dictionary);
+                }
+                deflater.setInput(raw);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    records.write(chunk, 0, deflater.deflate(chunk));
+                }
+                indexBuffer.putInt(entry.getKey());
+                indexBuffer.putInt(offset);
+                indexBuffer.putInt(records.size() - offset);
+                indexBuffer.putInt(raw.length);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(count);
+        header.putInt(dictionary.length);
+        header.putInt(index);
+        header.putInt(data);
+        header.putInt(0);
+        header.putInt(0);
+        header.flip();
+        indexBuffer.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "pokedex", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (ByteBuffer part : new ByteBuffer[]{header, ByteBuffer.wrap(dictionary), indexBuffer,
+                        ByteBuffer.wrap(records.toByteArray())}) {
+                    while (part.hasRemaining()) {
+                        out.write(part);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Monta um dicionário com os trechos das amostras que mais cobrem conteúdo repetido entre
+     * elas, numa versão simplificada do algoritmo COVER do zstd: cada sequência de
+     * {@value #TAMANHO_DMER} bytes vale o número de amostras em que aparece; as amostras são
+     * cortadas em trechos de {@value #TAMANHO_SEGMENTO} bytes e o trecho de maior soma entra
+     * primeiro. As sequências de um trecho escolhido deixam de valer para os demais, então o
+     * dicionário não gasta espaço com o mesmo conteúdo duas vezes. Os melhores trechos ficam
+     * no fim, onde as distâncias do deflate são menores.
+     */
+    public static byte[] trainDictionary(Collection<String> samples, int maxSize) {
+        List<byte[]> data = new ArrayList<>();
+        for (String sample : samples) {
+            data.add(sample.getBytes(StandardCharsets.UTF_8));
+        }
+        // frequência de documento por hash da sequência; colisões só distorcem a pontuação
+        int[] frequency = new int[TABELA_DMER];
+        int[] lastSample = new int[TABELA_DMER];
+        for (int s = 0; s < data.size(); s++) {
+            byte[] sample = data.get(s);
+            for (int i = 0; i + TAMANHO_DMER <= sample.length; i++) {
+                int slot = slot(sample, i);
+                if (lastSample[slot] != s + 1) {
+                    lastSample[slot] = s + 1;
+                    frequency[slot]++;
+                }
+            }
+        }
+        int minimum = Math.min(2, data.size());
+
+        // {pontuação, amostra, offset}, maior pontuação primeiro
+        PriorityQueue<long[]> candidates = new PriorityQueue<>((a, b) -> Long.compare(b[0], a[0]));
+        for (int s = 0; s < data.size(); s++) {
+            for (int offset = 0; offset < data.get(s).length; offset += TAMANHO_SEGMENTO) {
+                long score = score(data.get(s), offset, frequency, minimum);
+                if (score > 0) {
+                    candidates.add(new long[]{score, s, offset});
+                }
+            }
+        }
+
+        List<byte[]> chosen = new ArrayList<>();
+        int size = 0;
+        while (!candidates.isEmpty() && size < maxSize) {
+            long[] top = candidates.poll();
+            byte[] sample = data.get((int) top[1]);
+            int offset = (int) top[2];
+            // a pontuação só cai conforme trechos são escolhidos: reavalia antes de aceitar
+            long score = score(sample, offset, frequency, minimum);
+            if (score <= 0) {
+                continue;
+            }
+            if (!candidates.isEmpty() && score < candidates.peek()[0]) {
+                top[0] = score;
+                candidates.add(top);
+                continue;
+            }
+            int length = Math.min(Math.min(TAMANHO_SEGMENTO, sample.length - offset), maxSize - size);
+            chosen.add(Arrays.copyOfRange(sample, offset, offset + length));
+            size += length;
+            for (int i = offset; i + TAMANHO_DMER <= offset + length; i++) {
+                frequency[slot(sample, i)] = 0;
+            }
+        }
+        byte[] dictionary = new byte[size];
+        int position = 0;
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            System.arraycopy(chosen.get(i), 0, dictionary, position, chosen.get(i).length);
+            position += chosen.get(i).length;
+        }
+        return dictionary;
+    }
+
+    private static long score(byte[] sample, int offset, int[] frequency, int minimum) {
+        long score = 0;
+        int end = Math.min(sample.length, offset + TAMANHO_SEGMENTO);
+        for (int i = offset; i + TAMANHO_DMER <= end; i++) {
+            int count = frequency[slot(sample, i)];
+            if (count >= minimum) {
+                score += count;
+            }
+        }
+        return score;
+    }
+
+    private static int slot(byte[] sample, int offset) {
+        long value = 0;
+        for (int i = 0; i < TAMANHO_DMER; i++) {
+            value = (value << 8) | (sample[offset + i] & 0xFF);
+        }
+        value *= 0x9E3779B97F4A7C15L;
+        return (int) (value >>> (64 - BITS_TABELA_DMER));
+    }
+
+    public boolean contains(int id) {
+        return find(id) >= 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Ids presentes, em ordem crescente. */
+    public int[] ids() {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = buffer.getInt(index + i * INDEX_ENTRY_SIZE);
+        }
+        return ids;
+    }
+
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    /** Soma dos tamanhos originais dos JSONs. */
+    public long rawSize() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += buffer.getInt(index + i * INDEX_ENTRY_SIZE + 12);
+        }
+        return total;
+    }
+
+    /** Tamanho do arquivo em disco. */
+    public long fileSize() {
+        return buffer.capacity();
+    }
+
+    /** Descomprime só o registro do id; retorna null se ele não estiver no arquivo. */
+    public String get(int id) throws IOException {
+        int entry = find(id);
+        if (entry < 0) {
+            return null;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            return inflate(entry, inflater);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /** Descomprime todos os registros em ordem de id, reaproveitando o mesmo Inflater. */
+    public void forEach(BiConsumer<Integer, String> action) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            for (int i = 0; i < count; i++) {
+                int entry = index + i * INDEX_ENTRY_SIZE;
+                action.accept(buffer.getInt(entry), inflate(entry, inflater));
+                inflater.reset();
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public Map<Integer, String> entries() throws IOException {
+        Map<Integer, String> entries = new TreeMap<>();
+        forEach(entries::put);
+        return entries;
+    }
+
+    private String inflate(int entry, Inflater inflater) throws IOException {
+        int offset = buffer.getInt(entry + 4);
+        int compressedLength = buffer.getInt(entry + 8);
+        int rawLength = buffer.getInt(entry + 12);
+        if (offset < 0 || compressedLength < 0 || data + (long) offset + compressedLength > buffer.capacity()) {
+            throw new IOException("Registro fora dos limites do arquivo comprimido");
+        }
+        ByteBuffer input = buffer.duplicate();
+        input.position(data + offset).limit(data + offset + compressedLength);
+        inflater.setInput(input);
+        byte[] raw = new byte[rawLength];
+        try {
+            int read = 0;
+            while (read < rawLength) {
+                int inflated = inflater.inflate(raw, read, rawLength - read);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.finished() || inflater.needsInput()) {
+                        throw new IOException("Registro comprimido truncado");
+                    }
+                }
+                read += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Registro comprimido corrompido", e);
+        }
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    /** Busca binária no índice; retorna a posição da entrada ou -1. */
+    private int find(int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = index + middle * INDEX_ENTRY_SIZE;
+            int entryId = buffer.getInt(entry);
+            if (entryId < id) {
+                low = middle + 1;
+            } else if (entryId > id) {
+                high = middle - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
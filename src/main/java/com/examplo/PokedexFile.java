@@ -0,0 +1,297 @@
+package com.examplo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Arquivo binário versionado com os registros extraídos da Pokédex, lido via FileChannel.map.
+ * Uma consulta por id é uma leitura direta no mapeamento, sem JSON e sem cópia para o heap.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * cabeçalho   magic "PKDX", versão, maxId, quantidade, offset da tabela de strings,
+ *             tamanho da tabela de strings, CRC32 de tudo após o cabeçalho, reservado
+ * índice      (maxId + 1) ints com o offset do registro de cada id, ou -1
+ * registros   8 ints por Pokémon: nome, altura, peso, 2 tipos e 3 habilidades;
+ *             strings são offsets na tabela de strings, -1 quando ausentes
+ * strings     sequência de (short tamanho, bytes UTF-8), sem repetições
+ * </pre>
+ */
+public final class PokedexFile implements AutoCloseable {
+    public static final int MAGIC = 0x504B4458; // "PKDX"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 8 * Integer.BYTES;
+    private static final int NAME = 0;
+    private static final int HEIGHT = 4;
+    private static final int WEIGHT = 8;
+    private static final int TYPES = 12;
+    private static final int ABILITIES = 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int maxId;
+    private final int count;
+    private final int stringTable;
+
+    private PokedexFile(FileChannel channel, MappedByteBuffer buffer, int maxId, int count, int stringTable) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.maxId = maxId;
+        this.count = count;
+        this.stringTable = stringTable;
+    }
+
+    /** Caminho padrão do arquivo, configurável por POKEMON_DEX_FILE. */
+    public static Path defaultPath() {
+        String path = System.getenv("POKEMON_DEX_FILE");
+        if (path != null && !path.isEmpty()) {
+            return Paths.get(path);
+        }
+        return Paths.get(System.getProperty("user.home"), ".pokemon-do-dia", "pokedex.bin");
+    }
+
+    /** Abre o arquivo se ele existir, ou retorna null. */
+    public static PokedexFile openIfExists(Path path) throws IOException {
+        return Files.exists(path) ? open(path) : null;
+    }
+
+    /** Mapeia o arquivo e valida magic, versão, tamanhos das regiões e checksum. */
+    public static PokedexFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo da Pokédex com tamanho inválido: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Arquivo não é uma Pokédex binária: " + path);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Versão da Pokédex binária não suportada: " + version);
+            }
+            int maxId = buffer.getInt(8);
+            int count = buffer.getInt(12);
+            int stringTable = buffer.getInt(16);
+            int stringTableLength = buffer.getInt(20);
+            if (stringTable + (long) stringTableLength != buffer.capacity()) {
+                throw new IOException("Pokédex binária truncada: " + path);
+            }
+            // o CRC não cobre o cabeçalho: maxId e quantidade têm de bater com as regiões
+            if (maxId < 0 || count < 0
+                    || HEADER_SIZE + (maxId + 1L) * Integer.BYTES + (long) count * RECORD_SIZE != stringTable) {
+                throw new IOException("Cabeçalho da Pokédex binária inconsistente: " + path);
+            }
+            if (buffer.getInt(24) != checksum(buffer)) {
+                throw new IOException("Checksum inválido na Pokédex binária: " + path);
+            }
+            return new PokedexFile(channel, buffer, maxId, count, stringTable);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Grava a Pokédex no formato binário; o arquivo só substitui o anterior quando completo. */
+    public static void write(Path path, CompactPokedex dex) throws IOException {
+        int maxId = dex.maxId();
+        int count = dex.size();
+        Map<String, Integer> stringOffsets = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] stringTableSize = {0};
+
+        int indexStart = HEADER_SIZE;
+        int recordsStart = indexStart + (maxId + 1) * Integer.BYTES;
+        int stringTable = recordsStart + count * RECORD_SIZE;
+        ByteBuffer index = ByteBuffer.allocate((maxId + 1) * Integer.BYTES);
+        ByteBuffer records = ByteBuffer.allocate(count * RECORD_SIZE);
+
+        for (int id = 0; id <= maxId; id++) {
+            if (!dex.contains(id)) {
+                index.putInt(-1);
+                continue;
+            }
+            index.putInt(recordsStart + records.position());
+            PokemonInfo info = dex.get(id);
+            records.putInt(stringRef(info.name(), stringOffsets, strings, stringTableSize));
+            records.putInt(info.height());
+            records.putInt(info.weight());
+            for (int i = 0; i < CompactPokedex.MAX_TYPES; i++) {
+                records.putInt(i < info.types().size()
+                        ? stringRef(info.types().get(i), stringOffsets, strings, stringTableSize) : -1);
+            }
+            for (int i = 0; i < CompactPokedex.MAX_ABILITIES; i++) {
+                records.putInt(i < info.abilities().size()
+                        ? stringRef(info.abilities().get(i), stringOffsets, strings, stringTableSize) : -1);
+            }
+        }
+
+        ByteBuffer file = ByteBuffer.allocate(stringTable + stringTableSize[0]);
+        file.position(HEADER_SIZE);
+        file.put(index.array());
+        file.put(records.array());
+        for (byte[] string : strings) {
+            file.putShort((short) string.length);
+            file.put(string);
+        }
+        file.putInt(0, MAGIC);
+        file.putInt(4, VERSION);
+        file.putInt(8, maxId);
+        file.putInt(12, count);
+        file.putInt(16, stringTable);
+        file.putInt(20, stringTableSize[0]);
+        file.putInt(24, checksum(file));
+        file.putInt(28, 0);
+        file.rewind();
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "pokedex", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (file.hasRemaining()) {
+                    out.write(file);
+                }
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public boolean contains(int id) {
+        return record(id) >= 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int maxId() {
+        return maxId;
+    }
+
+    public String name(int id) {
+        return string(buffer.getInt(checkedRecord(id) + NAME));
+    }
+
+    public int height(int id) {
+        return buffer.getInt(checkedRecord(id) + HEIGHT);
+    }
+
+    public int weight(int id) {
+        return buffer.getInt(checkedRecord(id) + WEIGHT);
+    }
+
+    public String primaryType(int id) {
+        return string(buffer.getInt(checkedRecord(id) + TYPES));
+    }
+
+    public PokemonInfo get(int id) {
+        int record = checkedRecord(id);
+        return new PokemonInfo(
+                string(buffer.getInt(record + NAME)),
+                buffer.getInt(record + HEIGHT),
+                buffer.getInt(record + WEIGHT),
+                strings(record + TYPES, CompactPokedex.MAX_TYPES),
+                strings(record + ABILITIES, CompactPokedex.MAX_ABILITIES));
+    }
+
+    /** Mesmo texto de PokemonDoDia.formatPokemonInfo, renderizado com {@link RecordTemplate#TEXT}. */
+    public String format(int id) {
+        StringBuilder out = new StringBuilder(96);
+        formatTo(id, out);
+        return out.toString();
+    }
+
+    public void formatTo(int id, StringBuilder out) {
+        RecordTemplate.TEXT.appendTo(id, get(id), out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int record(int id) {
+        if (id < 0 || id > maxId) {
+            return -1;
+        }
+        return buffer.getInt(HEADER_SIZE + id * Integer.BYTES);
+    }
+
+    private int checkedRecord(int id) {
+        int record = record(id);
+        if (record < 0) {
+            throw new IllegalArgumentException("Pokémon " + id + " não está na Pokédex binária");
+        }
+        return record;
+    }
+
+    private String string(int ref) {
+        if (ref < 0) {
+            return null;
+        }
+        int at = stringTable + ref;
+        byte[] bytes = new byte[buffer.getShort(at)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(at + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<String> strings(int at, int slots) {
+        List<String> values = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            int ref = buffer.getInt(at + i * Integer.BYTES);
+            if (ref >= 0) {
+                values.add(string(ref));
+            }
+        }
+        return values;
+    }
+
+    private static int stringRef(String value, Map<String, Integer> offsets, List<byte[]> strings, int[] size) {
+        Integer offset = offsets.get(value);
+        if (offset == null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("String longa demais para a Pokédex binária");
+            }
+            offset = size[0];
+            offsets.put(value, offset);
+            strings.add(bytes);
+            size[0] += Short.BYTES + bytes.length;
+        }
+        return offset;
+    }
+
+    private static int checksum(ByteBuffer file) {
+        CRC32 crc = new CRC32();
+        ByteBuffer body = file.duplicate();
+        body.position(HEADER_SIZE);
+        body.limit(file.capacity());
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,300 @@
+package com.examplo;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Índices invertidos sobre os campos que a formatação já extrai, para consultas como
+ * "tipo fire com peso acima de 500" sem reler JSON nem percorrer a Pokédex:
+ * <ul>
+ *   <li>um BitSet de ids por tipo e por habilidade; filtros viram AND entre bitsets;</li>
+ *   <li>altura e peso em arrays primitivos ordenados (valor, id); uma faixa é uma busca
+ *       binária nas pontas.</li>
+ * </ul>
+ * A Pokédex inteira cabe em poucos KB de bitsets, e uma consulta custa microssegundos.
+ */
+public final class PokedexIndex {
+    private final BitSet all;
+    private final Map<String, BitSet> byType;
+    private final Map<String, BitSet> byAbility;
+    private final int[] heightValues;
+    private final int[] heightIds;
+    private final int[] weightValues;
+    private final int[] weightIds;
+
+    private PokedexIndex(BitSet all, Map<String, BitSet> byType, Map<String, BitSet> byAbility,
+                         long[] heights, long[] weights) {
+        this.all = all;
+        this.byType = byType;
+        this.byAbility = byAbility;
+        this.heightValues = new int[heights.length];
+        this.heightIds = new int[heights.length];
+        split(heights, heightValues, heightIds);
+        this.weightValues = new int[weights.length];
+        this.weightIds = new int[weights.length];
+        split(weights, weightValues, weightIds);
+    }
+
+    public static PokedexIndex of(CompactPokedex dex) {
+        Builder builder = new Builder(dex.size());
+        for (int id = 0; id <= dex.maxId(); id++) {
+            if (dex.contains(id)) {
+                builder.add(id, dex.get(id));
+            }
+        }
+        return builder.build();
+    }
+
+    public static PokedexIndex of(PokedexFile dex) {
+        Builder builder = new Builder(dex.size());
+        for (int id = 0; id <= dex.maxId(); id++) {
+            if (dex.contains(id)) {
+                builder.add(id, dex.get(id));
+            }
+        }
+        return builder.build();
+    }
+
+    /** Acumula as entradas; altura e peso vão empacotados como (valor << 32 | id) para ordenar juntos. */
+    private static final class Builder {
+        private final BitSet all = new BitSet();
+        private final Map<String, BitSet> byType = new HashMap<>();
+        private final Map<String, BitSet> byAbility = new HashMap<>();
+        private final long[] heights;
+        private final long[] weights;
+        private int count;
+
+        Builder(int capacity) {
+            heights = new long[capacity];
+            weights = new long[capacity];
+        }
+
+        void add(int id, PokemonInfo info) {
+            all.set(id);
+            for (String type : info.types()) {
+                byType.computeIfAbsent(type, t -> new BitSet()).set(id);
+            }
+            for (String ability : info.abilities()) {
+                byAbility.computeIfAbsent(ability, a -> new BitSet()).set(id);
+            }
+            heights[count] = pack(info.height(), id);
+            weights[count] = pack(info.weight(), id);
+            count++;
+        }
+
+        PokedexIndex build() {
+            long[] sortedHeights = Arrays.copyOf(heights, count);
+            long[] sortedWeights = Arrays.copyOf(weights, count);
+            Arrays.sort(sortedHeights);
+            Arrays.sort(sortedWeights);
+            return new PokedexIndex(all, byType, byAbility, sortedHeights, sortedWeights);
+        }
+
+        private static long pack(int value, int id) {
+            // o deslocamento mantém a ordem também para valores negativos
+            return ((long) value << 32) | (id & 0xFFFFFFFFL);
+        }
+    }
+
+    private static void split(long[] packed, int[] values, int[] ids) {
+        for (int i = 0; i < packed.length; i++) {
+            values[i] = (int) (packed[i] >> 32);
+            ids[i] = (int) packed[i];
+        }
+    }
+
+    public int size() {
+        return all.cardinality();
+    }
+
+    /** Nova consulta com todos os ids; cada filtro restringe o resultado. */
+    public Query query() {
+        return new Query((BitSet) all.clone());
+    }
+
+    /** Consulta a partir de uma expressão de filtro; veja {@link Query#where(String)}. */
+    public Query query(String expression) {
+        return query().where(expression);
+    }
+
+    /** Consulta mutável: os filtros são combinados com E. */
+    public final class Query {
+        private final BitSet result;
+
+        private Query(BitSet result) {
+            this.result = result;
+        }
+
+        public Query type(String type) {
+            return and(byType.get(type));
+        }
+
+        public Query ability(String ability) {
+            return and(byAbility.get(ability));
+        }
+
+        /** Altura entre min e max, inclusive. */
+        public Query heightBetween(int min, int max) {
+            return and(range(heightValues, heightIds, min, max));
+        }
+
+        /** Peso entre min e max, inclusive. */
+        public Query weightBetween(int min, int max) {
+            return and(range(weightValues, weightIds, min, max));
+        }
+
+        /**
+         * Aplica uma expressão como "tipo=fire,peso>500". Condições separadas por vírgula,
+         * combinadas com E; chaves tipo, habilidade, altura e peso; operadores =, &gt;, &lt;,
+         * &gt;= e &lt;=, e faixas inclusivas como "altura=5..20".
+         */
+        public Query where(String expression) {
+            for (String condition : expression.split(",")) {
+                String trimmed = condition.trim();
+                if (!trimmed.isEmpty()) {
+                    apply(trimmed);
+                }
+            }
+            return this;
+        }
+
+        private void apply(String condition) {
+            int op = 0;
+            while (op < condition.length() && "=<>".indexOf(condition.charAt(op)) < 0) {
+                op++;
+            }
+            int valueStart = op + 1;
+            if (valueStart < condition.length() && condition.charAt(valueStart) == '=') {
+                valueStart++;
+            }
+            if (op == 0 || valueStart >= condition.length()) {
+                throw new IllegalArgumentException("Filtro inválido: " + condition);
+            }
+            String key = condition.substring(0, op).trim();
+            String operator = condition.substring(op, valueStart);
+            String value = condition.substring(valueStart).trim();
+            if ("tipo".equals(key) || "habilidade".equals(key)) {
+                if (!"=".equals(operator)) {
+                    throw new IllegalArgumentException("Filtro inválido: " + condition);
+                }
+                if ("tipo".equals(key)) {
+                    type(value);
+                } else {
+                    ability(value);
+                }
+                return;
+            }
+            if (!"altura".equals(key) && !"peso".equals(key)) {
+                throw new IllegalArgumentException("Campo de filtro desconhecido: " + key);
+            }
+            int[] bounds = bounds(condition, operator, value);
+            if ("altura".equals(key)) {
+                heightBetween(bounds[0], bounds[1]);
+            } else {
+                weightBetween(bounds[0], bounds[1]);
+            }
+        }
+
+        private int[] bounds(String condition, String operator, String value) {
+            try {
+                int range = value.indexOf("..");
+                if (range >= 0 && "=".equals(operator)) {
+                    return new int[]{Integer.parseInt(value.substring(0, range).trim()),
+                            Integer.parseInt(value.substring(range + 2).trim())};
+                }
+                int number = Integer.parseInt(value);
+                // nos extremos, "> MAX_VALUE" e "< MIN_VALUE" viram uma faixa vazia em vez de estourar
+                switch (operator) {
+                    case "=":
+                        return new int[]{number, number};
+                    case ">":
+                        return number == Integer.MAX_VALUE ? new int[]{1, 0} : new int[]{number + 1, Integer.MAX_VALUE};
+                    case ">=":
+                        return new int[]{number, Integer.MAX_VALUE};
+                    case "<":
+                        return number == Integer.MIN_VALUE ? new int[]{1, 0} : new int[]{Integer.MIN_VALUE, number - 1};
+                    case "<=":
+                        return new int[]{Integer.MIN_VALUE, number};
+                    default:
+                        throw new IllegalArgumentException("Filtro inválido: " + condition);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Filtro inválido: " + condition, e);
+            }
+        }
+
+        private Query and(BitSet ids) {
+            if (ids == null) {
+                result.clear();
+            } else {
+                result.and(ids);
+            }
+            return this;
+        }
+
+        public int count() {
+            return result.cardinality();
+        }
+
+        public boolean isEmpty() {
+            return result.isEmpty();
+        }
+
+        /** Ids do resultado em ordem crescente. */
+        public int[] toArray() {
+            return result.stream().toArray();
+        }
+
+        /** Cópia do resultado como BitSet. */
+        public BitSet ids() {
+            return (BitSet) result.clone();
+        }
+
+        /**
+         * Escolhe um id do resultado de forma determinística a partir da semente
+         * (ex.: o dia, já misturado): mesma semente e mesmo resultado, mesmo id.
+         */
+        public int pick(long seed) {
+            int count = result.cardinality();
+            if (count == 0) {
+                throw new NoSuchElementException("Nenhum Pokémon atende ao filtro");
+            }
+            long position = Math.floorMod(seed, (long) count);
+            int id = result.nextSetBit(0);
+            for (long i = 0; i < position; i++) {
+                id = result.nextSetBit(id + 1);
+            }
+            return id;
+        }
+    }
+
+    /** Ids com valor em [min, max], achados por busca binária no array ordenado. */
+    private static BitSet range(int[] values, int[] ids, int min, int max) {
+        BitSet found = new BitSet();
+        if (min > max) {
+            return found;
+        }
+        for (int i = lowerBound(values, min); i < values.length && values[i] <= max; i++) {
+            found.set(ids[i]);
+        }
+        return found;
+    }
+
+    /** Primeira posição com valor maior ou igual a target. */
+    private static int lowerBound(int[] values, int target) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
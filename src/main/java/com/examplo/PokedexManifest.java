@@ -0,0 +1,144 @@
+package com.examplo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * O que a sincronização incremental sabe sobre a cópia local: a contagem e o ETag da
+ * última lista vista, quantos ids da Pokédex nacional ela tinha e, por id, o nome listado
+ * e os validadores (ETag/Last-Modified) da resposta guardada no snapshot. Gravado ao lado
+ * do snapshot em formato Properties.
+ */
+public class PokedexManifest {
+    private int count = -1;
+    private int dexCount = -1;
+    private String listEtag;
+    private final Map<Integer, String> names = new TreeMap<>();
+    private final Map<Integer, PokedexSync.Validators> validators = new TreeMap<>();
+
+    /** Manifesto ao lado do snapshot (pokedex.manifest no mesmo diretório). */
+    public static Path defaultPath() {
+        return PokedexSnapshot.defaultPath().resolveSibling("pokedex.manifest");
+    }
+
+    /** Lê o manifesto, ou retorna um vazio se o arquivo não existir. */
+    public static PokedexManifest readIfExists(Path path) throws IOException {
+        PokedexManifest manifest = new PokedexManifest();
+        if (!Files.exists(path)) {
+            return manifest;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        manifest.count = Integer.parseInt(properties.getProperty("list.count", "-1"));
+        manifest.dexCount = Integer.parseInt(properties.getProperty("list.dexCount", "-1"));
+        manifest.listEtag = properties.getProperty("list.etag");
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(".name") && !key.startsWith("list.")) {
+                int id = Integer.parseInt(key.substring(0, key.length() - ".name".length()));
+                manifest.names.put(id, properties.getProperty(key));
+                String etag = properties.getProperty(id + ".etag");
+                String lastModified = properties.getProperty(id + ".lastModified");
+                if (etag != null || lastModified != null) {
+                    manifest.validators.put(id, new PokedexSync.Validators(etag, lastModified));
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /** Grava o manifesto; o arquivo só substitui o anterior quando completo. */
+    public void write(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("list.count", Integer.toString(count));
+        properties.setProperty("list.dexCount", Integer.toString(dexCount));
+        if (listEtag != null) {
+            properties.setProperty("list.etag", listEtag);
+        }
+        for (Map.Entry<Integer, String> entry : names.entrySet()) {
+            int id = entry.getKey();
+            properties.setProperty(id + ".name", entry.getValue());
+            PokedexSync.Validators v = validators.get(id);
+            if (v != null && v.etag() != null) {
+                properties.setProperty(id + ".etag", v.etag());
+            }
+            if (v != null && v.lastModified() != null) {
+                properties.setProperty(id + ".lastModified", v.lastModified());
+            }
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "pokedex", ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Pokédex local: lista e validadores por id");
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Quantos ids da Pokédex nacional (sem as formas alternativas) a última lista tinha,
+     * ou -1 se nenhuma sincronização gravou esse número. Vem da lista, não do que foi
+     * baixado: uma sincronização parcial não muda o tamanho visto por quem sorteia.
+     */
+    public int dexCount() {
+        return dexCount;
+    }
+
+    public String listEtag() {
+        return listEtag;
+    }
+
+    void setList(int count, int dexCount, String listEtag) {
+        this.count = count;
+        this.dexCount = dexCount;
+        this.listEtag = listEtag;
+    }
+
+    /** Nome listado na última sincronização, ou null se o id ainda não foi visto. */
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    public Map<Integer, String> names() {
+        return Collections.unmodifiableMap(names);
+    }
+
+    public PokedexSync.Validators validators(int id) {
+        return validators.get(id);
+    }
+
+    void put(int id, String name, PokedexSync.Validators validators) {
+        names.put(id, name);
+        if (validators != null) {
+            this.validators.put(id, validators);
+        }
+    }
+
+    void remove(int id) {
+        names.remove(id);
+        validators.remove(id);
+    }
+}
@@ -0,0 +1,93 @@
+package com.examplo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Arquivo único com as respostas JSON de toda a Pokédex, produzido pelo modo de sincronização.
+ * É gravado como {@link PokedexArchive} (registros comprimidos com dicionário e índice por id).
+ */
+public class PokedexSnapshot {
+    private final Map<Integer, String> entries;
+
+    private PokedexSnapshot(Map<Integer, String> entries) {
+        this.entries = entries;
+    }
+
+    /** Caminho padrão do snapshot, configurável por POKEMON_SNAPSHOT. */
+    public static Path defaultPath() {
+        String path = System.getenv("POKEMON_SNAPSHOT");
+        if (path != null && !path.isEmpty()) {
+            return Paths.get(path);
+        }
+        return Paths.get(System.getProperty("user.home"), ".pokemon-do-dia", "pokedex.snapshot");
+    }
+
+    /** Lê o snapshot do caminho informado, ou retorna null se ele não existir. */
+    public static PokedexSnapshot readIfExists(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        return read(path);
+    }
+
+    public static PokedexSnapshot read(Path path) throws IOException {
+        try (PokedexArchive archive = PokedexArchive.open(path)) {
+            return new PokedexSnapshot(archive.entries());
+        }
+    }
+
+    /**
+     * Lê só os ids presentes, sem descomprimir nem decodificar os payloads.
+     * Retorna um conjunto vazio se o arquivo não existir.
+     */
+    public static Set<Integer> readIds(Path path) throws IOException {
+        Set<Integer> ids = new TreeSet<>();
+        if (!Files.exists(path)) {
+            return ids;
+        }
+        try (PokedexArchive archive = PokedexArchive.open(path)) {
+            for (int id : archive.ids()) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Lê apenas a entrada do id, descomprimindo só o registro dela.
+     * Retorna null se o arquivo ou o id não existirem.
+     */
+    public static String readEntry(Path path, int id) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (PokedexArchive archive = PokedexArchive.open(path)) {
+            return archive.get(id);
+        }
+    }
+
+    /** Grava as entradas no formato comprimido; o arquivo só substitui o anterior quando completo. */
+    public static void write(Path path, Map<Integer, String> entries) throws IOException {
+        PokedexArchive.write(path, entries);
+    }
+
+    /** Retorna o JSON do id, ou null se ele não estiver no snapshot. */
+    public String get(int id) {
+        return entries.get(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Map<Integer, String> entries() {
+        return Collections.unmodifiableMap(entries);
+    }
+}
@@ -0,0 +1,410 @@
+package com.examplo;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sincronização em massa da Pokédex: busca todos os ids com chamadas assíncronas
+ * (Call.enqueue). Quantas requisições ficam em andamento, e a que taxa, é decidido por um
+ * {@link AdaptiveLimiter}, que reage a 429, 5xx, Retry-After e à latência observada; um 4xx
+ * falha o id na hora, sem reduzir o limite.
+ */
+public class PokedexSync {
+    /**
+     * Tamanho da Pokédex nacional na última geração conhecida; só vale até a primeira
+     * sincronização, que descobre o tamanho atual pela lista da PokeAPI.
+     */
+    public static final int TOTAL_POKEMONS = 1025;
+    public static final int CONCORRENCIA_PADRAO = 16;
+    public static final int TENTATIVAS_PADRAO = 3;
+
+    /**
+     * Maior pausa aceita de um Retry-After. Acima disso o id falha: um "volte amanhã" não
+     * pode travar a sincronização inteira.
+     */
+    public static final Duration ESPERA_MAXIMA_RETRY_AFTER = Duration.ofSeconds(30);
+
+    /** Marca na fila de ids pendentes: todos terminaram. */
+    private static final int FIM = -1;
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final AdaptiveLimiter limiter;
+    private final int maxAttempts;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /** Concorrência fixa em maxInFlight, sem limite de taxa. */
+    public PokedexSync(OkHttpClient client, String baseUrl, int maxInFlight, int maxAttempts) {
+        this(client, baseUrl, checkedFixed(maxInFlight), maxAttempts);
+    }
+
+    public PokedexSync(OkHttpClient client, String baseUrl, AdaptiveLimiter limiter, int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Concorrência e tentativas devem ser positivas");
+        }
+        // o limitador é quem segura as requisições; o dispatcher só precisa comportar o máximo
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(limiter.maxLimit());
+        dispatcher.setMaxRequestsPerHost(limiter.maxLimit());
+        // newBuilder compartilha o pool de conexões com o cliente original
+        this.client = client.newBuilder().dispatcher(dispatcher).build();
+        this.baseUrl = baseUrl;
+        this.limiter = limiter;
+        this.maxAttempts = maxAttempts;
+    }
+
+    private static AdaptiveLimiter checkedFixed(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Concorrência e tentativas devem ser positivas");
+        }
+        return AdaptiveLimiter.fixed(maxInFlight);
+    }
+
+    /** ETag e Last-Modified de uma resposta, usados para requisições condicionais. */
+    public static final class Validators {
+        private final String etag;
+        private final String lastModified;
+
+        public Validators(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public String lastModified() {
+            return lastModified;
+        }
+    }
+
+    /** Resultado de uma sincronização: as respostas obtidas e os ids que falharam. */
+    public static final class Result {
+        private final Map<Integer, String> entries;
+        private final Map<Integer, Validators> validators;
+        private final List<Integer> notModifiedIds;
+        private final List<Integer> failedIds;
+        private final int retries;
+
+        Result(Map<Integer, String> entries, Map<Integer, Validators> validators, List<Integer> notModifiedIds,
+               List<Integer> failedIds, int retries) {
+            this.entries = entries;
+            this.validators = validators;
+            this.notModifiedIds = notModifiedIds;
+            this.failedIds = failedIds;
+            this.retries = retries;
+        }
+
+        public Map<Integer, String> entries() {
+            return entries;
+        }
+
+        /** Validadores das respostas 200 recebidas, por id. */
+        public Map<Integer, Validators> validators() {
+            return validators;
+        }
+
+        /** Ids que responderam 304 a uma requisição condicional. */
+        public List<Integer> notModifiedIds() {
+            return notModifiedIds;
+        }
+
+        public List<Integer> failedIds() {
+            return failedIds;
+        }
+
+        public int retries() {
+            return retries;
+        }
+    }
+
+    public Result fetchAll() throws InterruptedException {
+        return fetchRange(1, TOTAL_POKEMONS);
+    }
+
+    /** Busca os ids de first até last (inclusive). */
+    public Result fetchRange(int first, int last) throws InterruptedException {
+        int[] ids = new int[last - first + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = first + i;
+        }
+        return fetchIds(ids, Collections.emptyMap());
+    }
+
+    /**
+     * Busca os ids informados. Os ids esperam numa fila e são despachados conforme o
+     * limitador libera; novas tentativas voltam para o fim da fila. Ids com validadores
+     * são pedidos com If-None-Match/If-Modified-Since e, se responderem 304, entram em
+     * {@link Result#notModifiedIds()} em vez de {@link Result#entries()}.
+     */
+    public Result fetchIds(int[] ids, Map<Integer, Validators> known) throws InterruptedException {
+        int total = ids.length;
+        AtomicReferenceArray<String> bodies = new AtomicReferenceArray<>(total);
+        AtomicReferenceArray<Validators> received = new AtomicReferenceArray<>(total);
+        AtomicIntegerArray attempts = new AtomicIntegerArray(total);
+        AtomicLongArray sentAt = new AtomicLongArray(total);
+        List<Integer> notModified = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> failed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger retries = new AtomicInteger();
+        BlockingQueue<Integer> pending = new LinkedBlockingQueue<>();
+        AtomicInteger remaining = new AtomicInteger(total);
+
+        Callback callback = new Callback() {
+            /**
+             * Cada resposta devolve a vaga ao limitador e termina o id, falha ou o devolve à
+             * fila. Se algo inesperado escapar antes disso, o finally devolve a vaga e marca o
+             * id como falho: sem isso o limitador perderia a vaga e a marca de fim nunca seria
+             * postada, e fetchIds esperaria para sempre.
+             */
+            @Override
+            public void onResponse(Call call, Response response) {
+                int index = indexOf(call);
+                Slot slot = new Slot(limiter);
+                boolean settled = false;
+                try {
+                    respond(index, response, slot);
+                    settled = true;
+                } catch (RuntimeException e) {
+                    System.err.println("Erro inesperado ao tratar o Pokémon " + ids[index] + ": " + e);
+                } finally {
+                    settle(index, slot, settled);
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                int index = indexOf(call);
+                Slot slot = new Slot(limiter);
+                boolean settled = false;
+                try {
+                    slot.dropped();
+                    retryOrFail(index);
+                    settled = true;
+                } catch (RuntimeException unexpected) {
+                    System.err.println("Erro inesperado ao tratar o Pokémon " + ids[index] + ": " + unexpected);
+                } finally {
+                    settle(index, slot, settled);
+                }
+            }
+
+            private void settle(int index, Slot slot, boolean settled) {
+                if (!slot.released) {
+                    slot.dropped();
+                }
+                if (!settled) {
+                    fail(index);
+                }
+            }
+
+            private void respond(int index, Response response, Slot slot) {
+                try (ResponseBody body = response.body()) {
+                    if (response.code() == 304 && known.containsKey(ids[index])) {
+                        slot.success(System.nanoTime() - sentAt.get(index));
+                        notModified.add(ids[index]);
+                        finish();
+                        return;
+                    }
+                    if (response.isSuccessful() && body != null) {
+                        String json = body.string();
+                        slot.success(System.nanoTime() - sentAt.get(index));
+                        // compareAndSet garante uma única entrada por id mesmo com tentativas repetidas
+                        if (bodies.compareAndSet(index, null, json)) {
+                            received.set(index, new Validators(response.header("ETag"), response.header("Last-Modified")));
+                        }
+                        finish();
+                        return;
+                    }
+                    String retryAfter = response.header("Retry-After");
+                    if (response.code() == 429 || (response.code() == 503 && retryAfter != null)) {
+                        long pause = retryAfterNanos(retryAfter);
+                        if (pause > ESPERA_MAXIMA_RETRY_AFTER.toNanos()) {
+                            slot.throttled(0);
+                            fail(index);
+                            return;
+                        }
+                        slot.throttled(pause);
+                    } else if (response.code() >= 500) {
+                        slot.dropped();
+                    } else {
+                        // 4xx (ex.: 404) não é sobrecarga nem melhora com nova tentativa
+                        slot.rejected();
+                        fail(index);
+                        return;
+                    }
+                } catch (IOException e) {
+                    if (!slot.released) {
+                        slot.dropped();
+                    }
+                }
+                retryOrFail(index);
+            }
+
+            private void retryOrFail(int index) {
+                if (attempts.get(index) < maxAttempts) {
+                    retries.incrementAndGet();
+                    queued.incrementAndGet();
+                    pending.add(index);
+                } else {
+                    fail(index);
+                }
+            }
+
+            private void fail(int index) {
+                failed.add(ids[index]);
+                finish();
+            }
+
+            private void finish() {
+                if (remaining.decrementAndGet() == 0) {
+                    pending.add(FIM);
+                }
+            }
+        };
+
+        for (int index = 0; index < total; index++) {
+            pending.add(index);
+        }
+        if (total == 0) {
+            pending.add(FIM);
+        }
+        queued.addAndGet(total);
+        // bloqueia até haver um id para despachar ou a marca de fim
+        int index;
+        while ((index = pending.take()) != FIM) {
+            limiter.acquire();
+            queued.decrementAndGet();
+            attempts.incrementAndGet(index);
+            sentAt.set(index, System.nanoTime());
+            enqueue(index, ids[index], known.get(ids[index]), callback);
+        }
+
+        Map<Integer, String> entries = new TreeMap<>();
+        Map<Integer, Validators> validators = new TreeMap<>();
+        for (int i = 0; i < total; i++) {
+            String body = bodies.get(i);
+            if (body != null) {
+                entries.put(ids[i], body);
+                validators.put(ids[i], received.get(i));
+            }
+        }
+        List<Integer> notModifiedIds = new ArrayList<>(notModified);
+        Collections.sort(notModifiedIds);
+        List<Integer> failedIds = new ArrayList<>(failed);
+        Collections.sort(failedIds);
+        return new Result(entries, validators, notModifiedIds, failedIds, retries.get());
+    }
+
+    public AdaptiveLimiter limiter() {
+        return limiter;
+    }
+
+    /** Ids aguardando na fila para serem despachados. */
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    /** Expõe a profundidade da fila junto com os medidores do limitador. */
+    public void registerGauges(PokemonMetrics metrics) {
+        limiter.registerGauges(metrics);
+        metrics.registerGauge("sync.queueDepth", this::queueDepth);
+    }
+
+    /** Encerra as threads do dispatcher próprio da sincronização. */
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+    }
+
+    private void enqueue(int index, int id, Validators validators, Callback callback) {
+        Request.Builder builder = new Request.Builder()
+                .url(baseUrl + id)
+                .tag(Integer.class, index);
+        if (validators != null && validators.etag() != null) {
+            builder.header("If-None-Match", validators.etag());
+        }
+        if (validators != null && validators.lastModified() != null) {
+            builder.header("If-Modified-Since", validators.lastModified());
+        }
+        client.newCall(builder.build()).enqueue(callback);
+    }
+
+    /**
+     * Vaga de uma requisição no limitador. Só conta como devolvida depois que o limitador
+     * retorna, para o finally do callback saber se ainda precisa devolvê-la.
+     */
+    private static final class Slot {
+        private final AdaptiveLimiter limiter;
+        private boolean released;
+
+        Slot(AdaptiveLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        void success(long latencyNanos) {
+            limiter.onSuccess(latencyNanos);
+            released = true;
+        }
+
+        void throttled(long retryAfterNanos) {
+            limiter.onThrottled(retryAfterNanos);
+            released = true;
+        }
+
+        void dropped() {
+            limiter.onDropped();
+            released = true;
+        }
+
+        void rejected() {
+            limiter.onRejected();
+            released = true;
+        }
+    }
+
+    /** Posição do id no vetor da busca, guardada como tag da requisição. */
+    private static int indexOf(Call call) {
+        return call.request().tag(Integer.class);
+    }
+
+    /** Retry-After em segundos ou como data HTTP; ausente ou inválido vale zero. */
+    static long retryAfterNanos(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // pode ser uma data HTTP
+        }
+        try {
+            Instant until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0, Duration.between(Instant.now(), until).toNanos());
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+}
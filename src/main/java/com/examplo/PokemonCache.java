@@ -0,0 +1,518 @@
+package com.examplo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Cache persistente em disco das respostas de /pokemon/{id}.
+ * Cada entrada é guardada em dois arquivos: {id}.json com o corpo e {id}.meta
+ * com ETag, Last-Modified e o instante da busca. Entradas dentro do TTL são
+ * servidas sem rede; entradas vencidas são revalidadas com requisição condicional.
+ * O tamanho total, corpo e .meta, é limitado e as entradas menos usadas recentemente são
+ * removidas. A data de modificação do corpo registra o último acesso entre execuções, mas só
+ * é regravada quando passa de {@link #GRANULARIDADE_ACESSO}, para um acerto não custar uma
+ * escrita de metadados.
+ *
+ * O diretório pode ser compartilhado por vários processos do mesmo host:
+ * <ul>
+ *   <li>os arquivos são gravados num temporário e renomeados, então um leitor nunca vê
+ *       um arquivo pela metade; o .meta guarda o CRC32 do corpo, para que um par
+ *       corpo/meta de gravações diferentes seja detectado e relido;</li>
+ *   <li>quem vai buscar um id na rede segura antes {@link #lockForRefresh(int)}, uma trava
+ *       de arquivo ({id}.lock, via FileChannel.lock) que também vale entre threads; quem
+ *       chega depois espera e encontra a entrada já gravada;</li>
+ *   <li>leituras não usam trava e nunca esperam por quem está gravando.</li>
+ * </ul>
+ * O limite de tamanho vale para o diretório: ao passar do limite, e no máximo a cada
+ * {@link #INTERVALO_RECONTAGEM}, o índice é recontado a partir dos arquivos, incluindo as
+ * entradas gravadas por outros processos, antes de remover as menos usadas.
+ */
+public class PokemonCache {
+    public static final Duration TTL_PADRAO = Duration.ofHours(24);
+    public static final long TAMANHO_MAXIMO_PADRAO = 512L * 1024 * 1024;
+    /** Releituras quando corpo e .meta não batem, isto é, quando há uma gravação em andamento. */
+    private static final int RELEITURAS = 3;
+    /** Pausa antes da primeira releitura, dobrada a cada uma: dá tempo de a gravação terminar. */
+    private static final long PAUSA_RELEITURA_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    /** Idade mínima da data de modificação do corpo para um acerto regravá-la. */
+    public static final Duration GRANULARIDADE_ACESSO = Duration.ofMinutes(1);
+    /** De quanto em quanto tempo, no máximo, uma gravação reconta o diretório. */
+    static final Duration INTERVALO_RECONTAGEM = Duration.ofMinutes(1);
+
+    /**
+     * FileLock vale para a JVM inteira e lança OverlappingFileLockException se a mesma JVM
+     * pedir a trava duas vezes; esta trava por arquivo serializa as threads antes disso.
+     * Sai do mapa quando ninguém mais a usa.
+     */
+    private static final ConcurrentHashMap<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final Duration ttl;
+    private final long maxBytes;
+    private final Clock clock;
+
+    // ordem de acesso: a primeira entrada é a menos usada recentemente;
+    // valor: {bytes de corpo e .meta, último uso em ms, data de modificação do corpo em ms}
+    private final LinkedHashMap<Integer, long[]> lru = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+    private long lastScanMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PokemonCache(Path directory, Duration ttl, long maxBytes) throws IOException {
+        this(directory, ttl, maxBytes, Clock.systemUTC());
+    }
+
+    PokemonCache(Path directory, Duration ttl, long maxBytes, Clock clock) throws IOException {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        Files.createDirectories(directory);
+        synchronized (lru) {
+            rescan();
+            evictIfNeeded(-1);
+        }
+    }
+
+    /**
+     * Cria o cache a partir das variáveis de ambiente POKEMON_CACHE_DIR,
+     * POKEMON_CACHE_TTL_HORAS e POKEMON_CACHE_MAX_MB, usando os padrões quando ausentes.
+     */
+    public static PokemonCache fromEnvironment() throws IOException {
+        String dir = System.getenv("POKEMON_CACHE_DIR");
+        Path path = dir != null && !dir.isEmpty()
+                ? Paths.get(dir)
+                : Paths.get(System.getProperty("user.home"), ".pokemon-do-dia", "cache");
+        Duration ttl = TTL_PADRAO;
+        String ttlHoras = System.getenv("POKEMON_CACHE_TTL_HORAS");
+        if (ttlHoras != null && !ttlHoras.isEmpty()) {
+            ttl = Duration.ofHours(Long.parseLong(ttlHoras));
+        }
+        long maxBytes = TAMANHO_MAXIMO_PADRAO;
+        String maxMb = System.getenv("POKEMON_CACHE_MAX_MB");
+        if (maxMb != null && !maxMb.isEmpty()) {
+            maxBytes = Long.parseLong(maxMb) * 1024 * 1024;
+        }
+        return new PokemonCache(path, ttl, maxBytes);
+    }
+
+    /** Entrada guardada no cache, fresca ou não. */
+    public static final class Entry {
+        private final String body;
+        private final String etag;
+        private final String lastModified;
+        private final long fetchedAtMillis;
+
+        Entry(String body, String etag, String lastModified, long fetchedAtMillis) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+
+        public String body() {
+            return body;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public String lastModified() {
+            return lastModified;
+        }
+
+        public long fetchedAtMillis() {
+            return fetchedAtMillis;
+        }
+    }
+
+    /** Trava de atualização de um id; liberada por {@link #close()}. */
+    public static final class RefreshLock implements AutoCloseable {
+        private final Path lockFile;
+        private final ReentrantLock local;
+        private final FileChannel channel;
+        private final FileLock lock;
+
+        RefreshLock(Path lockFile, ReentrantLock local, FileChannel channel, FileLock lock) {
+            this.lockFile = lockFile;
+            this.local = local;
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                lock.release();
+                channel.close();
+            } finally {
+                if (!local.hasQueuedThreads()) {
+                    LOCAL_LOCKS.remove(lockFile, local);
+                }
+                local.unlock();
+            }
+        }
+    }
+
+    /**
+     * Bloqueia até ser o único, entre threads e processos, a atualizar o id. Quem obtém a
+     * trava deve consultar o cache de novo antes de ir à rede: outro processo pode ter
+     * acabado de gravar a entrada.
+     */
+    public RefreshLock lockForRefresh(int id) throws IOException {
+        Path lockFile = lockFile(id);
+        ReentrantLock local = lockLocally(lockFile);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            return new RefreshLock(lockFile, local, channel, channel.lock());
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            local.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Trava local do arquivo. Quem a obtém confere se ela ainda é a do mapa: se saiu
+     * dele enquanto esperava, outra thread pode ter criado uma nova, e a busca recomeça.
+     */
+    private static ReentrantLock lockLocally(Path lockFile) {
+        while (true) {
+            ReentrantLock local = LOCAL_LOCKS.computeIfAbsent(lockFile, path -> new ReentrantLock());
+            local.lock();
+            if (LOCAL_LOCKS.get(lockFile) == local) {
+                return local;
+            }
+            local.unlock();
+        }
+    }
+
+    /** Retorna a entrada guardada para o id, ou null se não existir ou se o .meta for ilegível. */
+    public Entry lookup(int id) throws IOException {
+        Path bodyFile = bodyFile(id);
+        Path metaFile = metaFile(id);
+        for (int attempt = 0; attempt < RELEITURAS; attempt++) {
+            if (attempt > 0) {
+                LockSupport.parkNanos(PAUSA_RELEITURA_NANOS << (attempt - 1));
+            }
+            Properties meta = new Properties();
+            byte[] bytes;
+            try {
+                // meta antes do corpo: o corpo é gravado primeiro, então um par misturado
+                // tem corpo mais novo que o meta e o CRC não bate
+                try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+                    meta.load(reader);
+                }
+                bytes = Files.readAllBytes(bodyFile);
+            } catch (NoSuchFileException e) {
+                // ausente, ou removido por outro processo
+                return null;
+            }
+            long fetchedAt;
+            try {
+                String crc = meta.getProperty("crc");
+                if (crc != null && Long.parseLong(crc) != crc32(bytes)) {
+                    continue;
+                }
+                fetchedAt = Long.parseLong(meta.getProperty("fetchedAt", "0"));
+            } catch (NumberFormatException e) {
+                // .meta corrompido: vale como ausente, e a próxima gravação o substitui
+                return null;
+            }
+            touch(id, bodyFile);
+            return new Entry(
+                    new String(bytes, StandardCharsets.UTF_8),
+                    meta.getProperty("etag"),
+                    meta.getProperty("lastModified"),
+                    fetchedAt);
+        }
+        return null;
+    }
+
+    public boolean isFresh(Entry entry) {
+        return clock.millis() - entry.fetchedAtMillis() < ttl.toMillis();
+    }
+
+    /** Grava (ou substitui) a resposta do id e aplica o limite de tamanho. */
+    public void store(int id, String body, String etag, String lastModified) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        writeAtomically(bodyFile(id), bytes);
+        long size = bytes.length + writeMeta(id, etag, lastModified, clock.millis(), crc32(bytes));
+        synchronized (lru) {
+            long now = clock.millis();
+            long[] previous = lru.put(id, new long[]{size, now, now});
+            totalBytes += size - (previous == null ? 0 : previous[0]);
+            if (totalBytes > maxBytes || clock.millis() - lastScanMillis >= INTERVALO_RECONTAGEM.toMillis()) {
+                // outros processos podem ter gravado ou removido entradas: vale o diretório
+                rescan();
+            }
+            evictIfNeeded(id);
+        }
+    }
+
+    /** Marca a entrada como revalidada pelo servidor (resposta 304), renovando o TTL. */
+    public void markRevalidated(Entry entry, int id) throws IOException {
+        byte[] bytes = entry.body().getBytes(StandardCharsets.UTF_8);
+        long size = bytes.length + writeMeta(id, entry.etag(), entry.lastModified(), clock.millis(), crc32(bytes));
+        synchronized (lru) {
+            long[] known = lru.get(id);
+            if (known != null) {
+                totalBytes += size - known[0];
+                known[0] = size;
+            }
+        }
+        revalidations.incrementAndGet();
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long revalidations() {
+        return revalidations.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public long sizeInBytes() {
+        synchronized (lru) {
+            return totalBytes;
+        }
+    }
+
+    public String statsSummary() {
+        return String.format("cache: acertos=%d, faltas=%d, revalidacoes=%d, remocoes=%d, bytes=%d",
+                hits(), misses(), revalidations(), evictions(), sizeInBytes());
+    }
+
+    /**
+     * Reconstrói o índice a partir dos arquivos do diretório (chamado com o monitor de lru).
+     * A data de modificação do corpo registra o último acesso de qualquer processo; as
+     * entradas já conhecidas ficam com o mais recente entre ela e o último uso neste
+     * processo, e empates mantêm a ordem de acesso atual.
+     */
+    private void rescan() throws IOException {
+        Map<Integer, long[]> onDisk = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    int id = Integer.parseInt(name.substring(0, name.length() - ".json".length()));
+                    onDisk.put(id, new long[]{Files.getLastModifiedTime(file).toMillis(),
+                            Files.size(file) + sizeIfExists(metaFile(id))});
+                } catch (NumberFormatException | NoSuchFileException e) {
+                    // não é uma entrada, ou foi removida por outro processo durante a leitura
+                }
+            }
+        }
+        // {id, último uso, bytes, modificação}: primeiro as conhecidas, na ordem de acesso; depois as novas
+        List<long[]> entries = new ArrayList<>(onDisk.size());
+        for (Map.Entry<Integer, long[]> known : lru.entrySet()) {
+            long[] file = onDisk.remove(known.getKey());
+            if (file != null) {
+                entries.add(new long[]{known.getKey(), Math.max(known.getValue()[1], file[0]), file[1], file[0]});
+            }
+        }
+        for (Map.Entry<Integer, long[]> found : onDisk.entrySet()) {
+            entries.add(new long[]{found.getKey(), found.getValue()[0], found.getValue()[1], found.getValue()[0]});
+        }
+        // ordenação estável: empates preservam a ordem acima
+        entries.sort((a, b) -> Long.compare(a[1], b[1]));
+        lru.clear();
+        totalBytes = 0;
+        for (long[] entry : entries) {
+            lru.put((int) entry[0], new long[]{entry[2], entry[1], entry[3]});
+            totalBytes += entry[2];
+        }
+        lastScanMillis = clock.millis();
+    }
+
+    private void touch(int id, Path bodyFile) throws IOException {
+        long now = clock.millis();
+        synchronized (lru) {
+            long[] known = lru.get(id);
+            if (known != null) {
+                known[1] = now;
+                if (now - known[2] < GRANULARIDADE_ACESSO.toMillis()) {
+                    return;
+                }
+            }
+        }
+        long modified;
+        long size;
+        try {
+            modified = Files.getLastModifiedTime(bodyFile).toMillis();
+            if (now - modified >= GRANULARIDADE_ACESSO.toMillis()) {
+                Files.setLastModifiedTime(bodyFile, FileTime.fromMillis(now));
+                modified = now;
+            }
+            size = Files.size(bodyFile) + sizeIfExists(metaFile(id));
+        } catch (NoSuchFileException e) {
+            // removido por outro processo logo depois da leitura
+            return;
+        }
+        synchronized (lru) {
+            long[] known = lru.get(id);
+            if (known == null) {
+                lru.put(id, new long[]{size, now, modified});
+                totalBytes += size;
+            } else {
+                known[2] = modified;
+            }
+        }
+    }
+
+    private static long sizeIfExists(Path file) throws IOException {
+        try {
+            return Files.size(file);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private void evictIfNeeded(int keep) {
+        Iterator<Map.Entry<Integer, long[]>> it = lru.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Integer, long[]> eldest = it.next();
+            if (eldest.getKey() == keep) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue()[0];
+            evictions.incrementAndGet();
+            try {
+                Files.deleteIfExists(bodyFile(eldest.getKey()));
+                Files.deleteIfExists(metaFile(eldest.getKey()));
+                deleteLockFile(eldest.getKey());
+            } catch (IOException e) {
+                // a entrada já saiu do índice; o arquivo órfão é recontado na próxima carga
+            }
+        }
+    }
+
+    /**
+     * Remove o {id}.lock se ninguém, nesta JVM ou em outro processo, estiver com ele.
+     * Quem abrir o arquivo logo antes da remoção fica com uma trava que ninguém mais
+     * disputa: no pior caso o id é buscado duas vezes, e as gravações são atômicas.
+     */
+    private void deleteLockFile(int id) throws IOException {
+        Path lockFile = lockFile(id);
+        ReentrantLock local = LOCAL_LOCKS.computeIfAbsent(lockFile, path -> new ReentrantLock());
+        if (local.isHeldByCurrentThread() || !local.tryLock()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                Files.deleteIfExists(lockFile);
+                lock.release();
+            }
+        } catch (NoSuchFileException e) {
+            // nunca foi travado
+        } finally {
+            LOCAL_LOCKS.remove(lockFile, local);
+            local.unlock();
+        }
+    }
+
+    /** Grava o .meta e devolve quantos bytes ocupa. */
+    private long writeMeta(int id, String etag, String lastModified, long fetchedAt, long crc) throws IOException {
+        Properties meta = new Properties();
+        if (etag != null) {
+            meta.setProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            meta.setProperty("lastModified", lastModified);
+        }
+        meta.setProperty("fetchedAt", Long.toString(fetchedAt));
+        meta.setProperty("crc", Long.toString(crc));
+        StringWriter writer = new StringWriter();
+        meta.store(writer, null);
+        byte[] bytes = writer.toString().getBytes(StandardCharsets.UTF_8);
+        writeAtomically(metaFile(id), bytes);
+        return bytes.length;
+    }
+
+    /** Grava num temporário do mesmo diretório e renomeia por cima do destino. */
+    private void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(directory, target.getFileName().toString() + ".", ".tmp");
+        try {
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static long crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    private Path lockFile(int id) {
+        return directory.resolve(id + ".lock").toAbsolutePath().normalize();
+    }
+
+    private Path bodyFile(int id) {
+        return directory.resolve(id + ".json");
+    }
+
+    private Path metaFile(int id) {
+        return directory.resolve(id + ".meta");
+    }
+}
@@ -1,34 +1,444 @@
 package com.examplo;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Random;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
 
 public class PokemonDoDia {
     private static final String BASE_URL = "https://pokeapi.co/api/v2/pokemon/";
 
+    /**
+     * OkHttpClient criado só no primeiro uso: quando a Pokédex local responde,
+     * o OkHttp (e Okio/Kotlin) nem chega a ser carregado. As threads do dispatcher
+     * são daemon para que chamadas assíncronas (hedge) não segurem a JVM ao sair.
+     */
+    private static final class Http {
+        static final OkHttpClient CLIENT = new OkHttpClient.Builder()
+                .dispatcher(new Dispatcher(Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "pokemon-http");
+                    thread.setDaemon(true);
+                    return thread;
+                })))
+                .eventListenerFactory(PokemonMetrics.global().eventListenerFactory())
+                .build();
+    }
+
+    static OkHttpClient httpClient() {
+        return Http.CLIENT;
+    }
+
     public static void main(String[] args) {
-        OkHttpClient client = new OkHttpClient();
-        Random random = new Random();
-        int id = random.nextInt(1025) + 1;
+        List<String> options = Arrays.asList(args);
+        String reportPath = System.getenv("POKEMON_METRICS_REPORT");
+        if (reportPath != null && !reportPath.isEmpty()) {
+            PokemonMetrics.global().dumpReportOnShutdown(Paths.get(reportPath));
+        }
+        if (options.contains("--train-cds")) {
+            StartupTraining.run();
+            return;
+        }
+        if (options.contains("--sync")) {
+            sync(httpClient(), options.contains("--revalidate"));
+            return;
+        }
+        if (options.contains("--render")) {
+            render(options);
+            return;
+        }
+        if (options.contains("--query")) {
+            query(optionValue(options, "--query"));
+            return;
+        }
+        boolean enrich = options.contains("--enrich");
+        boolean sprite = options.contains("--sprite");
+        boolean daily = !options.contains("--server") && !options.contains("--schedule")
+                && !options.contains("--prewarm");
+        PokemonSelector selector;
+        String fromDex = null;
+        // a Pokédex binária é aberta uma vez só: serve ao seletor e à resposta rápida
+        try (PokedexFile dex = openPokedex()) {
+            PokedexIndex.Query filtered;
+            try {
+                filtered = filter(options, dex);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                System.out.println("Erro no filtro: " + e.getMessage());
+                return;
+            }
+            selector = selector(filtered);
+            if (daily && !enrich && !sprite && dex != null) {
+                int id = selector.select(LocalDate.now(ZoneOffset.UTC));
+                if (dex.contains(id)) {
+                    fromDex = dex.format(id);
+                }
+            }
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            System.out.println("Erro ao escolher o Pokémon do dia: " + e.getMessage());
+            return;
+        }
+        if (options.contains("--server")) {
+            serve(httpClient(), selector);
+            return;
+        }
+        if (options.contains("--schedule") || options.contains("--prewarm")) {
+            schedule(selector, options);
+            return;
+        }
+        if (fromDex != null) {
+            // a Pokédex binária responde sem JSON e sem rede
+            System.out.println(fromDex);
+            return;
+        }
 
+        int id = selector.select(LocalDate.now(ZoneOffset.UTC));
+
+        PokemonMetrics metrics = PokemonMetrics.global();
         try {
-            String pokemonData = fetchPokemonData(id, client);
-            String result = formatPokemonData(id, pokemonData);
+            PokemonCache cache = PokemonCache.fromEnvironment();
+            String pokemonData = loadPokemonData(id, pokemonId -> fetchLazily(pokemonId, cache));
+            long start = metrics.start();
+            PokemonInfo info = PokemonJsonExtractor.extract(pokemonData);
+            metrics.stop(PokemonMetrics.PARSE, start);
+            start = metrics.start();
+            String result = formatPokemonInfo(id, info);
+            metrics.stop(PokemonMetrics.FORMAT, start);
             System.out.println(result);
+            if (enrich) {
+                printEnrichment(id, pokemonData);
+            }
+            if (sprite) {
+                for (SpriteStore.Sprite stored : SpriteStore.fromEnvironment(httpClient())
+                        .fetchAll(pokemonData, SpriteStore.chosenFromEnvironment())) {
+                    System.out.println("Sprite: " + stored.path());
+                }
+            }
+            if (options.contains("--cache-stats")) {
+                System.err.println(cache.statsSummary());
+            }
+            if (options.contains("--metrics")) {
+                System.err.println(metrics.getReport());
+            }
         } catch (IOException e) {
             System.out.println("Erro na requisição ou no processamento: " + e.getMessage());
         }
     }
 
+    /** Busca espécie, habilidades e relações de dano dos tipos e imprime o que vier (--enrich). */
+    static void printEnrichment(int id, String pokemonData) {
+        ResourceGraphFetcher graph = new ResourceGraphFetcher(httpClient(), ResourceGraphFetcher.API_ROOT,
+                ResourceGraphFetcher.CONCORRENCIA_PADRAO, ResilientFetcher.TENTATIVAS_PADRAO);
+        try {
+            ResourceGraphFetcher.Result result = graph.enrich(Collections.singletonMap(id, pokemonData),
+                    EnumSet.allOf(ResourceGraphFetcher.Link.class));
+            if (!result.failedUrls().isEmpty()) {
+                System.err.println("Recursos não obtidos: " + result.failedUrls());
+            }
+            EnrichedPokemon pokemon = result.records().get(id);
+            if (pokemon.genus() != null) {
+                System.out.println("Espécie: " + pokemon.genus());
+            }
+            for (Map.Entry<String, String> ability : pokemon.abilityEffects().entrySet()) {
+                System.out.println("Habilidade " + ability.getKey() + ": " + ability.getValue());
+            }
+            if (pokemon.incompleteLinks().contains(ResourceGraphFetcher.Link.TYPE)) {
+                System.out.println("Fraquezas: indisponíveis (relações de dano incompletas)");
+            } else if (!pokemon.types().isEmpty()) {
+                StringBuilder fraquezas = new StringBuilder();
+                for (Map.Entry<String, Double> weakness : pokemon.weaknesses().entrySet()) {
+                    if (fraquezas.length() > 0) {
+                        fraquezas.append(", ");
+                    }
+                    fraquezas.append(weakness.getKey()).append(" x").append(weakness.getValue().intValue());
+                }
+                System.out.println("Fraquezas: " + (fraquezas.length() > 0 ? fraquezas : "nenhuma"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            graph.shutdown();
+        }
+    }
+
+    /**
+     * Procura o id no snapshot local e, se não estiver lá, busca pelo cache em disco.
+     * Um snapshot corrompido é tratado como ausente, como a Pokédex binária.
+     */
+    static String loadPokemonData(int id, PokemonFetcher fetcher) throws IOException {
+        String pokemonData = null;
+        try {
+            pokemonData = PokedexSnapshot.readEntry(PokedexSnapshot.defaultPath(), id);
+        } catch (IOException e) {
+            System.err.println("Snapshot da Pokédex ignorado: " + e.getMessage());
+        }
+        if (pokemonData == null) {
+            pokemonData = fetcher.fetch(id);
+        }
+        return pokemonData;
+    }
+
+    /** Entrada fresca do cache responde direto; só fora dela o cliente HTTP é montado. */
+    static String fetchLazily(int id, PokemonCache cache) throws IOException {
+        PokemonCache.Entry cached = cache.lookup(id);
+        if (cached != null && cache.isFresh(cached)) {
+            cache.recordHit();
+            return cached.body();
+        }
+        return resilientFetcher(httpClient(), cache).fetch(id);
+    }
+
+    /** Busca na PokeAPI com prazo, hedge, novas tentativas e fallback para o cache em disco. */
+    static ResilientFetcher resilientFetcher(OkHttpClient client, PokemonCache cache) {
+        return resilientFetcher(client, cache, 1);
+    }
+
+    /** Idem, para concurrency buscas simultâneas (lotes). */
+    static ResilientFetcher resilientFetcher(OkHttpClient client, PokemonCache cache, int concurrency) {
+        return resilientFetcher(client, BASE_URL, cache, concurrency);
+    }
+
+    /** A mesma política contra outra base, como um substituto local da PokeAPI em testes de carga. */
+    public static ResilientFetcher resilientFetcher(OkHttpClient client, String baseUrl, PokemonCache cache,
+                                                    int concurrency) {
+        return ResilientFetcher.builder(client, baseUrl)
+                .cache(cache)
+                .concurrency(concurrency)
+                .build();
+    }
+
+    /**
+     * Modo servidor: mantém um único OkHttpClient e o Pokémon do dia em memória,
+     * servindo-o por HTTP na porta POKEMON_SERVER_PORT (padrão 8080).
+     */
+    static void serve(OkHttpClient client, PokemonSelector selector) {
+        String porta = System.getenv("POKEMON_SERVER_PORT");
+        int port = porta != null && !porta.isEmpty() ? Integer.parseInt(porta) : 8080;
+        try {
+            ResilientFetcher fetcher = resilientFetcher(client, PokemonCache.fromEnvironment());
+            PokemonServer server = new PokemonServer(
+                    id -> loadPokemonData(id, fetcher),
+                    selector::select,
+                    Clock.systemUTC(),
+                    SpriteStore.fromEnvironment(client),
+                    SpriteStore.chosenFromEnvironment().get(0));
+            PokemonMetrics.global().registerMBean();
+            server.start(port);
+            System.out.println("Servidor do Pokémon do dia ouvindo na porta " + server.port());
+        } catch (IOException e) {
+            System.out.println("Erro ao iniciar o servidor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imprime a agenda dos próximos N dias (--schedule N) ou busca esses ids
+     * antecipadamente para o cache em disco (--prewarm N).
+     */
+    static void schedule(PokemonSelector selector, List<String> options) {
+        boolean prewarm = options.contains("--prewarm");
+        int flag = options.indexOf(prewarm ? "--prewarm" : "--schedule");
+        int days = flag + 1 < options.size() ? Integer.parseInt(options.get(flag + 1)) : 7;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        int[] ids = selector.schedule(today, days);
+        try {
+            PokemonFetcher fetcher = prewarm ? resilientFetcher(httpClient(), PokemonCache.fromEnvironment()) : null;
+            for (int i = 0; i < ids.length; i++) {
+                if (prewarm) {
+                    fetcher.fetch(ids[i]);
+                }
+                System.out.println(today.plusDays(i) + " " + ids[i]);
+            }
+        } catch (IOException e) {
+            System.out.println("Erro na requisição ou no processamento: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resultado de --filter EXPR ou POKEMON_FILTRO (ex.: "tipo=water,peso>500"), ou null sem
+     * filtro. Só os erros da expressão saem daqui, para serem reportados como erros do filtro.
+     */
+    static PokedexIndex.Query filter(List<String> options, PokedexFile dex) {
+        String filter = optionValue(options, "--filter");
+        if (filter == null) {
+            filter = System.getenv("POKEMON_FILTRO");
+        }
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        if (dex == null) {
+            throw new IllegalStateException("Filtro requer a Pokédex local (--sync)");
+        }
+        PokedexIndex.Query query = PokedexIndex.of(dex).query(filter);
+        if (query.count() == 0) {
+            throw new IllegalArgumentException("Nenhum Pokémon atende ao filtro");
+        }
+        return query;
+    }
+
+    /** Seletor do dia: sem filtro, sobre a Pokédex inteira; com filtro, só entre os ids do resultado. */
+    static PokemonSelector selector(PokedexIndex.Query filtered) {
+        if (filtered == null) {
+            return PokemonSelector.fromEnvironment(knownTotal(PokedexManifest.defaultPath()));
+        }
+        return FilteredSelector.fromEnvironment(filtered);
+    }
+
+    /** Pokédex binária sincronizada, ou null se ainda não existe ou está inválida. */
+    private static PokedexFile openPokedex() {
+        try {
+            return PokedexFile.openIfExists(PokedexFile.defaultPath());
+        } catch (IOException e) {
+            System.err.println("Pokédex binária ignorada: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Lista id e nome de cada Pokémon que atende à expressão (--query EXPR). */
+    static void query(String expression) {
+        if (expression == null) {
+            System.out.println("Uso: --query \"tipo=fire,peso>500\"");
+            return;
+        }
+        try (PokedexFile dex = PokedexFile.openIfExists(PokedexFile.defaultPath())) {
+            if (dex == null) {
+                throw new IllegalStateException("Filtro requer a Pokédex local (--sync)");
+            }
+            int[] ids = PokedexIndex.of(dex).query(expression).toArray();
+            for (int id : ids) {
+                System.out.println(id + " " + dex.get(id).name());
+            }
+            System.out.println(ids.length + " Pokémon");
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            System.out.println("Erro no filtro: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Modo em lote: --render IDS [--format texto|jsonl|csv] [--order entrada|chegada].
+     * IDS aceita "1-151" ou "1,4,7". Os ids cobertos pela Pokédex binária saem dela, sem rede;
+     * só os ausentes são buscados em paralelo pelo cache e pela PokéAPI.
+     */
+    static void render(List<String> options) {
+        try {
+            String ids = optionValue(options, "--render");
+            if (ids == null) {
+                System.out.println("Uso: --render 1-151 [--format texto|jsonl|csv] [--order entrada|chegada]");
+                return;
+            }
+            String format = optionValue(options, "--format");
+            String order = optionValue(options, "--order");
+            render(BatchRenderer.parseIds(ids),
+                    format != null ? BatchRenderer.Format.parse(format) : BatchRenderer.Format.TEXT,
+                    order != null ? BatchRenderer.Order.parse(order) : BatchRenderer.Order.INPUT);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro no lote: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Erro na requisição ou no processamento: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Lote interrompido");
+        }
+    }
+
+    private static void render(int[] ids, BatchRenderer.Format format, BatchRenderer.Order order)
+            throws IOException, InterruptedException {
+        // o canal não é fechado: é a saída padrão do processo
+        BatchRenderer renderer = new BatchRenderer(Channels.newChannel(new FileOutputStream(FileDescriptor.out)), format);
+        BatchRenderer.Report report;
+        try (PokedexFile dex = PokedexFile.openIfExists(PokedexFile.defaultPath())) {
+            if (dex != null && Arrays.stream(ids).allMatch(dex::contains)) {
+                report = renderer.render(ids, dex);
+            } else {
+                // os ids que a Pokédex cobre saem dela; só os ausentes vão ao cache e à rede
+                ResilientFetcher fetcher = resilientFetcher(httpClient(), PokemonCache.fromEnvironment(),
+                        BatchRenderer.CONCORRENCIA_PADRAO);
+                report = renderer.render(ids, dex, fetcher, BatchRenderer.CONCORRENCIA_PADRAO, order);
+            }
+        }
+        if (!report.failedIds().isEmpty()) {
+            System.err.println("Falharam: " + report.failedIds());
+        }
+    }
+
+    private static String optionValue(List<String> options, String flag) {
+        int index = options.indexOf(flag);
+        return index >= 0 && index + 1 < options.size() ? options.get(index + 1) : null;
+    }
+
+    /**
+     * Tamanho da Pokédex nacional segundo a última lista gravada no manifesto ou, antes da
+     * primeira sincronização, {@link PokedexSync#TOTAL_POKEMONS}. Não depende do que já foi
+     * baixado, para que nós com sincronizações parciais sorteiem o mesmo Pokémon no dia.
+     */
+    static int knownTotal(Path manifestPath) {
+        try {
+            int dexCount = PokedexManifest.readIfExists(manifestPath).dexCount();
+            return dexCount > 0 ? dexCount : PokedexSync.TOTAL_POKEMONS;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Manifesto da Pokédex ignorado: " + e.getMessage());
+            return PokedexSync.TOTAL_POKEMONS;
+        }
+    }
+
+    /**
+     * Modo de sincronização incremental: descobre a lista atual na PokeAPI, busca só os
+     * ids novos ou alterados (todos, com requisições condicionais, em --revalidate) e
+     * regrava snapshot, manifesto e Pokédex binária. A concorrência começa baixa e se
+     * ajusta até POKEMON_SYNC_CONCORRENCIA; POKEMON_SYNC_TAXA limita requisições por segundo.
+     */
+    static void sync(OkHttpClient client, boolean revalidate) {
+        String concorrencia = System.getenv("POKEMON_SYNC_CONCORRENCIA");
+        int maxInFlight = concorrencia != null && !concorrencia.isEmpty()
+                ? Integer.parseInt(concorrencia)
+                : PokedexSync.CONCORRENCIA_PADRAO;
+        String taxa = System.getenv("POKEMON_SYNC_TAXA");
+        double ratePerSecond = taxa != null && !taxa.isEmpty() ? Double.parseDouble(taxa) : 0;
+        AdaptiveLimiter limiter = new AdaptiveLimiter(
+                Math.min(4, maxInFlight), 1, maxInFlight, ratePerSecond, maxInFlight);
+        PokedexSync sync = new PokedexSync(client, BASE_URL, limiter, PokedexSync.TENTATIVAS_PADRAO);
+        sync.registerGauges(PokemonMetrics.global());
+        try {
+            IncrementalSync.Report report = new IncrementalSync(client, BASE_URL, sync).run(
+                    PokedexSnapshot.defaultPath(), PokedexManifest.defaultPath(), PokedexFile.defaultPath(), revalidate);
+            System.out.println(report.summary());
+            if (report.fetched() != null) {
+                System.out.println("Limite final de concorrência: " + limiter.limit()
+                        + " (429 recebidos: " + limiter.throttled() + ")");
+            }
+            if (!report.failedIds().isEmpty()) {
+                System.out.println("Falharam: " + report.failedIds());
+            }
+        } catch (IOException e) {
+            System.out.println("Erro na sincronização: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Sincronização interrompida");
+        } finally {
+            sync.shutdown();
+        }
+    }
+
     public static String fetchPokemonData(int id, OkHttpClient client) throws IOException {
+        return fetchPokemonData(id, client, BASE_URL);
+    }
+
+    public static String fetchPokemonData(int id, OkHttpClient client, String baseUrl) throws IOException {
         Request request = new Request.Builder()
-                .url(BASE_URL + id)
+                .url(baseUrl + id)
                 .build();
 
         try (Response response = client.newCall(request).execute()) {
@@ -40,20 +450,64 @@ public class PokemonDoDia {
         }
     }
 
+    public static String fetchPokemonData(int id, OkHttpClient client, PokemonCache cache) throws IOException {
+        return fetchPokemonData(id, client, BASE_URL, cache);
+    }
+
+    /**
+     * Busca os dados passando pelo cache em disco: entradas frescas não tocam a rede,
+     * entradas vencidas são revalidadas com If-None-Match/If-Modified-Since. A busca é feita
+     * com a trava de atualização do id, então processos que compartilham o diretório não
+     * repetem a mesma requisição.
+     */
+    public static String fetchPokemonData(int id, OkHttpClient client, String baseUrl, PokemonCache cache) throws IOException {
+        PokemonCache.Entry cached = cache.lookup(id);
+        if (cached != null && cache.isFresh(cached)) {
+            cache.recordHit();
+            return cached.body();
+        }
+        try (PokemonCache.RefreshLock lock = cache.lockForRefresh(id)) {
+            cached = cache.lookup(id);
+            if (cached != null && cache.isFresh(cached)) {
+                cache.recordHit();
+                return cached.body();
+            }
+            return revalidate(id, client, baseUrl, cache, cached);
+        }
+    }
+
+    private static String revalidate(int id, OkHttpClient client, String baseUrl, PokemonCache cache,
+                                     PokemonCache.Entry cached) throws IOException {
+        Request.Builder builder = new Request.Builder().url(baseUrl + id);
+        if (cached != null && cached.etag() != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            builder.header("If-Modified-Since", cached.lastModified());
+        }
+
+        try (Response response = client.newCall(builder.build()).execute()) {
+            if (response.code() == 304 && cached != null) {
+                cache.markRevalidated(cached, id);
+                cache.recordHit();
+                return cached.body();
+            }
+            if (response.isSuccessful() && response.body() != null) {
+                String body = response.body().string();
+                cache.store(id, body, response.header("ETag"), response.header("Last-Modified"));
+                cache.recordMiss();
+                return body;
+            } else {
+                throw new IOException("Não foi possível buscar o Pokémon (status: " + response.code() + ")");
+            }
+        }
+    }
+
     public static String formatPokemonData(int id, String jsonData) {
-        JsonObject json = JsonParser.parseString(jsonData).getAsJsonObject();
-        String name = json.get("name").getAsString();
-        int height = json.get("height").getAsInt();
-        int weight = json.get("weight").getAsInt();
-        String type = json.getAsJsonArray("types")
-                .get(0).getAsJsonObject()
-                .getAsJsonObject("type")
-                .get("name").getAsString();
-
-        return String.format(
-                "=== POKÉMON DO DIA ===\n" +
-                        "ID: %d\nNome: %s\nTipo: %s\nAltura: %d\nPeso: %d",
-                id, name, type, height, weight
-        );
+        return formatPokemonInfo(id, PokemonJsonExtractor.extract(jsonData));
+    }
+
+    public static String formatPokemonInfo(int id, PokemonInfo info) {
+        return RecordTemplate.TEXT.render(id, info);
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.examplo;
+
+import java.io.IOException;
+
+/** Fonte do JSON de um Pokémon por id (rede, cache, snapshot ou combinações). */
+@FunctionalInterface
+public interface PokemonFetcher {
+    String fetch(int id) throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.examplo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Campos do payload da PokéAPI usados na formatação: nome, altura, peso,
+ * tipos e habilidades (na ordem dos slots).
+ */
+public final class PokemonInfo {
+    private final String name;
+    private final int height;
+    private final int weight;
+    private final List<String> types;
+    private final List<String> abilities;
+
+    public PokemonInfo(String name, int height, int weight, List<String> types, List<String> abilities) {
+        this.name = name;
+        this.height = height;
+        this.weight = weight;
+        this.types = Collections.unmodifiableList(types);
+        this.abilities = Collections.unmodifiableList(abilities);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public List<String> types() {
+        return types;
+    }
+
+    /** O tipo do primeiro slot, ou null se não houver tipos. */
+    public String primaryType() {
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    public List<String> abilities() {
+        return abilities;
+    }
+}
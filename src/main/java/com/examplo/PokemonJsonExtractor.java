@@ -0,0 +1,383 @@
+package com.examplo;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import okhttp3.ResponseBody;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extrai os campos de {@link PokemonInfo} lendo o JSON em streaming com o JsonReader do Gson.
+ * Só os campos necessários são materializados; moves, sprites, game_indices e o restante
+ * são pulados sem montar árvore. As exceções seguem as do JsonParser usado antes:
+ * JSON malformado gera JsonSyntaxException e campos ausentes ou nulos geram NullPointerException.
+ */
+public final class PokemonJsonExtractor {
+
+    private PokemonJsonExtractor() {
+    }
+
+    public static PokemonInfo extract(String json) {
+        return extract(new StringReader(json));
+    }
+
+    /** Lê diretamente do corpo da resposta, sem copiá-lo antes para uma String. */
+    public static PokemonInfo extract(ResponseBody body) {
+        return extract(body.charStream());
+    }
+
+    public static PokemonInfo extract(Reader source) {
+        return readDocument(source, null, null, null);
+    }
+
+    /**
+     * Extrai os campos e, na mesma leitura, as urls de tipos, habilidades e espécie; para
+     * quem precisa dos dois, como o enriquecimento, sem percorrer o payload duas vezes.
+     */
+    public static Map.Entry<PokemonInfo, PokemonLinks> extractWithLinks(String json) {
+        Map<String, String> types = new LinkedHashMap<>();
+        Map<String, String> abilities = new LinkedHashMap<>();
+        String[] species = new String[1];
+        PokemonInfo info = readDocument(new StringReader(json), types, abilities, species);
+        return new SimpleImmutableEntry<>(info, new PokemonLinks(types, abilities, species[0]));
+    }
+
+    /**
+     * Entrada e saída comuns a {@link #extract} e {@link #extractWithLinks}: o documento precisa
+     * ser um objeto e ser consumido até o fim, como no JsonParser.parseString de antes.
+     */
+    private static PokemonInfo readDocument(Reader source, Map<String, String> typeUrls,
+                                            Map<String, String> abilityUrls, String[] species) {
+        JsonReader reader = newReader(source);
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new IllegalStateException("O documento JSON não é um objeto");
+            }
+            PokemonInfo info = readPokemon(reader, typeUrls, abilityUrls, species);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Did not consume the entire document.");
+            }
+            return info;
+        } catch (MalformedJsonException | EOFException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Extrai as urls de sprites não nulas, com a chave como caminho dentro de "sprites":
+     * "front_default", "other/official-artwork/front_default",
+     * "versions/generation-1/red-blue/front_default"... na ordem do payload.
+     */
+    public static Map<String, String> extractSprites(String json) {
+        JsonReader reader = newReader(new StringReader(json));
+        try {
+            Map<String, String> sprites = new LinkedHashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("sprites".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    spriteUrls(reader, "", sprites);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return sprites;
+        } catch (MalformedJsonException | EOFException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /** Lê /type/{id}: o nome e as listas double/half/no_damage_from de damage_relations. */
+    public static TypeRelations extractTypeRelations(String json) {
+        JsonReader reader = newReader(new StringReader(json));
+        try {
+            String name = null;
+            List<String> doubleFrom = new ArrayList<>();
+            List<String> halfFrom = new ArrayList<>();
+            List<String> noFrom = new ArrayList<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if ("name".equals(field)) {
+                    name = nullableString(reader);
+                } else if ("damage_relations".equals(field) && !consumeNull(reader)) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "double_damage_from":
+                                refNames(reader, doubleFrom);
+                                break;
+                            case "half_damage_from":
+                                refNames(reader, halfFrom);
+                                break;
+                            case "no_damage_from":
+                                refNames(reader, noFrom);
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (name == null) {
+                throw new NullPointerException("Campo 'name' ausente");
+            }
+            return new TypeRelations(name, doubleFrom, halfFrom, noFrom);
+        } catch (MalformedJsonException | EOFException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Lê um texto traduzido de um array no formato [{"textField":"...","language":{"name":"en"}}],
+     * como effect_entries[].short_effect de /ability ou genera[].genus de /pokemon-species.
+     * Devolve null se não houver entrada no idioma pedido.
+     */
+    public static String extractLocalized(String json, String arrayField, String textField, String language) {
+        JsonReader reader = newReader(new StringReader(json));
+        try {
+            String found = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!arrayField.equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+                if (consumeNull(reader)) {
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String text = null;
+                    String entryLanguage = null;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if (textField.equals(field)) {
+                            text = nullableString(reader);
+                        } else if ("language".equals(field) && !consumeNull(reader)) {
+                            entryLanguage = refName(reader);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    if (found == null && language.equals(entryLanguage)) {
+                        found = text;
+                    }
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+            return found;
+        } catch (MalformedJsonException | EOFException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /** Leniente como o JsonParser usado antes: aceita nomes sem aspas, aspas simples etc. */
+    private static JsonReader newReader(Reader source) {
+        JsonReader reader = new JsonReader(source);
+        reader.setStrictness(Strictness.LENIENT);
+        return reader;
+    }
+
+    /** Com os mapas e species não nulos, acumula também as urls ligadas. */
+    private static PokemonInfo readPokemon(JsonReader reader, Map<String, String> typeUrls,
+                                           Map<String, String> abilityUrls, String[] species) throws IOException {
+        String name = null;
+        int height = 0;
+        int weight = 0;
+        boolean hasHeight = false;
+        boolean hasWeight = false;
+        List<String> types = null;
+        List<String> abilities = new ArrayList<>(3);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    name = nullableString(reader);
+                    break;
+                case "height":
+                    hasHeight = !consumeNull(reader);
+                    if (hasHeight) {
+                        height = reader.nextInt();
+                    }
+                    break;
+                case "weight":
+                    hasWeight = !consumeNull(reader);
+                    if (hasWeight) {
+                        weight = reader.nextInt();
+                    }
+                    break;
+                case "types":
+                    types = namedRefs(reader, "type", typeUrls);
+                    break;
+                case "abilities":
+                    List<String> read = namedRefs(reader, "ability", abilityUrls);
+                    abilities = read != null ? read : new ArrayList<>();
+                    break;
+                case "species":
+                    if (species == null) {
+                        reader.skipValue();
+                    } else if (!consumeNull(reader)) {
+                        species[0] = ref(reader)[1];
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        // mesma ordem de acesso da versão com JsonObject: name, height, weight, types[0]
+        if (name == null) {
+            throw new NullPointerException("Campo 'name' ausente");
+        }
+        if (!hasHeight) {
+            throw new NullPointerException("Campo 'height' ausente");
+        }
+        if (!hasWeight) {
+            throw new NullPointerException("Campo 'weight' ausente");
+        }
+        if (types == null) {
+            throw new NullPointerException("Campo 'types' ausente");
+        }
+        if (types.isEmpty()) {
+            throw new IndexOutOfBoundsException("Campo 'types' vazio");
+        }
+        if (types.get(0) == null) {
+            throw new NullPointerException("Campo 'types[0].type.name' ausente");
+        }
+        types.removeIf(type -> type == null);
+        abilities.removeIf(ability -> ability == null);
+        return new PokemonInfo(name, height, weight, types, abilities);
+    }
+
+    /**
+     * Lê um array no formato [{"slot":1,"type":{"name":"...","url":"..."}}] e devolve
+     * os nomes na ordem; entradas sem o objeto ou sem nome viram null. Devolve null se o array for nulo.
+     * Com urls não nulo, guarda também nome e url das entradas que tiverem os dois.
+     */
+    private static List<String> namedRefs(JsonReader reader, String field, Map<String, String> urls)
+            throws IOException {
+        if (consumeNull(reader)) {
+            return null;
+        }
+        List<String> names = new ArrayList<>(2);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String refName = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (field.equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    String[] ref = ref(reader);
+                    refName = ref[0];
+                    if (urls != null && ref[0] != null && ref[1] != null) {
+                        urls.put(ref[0], ref[1]);
+                    }
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            names.add(refName);
+        }
+        reader.endArray();
+        return names;
+    }
+
+    private static void spriteUrls(JsonReader reader, String prefix, Map<String, String> sprites) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = prefix + reader.nextName();
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    spriteUrls(reader, key + "/", sprites);
+                    break;
+                case STRING:
+                    sprites.put(key, reader.nextString());
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /** Lê um array de {"name":"...","url":"..."} acumulando os nomes não nulos. */
+    private static void refNames(JsonReader reader, List<String> names) throws IOException {
+        if (consumeNull(reader)) {
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = refName(reader);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        reader.endArray();
+    }
+
+    private static String refName(JsonReader reader) throws IOException {
+        return ref(reader)[0];
+    }
+
+    /** Lê um objeto {"name":"...","url":"..."} e devolve {nome, url}. */
+    private static String[] ref(JsonReader reader) throws IOException {
+        String[] ref = new String[2];
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    ref[0] = nullableString(reader);
+                    break;
+                case "url":
+                    ref[1] = nullableString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return ref;
+    }
+
+    private static String nullableString(JsonReader reader) throws IOException {
+        return consumeNull(reader) ? null : reader.nextString();
+    }
+
+    private static boolean consumeNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package com.examplo;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Urls dos recursos compartilhados citados no payload de um Pokémon:
+ * types[].type.url, abilities[].ability.url e species.url.
+ */
+public final class PokemonLinks {
+    private final Map<String, String> types;
+    private final Map<String, String> abilities;
+    private final String speciesUrl;
+
+    public PokemonLinks(Map<String, String> types, Map<String, String> abilities, String speciesUrl) {
+        this.types = Collections.unmodifiableMap(types);
+        this.abilities = Collections.unmodifiableMap(abilities);
+        this.speciesUrl = speciesUrl;
+    }
+
+    /** Url de cada tipo por nome, na ordem dos slots. */
+    public Map<String, String> types() {
+        return types;
+    }
+
+    /** Url de cada habilidade por nome, na ordem dos slots. */
+    public Map<String, String> abilities() {
+        return abilities;
+    }
+
+    /** Url da espécie, ou null se o payload não a tiver. */
+    public String speciesUrl() {
+        return speciesUrl;
+    }
+}
@@ -0,0 +1,125 @@
+package com.examplo;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Uma página de /pokemon?limit=&offset=: a quantidade total de recursos, o link da
+ * próxima página e o nome de cada id listado (o id vem do final da url do recurso).
+ */
+public final class PokemonListing {
+    /** Ids a partir daqui são formas alternativas (megas, regionais etc.), fora da Pokédex nacional. */
+    public static final int PRIMEIRO_ID_DE_FORMA = 10001;
+
+    private final int count;
+    private final String next;
+    private final Map<Integer, String> names;
+
+    PokemonListing(int count, String next, Map<Integer, String> names) {
+        this.count = count;
+        this.next = next;
+        this.names = names;
+    }
+
+    public static PokemonListing parse(String json) {
+        return parse(new StringReader(json));
+    }
+
+    public static PokemonListing parse(Reader source) {
+        JsonReader reader = new JsonReader(source);
+        try {
+            int count = -1;
+            String next = null;
+            Map<Integer, String> names = new TreeMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "count":
+                        count = reader.nextInt();
+                        break;
+                    case "next":
+                        next = nextStringOrNull(reader);
+                        break;
+                    case "results":
+                        readResults(reader, names);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (count < 0) {
+                throw new JsonSyntaxException("Lista sem o campo count");
+            }
+            return new PokemonListing(count, next, Collections.unmodifiableMap(names));
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    private static void readResults(JsonReader reader, Map<Integer, String> names) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = null;
+            String url = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if ("name".equals(field)) {
+                    name = nextStringOrNull(reader);
+                } else if ("url".equals(field)) {
+                    url = nextStringOrNull(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (name != null && url != null) {
+                names.put(idFromUrl(url), name);
+            }
+        }
+        reader.endArray();
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /** "https://pokeapi.co/api/v2/pokemon/25/" → 25 */
+    static int idFromUrl(String url) {
+        int end = url.endsWith("/") ? url.length() - 1 : url.length();
+        int start = url.lastIndexOf('/', end - 1) + 1;
+        return Integer.parseInt(url.substring(start, end));
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /** Url da próxima página, ou null na última. */
+    public String next() {
+        return next;
+    }
+
+    /** Nome por id, em ordem de id. */
+    public Map<Integer, String> names() {
+        return names;
+    }
+}
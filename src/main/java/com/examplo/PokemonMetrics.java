@@ -0,0 +1,215 @@
+package com.examplo;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import okhttp3.EventListener;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Métricas de latência do caminho busca → extração → formatação.
+ * As fases HTTP vêm de um EventListener do OkHttp; extração e formatação são medidas
+ * pelos chamadores com {@link #start()} e {@link #stop(String, long)}. Componentes com estado
+ * (como o limitador de concorrência) registram medidores com {@link #registerGauge}.
+ * Os histogramas ficam expostos via JMX e podem ser gravados como relatório JSON.
+ */
+public final class PokemonMetrics implements PokemonMetricsMBean {
+    public static final String DNS = "dns";
+    public static final String CONNECT = "connect";
+    public static final String TLS = "tls";
+    public static final String TTFB = "ttfb";
+    public static final String BODY = "body";
+    public static final String CALL = "call";
+    public static final String PARSE = "parse";
+    public static final String FORMAT = "format";
+
+    public static final String OBJECT_NAME = "com.examplo:type=PokemonMetrics";
+
+    private static final PokemonMetrics GLOBAL = new PokemonMetrics();
+
+    private final Map<String, LatencyHistogram> histograms;
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong upstreamErrors = new AtomicLong();
+
+    public PokemonMetrics() {
+        Map<String, LatencyHistogram> phases = new LinkedHashMap<>();
+        for (String phase : new String[]{DNS, CONNECT, TLS, TTFB, BODY, CALL, PARSE, FORMAT}) {
+            phases.put(phase, new LatencyHistogram());
+        }
+        this.histograms = Collections.unmodifiableMap(phases);
+    }
+
+    /** Instância compartilhada pelo processo. */
+    public static PokemonMetrics global() {
+        return GLOBAL;
+    }
+
+    /** Fábrica para OkHttpClient.Builder.eventListenerFactory. */
+    public EventListener.Factory eventListenerFactory() {
+        return call -> new MetricsEventListener(this);
+    }
+
+    public LatencyHistogram histogram(String phase) {
+        LatencyHistogram histogram = histograms.get(phase);
+        if (histogram == null) {
+            throw new IllegalArgumentException("Fase desconhecida: " + phase);
+        }
+        return histogram;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(String phase, long start) {
+        histogram(phase).record(System.nanoTime() - start);
+    }
+
+    /** Registra (ou substitui) um medidor lido no momento da consulta. */
+    public void registerGauge(String name, DoubleSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    void recordUpstreamError() {
+        upstreamErrors.incrementAndGet();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    public long upstreamErrors() {
+        return upstreamErrors.get();
+    }
+
+    /** Registra o MBean no servidor de plataforma; chamadas repetidas são ignoradas. */
+    public void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // já registrado
+        } catch (JMException e) {
+            throw new IllegalStateException("Não foi possível registrar as métricas no JMX", e);
+        }
+    }
+
+    /** Grava o relatório no caminho informado quando a JVM terminar. */
+    public void dumpReportOnShutdown(Path path) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                writeReport(path);
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar o relatório de métricas: " + e.getMessage());
+            }
+        }, "pokemon-metrics-report"));
+    }
+
+    public void writeReport(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(path, getReport().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String[] getPhases() {
+        return histograms.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getGauges() {
+        return gauges.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public double gauge(String name) {
+        DoubleSupplier gauge = gauges.get(name);
+        if (gauge == null) {
+            throw new IllegalArgumentException("Medidor desconhecido: " + name);
+        }
+        return gauge.getAsDouble();
+    }
+
+    @Override
+    public long getCallCount() {
+        return histogram(CALL).count();
+    }
+
+    @Override
+    public double getCallP50Millis() {
+        return percentileMillis(CALL, 50);
+    }
+
+    @Override
+    public double getCallP99Millis() {
+        return percentileMillis(CALL, 99);
+    }
+
+    @Override
+    public double percentileMillis(String phase, double percentile) {
+        return histogram(phase).percentile(percentile) / 1e6;
+    }
+
+    @Override
+    public String getReport() {
+        JsonObject report = new JsonObject();
+        report.addProperty("generatedAt", Instant.now().toString());
+        report.addProperty("failures", failures.get());
+        report.addProperty("upstreamErrors", upstreamErrors.get());
+        JsonObject phases = new JsonObject();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            JsonObject phase = new JsonObject();
+            phase.addProperty("count", histogram.count());
+            phase.addProperty("meanMillis", histogram.mean() / 1e6);
+            phase.addProperty("p50Millis", histogram.percentile(50) / 1e6);
+            phase.addProperty("p90Millis", histogram.percentile(90) / 1e6);
+            phase.addProperty("p99Millis", histogram.percentile(99) / 1e6);
+            phase.addProperty("p999Millis", histogram.percentile(99.9) / 1e6);
+            phase.addProperty("maxMillis", histogram.max() / 1e6);
+            phases.add(entry.getKey(), phase);
+        }
+        report.add("phases", phases);
+        JsonObject gaugeValues = new JsonObject();
+        for (Map.Entry<String, DoubleSupplier> entry : gauges.entrySet()) {
+            gaugeValues.addProperty(entry.getKey(), entry.getValue().getAsDouble());
+        }
+        report.add("gauges", gaugeValues);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(report);
+    }
+
+    @Override
+    public void dumpReport(String path) throws IOException {
+        writeReport(Paths.get(path));
+    }
+
+    @Override
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        failures.set(0);
+        upstreamErrors.set(0);
+    }
+}
@@ -0,0 +1,31 @@
+package com.examplo;
+
+import java.io.IOException;
+
+/** Interface JMX das métricas de latência (com.examplo:type=PokemonMetrics). */
+public interface PokemonMetricsMBean {
+
+    String[] getPhases();
+
+    long getCallCount();
+
+    double getCallP50Millis();
+
+    double getCallP99Millis();
+
+    String[] getGauges();
+
+    /** Valor atual de um medidor registrado (ex.: limite de concorrência). */
+    double gauge(String name);
+
+    /** Percentil de uma fase em milissegundos. */
+    double percentileMillis(String phase, double percentile);
+
+    /** Relatório completo em JSON. */
+    String getReport();
+
+    /** Grava o relatório JSON no caminho informado. */
+    void dumpReport(String path) throws IOException;
+
+    void reset();
+}
@@ -0,0 +1,49 @@
+package com.examplo;
+
+import java.time.LocalDate;
+
+/**
+ * Estratégia de escolha do Pokémon do dia. Implementações determinísticas fazem
+ * todos os processos e nós escolherem o mesmo id na mesma data, compartilhando o cache.
+ */
+public interface PokemonSelector {
+
+    /** Id escolhido para a data, entre 1 e o total da Pokédex. */
+    int select(LocalDate date);
+
+    /** Agenda dos próximos dias a partir de from (inclusive), útil para pré-aquecer o cache. */
+    default int[] schedule(LocalDate from, int days) {
+        int[] ids = new int[days];
+        for (int i = 0; i < days; i++) {
+            ids[i] = select(from.plusDays(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Cria o seletor a partir de POKEMON_SELECAO ("data", o padrão, ou "sem-repeticao")
+     * e do sal opcional POKEMON_SALT.
+     */
+    static PokemonSelector fromEnvironment(int total) {
+        String salt = System.getenv("POKEMON_SALT");
+        if (salt == null) {
+            salt = "";
+        }
+        String mode = System.getenv("POKEMON_SELECAO");
+        if ("sem-repeticao".equals(mode)) {
+            return new ShuffleSelector(total, salt);
+        }
+        if (mode != null && !mode.isEmpty() && !"data".equals(mode)) {
+            throw new IllegalArgumentException("Modo de seleção desconhecido: " + mode);
+        }
+        return new DateSeededSelector(total, salt);
+    }
+
+    /** Mistura SplitMix64: espalha bem sementes próximas como dias consecutivos. */
+    static long mix(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
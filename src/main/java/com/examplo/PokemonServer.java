@@ -0,0 +1,319 @@
+package com.examplo;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+/**
+ * Servidor HTTP de longa duração com o Pokémon do dia em memória.
+ * O texto e o JSON são renderizados uma vez por dia; as requisições só copiam bytes
+ * prontos, e a fonte (rede/cache) é consultada apenas quando a escolha do dia muda.
+ * Na virada do dia a escolha anterior continua sendo servida enquanto uma única thread
+ * busca a nova; depois de uma falha, a busca só é tentada de novo após uma espera crescente.
+ *
+ * GET /          texto formatado (o mesmo de formatPokemonData)
+ * GET /json      visão JSON com id, nome, tipos, habilidades, altura e peso
+ * GET /sprite    imagem do dia, servida do {@link SpriteStore} em disco; responde 304 a If-None-Match
+ * GET /metrics   relatório JSON dos histogramas de latência
+ * GET /health    verificação simples de vida
+ */
+public class PokemonServer {
+    /** Espera após a primeira falha ao buscar a escolha do dia; dobra a cada falha seguida. */
+    static final Duration ESPERA_APOS_FALHA = Duration.ofSeconds(5);
+    static final Duration ESPERA_MAXIMA_APOS_FALHA = Duration.ofMinutes(5);
+
+    /** Escolha do dia já renderizada. */
+    static final class DailyPick {
+        final LocalDate date;
+        final int id;
+        final byte[] text;
+        final byte[] json;
+        final String spriteUrl;
+
+        DailyPick(LocalDate date, int id, byte[] text, byte[] json, String spriteUrl) {
+            this.date = date;
+            this.id = id;
+            this.text = text;
+            this.json = json;
+            this.spriteUrl = spriteUrl;
+        }
+    }
+
+    private final PokemonFetcher fetcher;
+    private final ToIntFunction<LocalDate> picker;
+    private final Clock clock;
+    private final SpriteStore sprites;
+    private final String spriteKey;
+    private final SingleFlight<String, SpriteStore.Sprite> spriteFlights = new SingleFlight<>();
+    private final AtomicReference<DailyPick> current = new AtomicReference<>();
+    private final SingleFlight<LocalDate, DailyPick> refreshes = new SingleFlight<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pokemon-do-dia-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object failureLock = new Object();
+    private IOException lastFailure;
+    private int consecutiveFailures;
+    private long retryAtMillis;
+    private final PokemonMetrics metrics = PokemonMetrics.global();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PokemonServer(PokemonFetcher fetcher, ToIntFunction<LocalDate> picker, Clock clock) {
+        this(fetcher, picker, clock, null, null);
+    }
+
+    /**
+     * @param sprites   onde guardar as imagens; null desativa /sprite
+     * @param spriteKey chave de {@link PokemonJsonExtractor#extractSprites} servida em /sprite
+     */
+    public PokemonServer(PokemonFetcher fetcher, ToIntFunction<LocalDate> picker, Clock clock,
+                         SpriteStore sprites, String spriteKey) {
+        this.fetcher = fetcher;
+        this.picker = picker;
+        this.clock = clock;
+        this.sprites = sprites;
+        this.spriteKey = spriteKey;
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        server.setExecutor(executor);
+        server.createContext("/", this::handleText);
+        server.createContext("/json", this::handleJson);
+        server.createContext("/sprite", this::handleSprite);
+        server.createContext("/metrics", exchange -> send(exchange, 200, "application/json; charset=utf-8",
+                metrics.getReport().getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/health", exchange -> send(exchange, 200, "text/plain; charset=utf-8",
+                "OK".getBytes(StandardCharsets.UTF_8)));
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Retorna a escolha do dia. Quando a data muda, a escolha anterior é devolvida enquanto a
+     * nova é buscada em segundo plano; só sem escolha nenhuma (na partida) a requisição espera,
+     * e leitores simultâneos esperam a mesma busca.
+     */
+    DailyPick currentPick() throws IOException {
+        LocalDate today = LocalDate.now(clock);
+        DailyPick pick = current.get();
+        if (pick != null && pick.date.equals(today)) {
+            return pick;
+        }
+        if (pick != null) {
+            refreshInBackground(today);
+            return pick;
+        }
+        return refresh(today);
+    }
+
+    private void refreshInBackground(LocalDate today) {
+        if (backingOff() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    refresh(today);
+                } catch (IOException | RuntimeException e) {
+                    // registrada em refresh; a escolha anterior continua sendo servida
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // servidor parando
+            refreshing.set(false);
+        }
+    }
+
+    /** Busca e renderiza a escolha de today, a menos que a última falha ainda peça espera. */
+    private DailyPick refresh(LocalDate today) throws IOException {
+        synchronized (failureLock) {
+            if (lastFailure != null && clock.millis() < retryAtMillis) {
+                throw new IOException("Fonte indisponível, nova tentativa em "
+                        + (retryAtMillis - clock.millis()) / 1000 + " s: " + lastFailure.getMessage(), lastFailure);
+            }
+        }
+        return refreshes.execute(today, () -> {
+            DailyPick pick = current.get();
+            if (pick != null && pick.date.equals(today)) {
+                return pick;
+            }
+            try {
+                pick = render(today);
+            } catch (IOException | RuntimeException e) {
+                recordFailure(e);
+                throw e;
+            }
+            synchronized (failureLock) {
+                lastFailure = null;
+                consecutiveFailures = 0;
+            }
+            current.set(pick);
+            return pick;
+        });
+    }
+
+    private DailyPick render(LocalDate today) throws IOException {
+        int id = picker.applyAsInt(today);
+        String pokemonData = fetcher.fetch(id);
+        long start = metrics.start();
+        PokemonInfo info = PokemonJsonExtractor.extract(pokemonData);
+        metrics.stop(PokemonMetrics.PARSE, start);
+        start = metrics.start();
+        byte[] text = PokemonDoDia.formatPokemonInfo(id, info).getBytes(StandardCharsets.UTF_8);
+        metrics.stop(PokemonMetrics.FORMAT, start);
+        String spriteUrl = sprites != null ? PokemonJsonExtractor.extractSprites(pokemonData).get(spriteKey) : null;
+        return new DailyPick(today, id, text, toJson(id, info).getBytes(StandardCharsets.UTF_8), spriteUrl);
+    }
+
+    private void recordFailure(Exception e) {
+        synchronized (failureLock) {
+            lastFailure = e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+            long wait = ESPERA_APOS_FALHA.toMillis() << Math.min(consecutiveFailures, 16);
+            retryAtMillis = clock.millis() + Math.min(wait, ESPERA_MAXIMA_APOS_FALHA.toMillis());
+            consecutiveFailures++;
+        }
+    }
+
+    private boolean backingOff() {
+        synchronized (failureLock) {
+            return lastFailure != null && clock.millis() < retryAtMillis;
+        }
+    }
+
+    static String toJson(int id, PokemonInfo info) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("name", info.name());
+        JsonArray types = new JsonArray();
+        info.types().forEach(types::add);
+        json.add("types", types);
+        JsonArray abilities = new JsonArray();
+        info.abilities().forEach(abilities::add);
+        json.add("abilities", abilities);
+        json.addProperty("height", info.height());
+        json.addProperty("weight", info.weight());
+        return json.toString();
+    }
+
+    private void handleText(HttpExchange exchange) throws IOException {
+        if (!"/".equals(exchange.getRequestURI().getPath())) {
+            send(exchange, 404, "text/plain; charset=utf-8", "Não encontrado".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        serve(exchange, false);
+    }
+
+    private void handleJson(HttpExchange exchange) throws IOException {
+        serve(exchange, true);
+    }
+
+    /**
+     * Baixa a imagem na primeira requisição do dia, com requisições simultâneas agrupadas em
+     * um único download; as demais copiam o arquivo do disco ou respondem 304 pelo ETag.
+     */
+    private void handleSprite(HttpExchange exchange) throws IOException {
+        if (sprites == null) {
+            send(exchange, 404, "text/plain; charset=utf-8", "Sprites desativados".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        SpriteStore.Sprite sprite;
+        try {
+            DailyPick pick = currentPick();
+            if (pick.spriteUrl == null) {
+                send(exchange, 404, "text/plain; charset=utf-8", "Sem sprite".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            sprite = spriteFlights.execute(pick.spriteUrl, () -> sprites.fetch(pick.spriteUrl));
+        } catch (IOException | RuntimeException e) {
+            send(exchange, 502, "text/plain; charset=utf-8",
+                    ("Erro na requisição ou no processamento: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String etag = "\"" + sprite.hash() + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (matchesEtag(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", sprite.contentType());
+        exchange.sendResponseHeaders(200, Files.size(sprite.path()));
+        try (OutputStream out = exchange.getResponseBody()) {
+            Files.copy(sprite.path(), out);
+        }
+    }
+
+    /** Comparação fraca de If-None-Match: aceita lista, "*" e o prefixo W/. */
+    static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void serve(HttpExchange exchange, boolean json) throws IOException {
+        DailyPick pick;
+        try {
+            pick = currentPick();
+        } catch (IOException | RuntimeException e) {
+            send(exchange, 502, "text/plain; charset=utf-8",
+                    ("Erro na requisição ou no processamento: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (json) {
+            send(exchange, 200, "application/json; charset=utf-8", pick.json);
+        } else {
+            send(exchange, 200, "text/plain; charset=utf-8", pick.text);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.examplo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelo de saída compilado uma única vez: trechos literais intercalados com campos de
+ * {@link PokemonInfo}. Renderizar é só anexar ao StringBuilder recebido, sem o parse da
+ * string de formato que o String.format refaz a cada chamada e sem objetos por registro.
+ *
+ * Campos: {id}, {name}, {type} (o primário), {types}, {abilities}, {height} e {weight}.
+ * O escape vale para o modelo inteiro: em JSON os textos vão entre aspas e as listas como
+ * arrays; em CSV os textos são citados quando preciso e as listas unidas por '|'.
+ */
+public final class RecordTemplate {
+
+    /** Como os textos e as listas são escritos. */
+    public enum Escape {
+        NONE, JSON, CSV
+    }
+
+    private enum Field {
+        ID, NAME, TYPE, TYPES, ABILITIES, HEIGHT, WEIGHT
+    }
+
+    /** O texto de {@link PokemonDoDia#formatPokemonInfo}. */
+    public static final RecordTemplate TEXT = compile(
+            "=== POKÉMON DO DIA ===\nID: {id}\nNome: {name}\nTipo: {type}\nAltura: {height}\nPeso: {weight}",
+            Escape.NONE);
+
+    /** Uma linha por registro, com os campos e a ordem do /json do servidor. */
+    public static final RecordTemplate JSON_LINES = compile(
+            "{\"id\":{id},\"name\":{name},\"types\":{types},\"abilities\":{abilities},"
+                    + "\"height\":{height},\"weight\":{weight}}", Escape.JSON);
+
+    public static final String CSV_HEADER = "id,name,types,abilities,height,weight";
+
+    public static final RecordTemplate CSV = compile("{id},{name},{types},{abilities},{height},{weight}", Escape.CSV);
+
+    private final String[] literals;
+    private final Field[] fields;
+    private final Escape escape;
+
+    private RecordTemplate(String[] literals, Field[] fields, Escape escape) {
+        this.literals = literals;
+        this.fields = fields;
+        this.escape = escape;
+    }
+
+    /**
+     * Separa o modelo em literais e campos. Chaves que não envolvem um nome de campo (como
+     * as do próprio JSON) ficam no literal; "{xyz}" com nome desconhecido é erro.
+     */
+    public static RecordTemplate compile(String pattern, Escape escape) {
+        List<String> literals = new ArrayList<>();
+        List<Field> fields = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < pattern.length()) {
+            char c = pattern.charAt(position);
+            int close = c == '{' ? pattern.indexOf('}', position) : -1;
+            String name = close < 0 ? null : pattern.substring(position + 1, close);
+            if (name == null || !isFieldName(name)) {
+                literal.append(c);
+                position++;
+                continue;
+            }
+            Field field = field(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Campo desconhecido no modelo: {" + name + "}");
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            fields.add(field);
+            position = close + 1;
+        }
+        literals.add(literal.toString());
+        return new RecordTemplate(literals.toArray(new String[0]), fields.toArray(new Field[0]), escape);
+    }
+
+    private static boolean isFieldName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) < 'a' || name.charAt(i) > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Field field(String name) {
+        switch (name) {
+            case "id":
+                return Field.ID;
+            case "name":
+                return Field.NAME;
+            case "type":
+                return Field.TYPE;
+            case "types":
+                return Field.TYPES;
+            case "abilities":
+                return Field.ABILITIES;
+            case "height":
+                return Field.HEIGHT;
+            case "weight":
+                return Field.WEIGHT;
+            default:
+                return null;
+        }
+    }
+
+    public String render(int id, PokemonInfo info) {
+        StringBuilder out = new StringBuilder(96);
+        appendTo(id, info, out);
+        return out.toString();
+    }
+
+    public void appendTo(int id, PokemonInfo info, StringBuilder out) {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+            switch (fields[i]) {
+                case ID:
+                    out.append(id);
+                    break;
+                case NAME:
+                    appendText(info.name(), out);
+                    break;
+                case TYPE:
+                    appendText(info.primaryType(), out);
+                    break;
+                case TYPES:
+                    appendList(info.types(), out);
+                    break;
+                case ABILITIES:
+                    appendList(info.abilities(), out);
+                    break;
+                case HEIGHT:
+                    out.append(info.height());
+                    break;
+                default:
+                    out.append(info.weight());
+            }
+        }
+        out.append(literals[fields.length]);
+    }
+
+    private void appendText(String text, StringBuilder out) {
+        switch (escape) {
+            case JSON:
+                if (text == null) {
+                    out.append("null");
+                } else {
+                    appendJsonString(text, out);
+                }
+                break;
+            case CSV:
+                appendCsv(text == null ? "" : text, out);
+                break;
+            default:
+                out.append(text);
+        }
+    }
+
+    private void appendList(List<String> values, StringBuilder out) {
+        if (escape == Escape.JSON) {
+            out.append('[');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendJsonString(values.get(i), out);
+            }
+            out.append(']');
+            return;
+        }
+        if (escape == Escape.CSV) {
+            boolean quote = false;
+            for (int i = 0; i < values.size() && !quote; i++) {
+                quote = needsCsvQuotes(values.get(i)) || values.get(i).indexOf('|') >= 0;
+            }
+            if (quote) {
+                out.append('"');
+            }
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.append('|');
+                }
+                appendCsvBody(values.get(i), out);
+            }
+            if (quote) {
+                out.append('"');
+            }
+            return;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(values.get(i));
+        }
+    }
+
+    private static void appendJsonString(String text, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00");
+                out.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static void appendCsv(String text, StringBuilder out) {
+        if (needsCsvQuotes(text)) {
+            out.append('"');
+            appendCsvBody(text, out);
+            out.append('"');
+        } else {
+            out.append(text);
+        }
+    }
+
+    /** Aspas dobradas, como manda o RFC 4180; quem decide se cita é o chamador. */
+    private static void appendCsvBody(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+    }
+
+    private static boolean needsCsvQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
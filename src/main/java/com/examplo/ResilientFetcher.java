@@ -0,0 +1,450 @@
+package com.examplo;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Busca de /pokemon/{id} com política de resiliência:
+ * <ul>
+ *   <li>prazo total por busca, incluindo hedges e novas tentativas;</li>
+ *   <li>hedge: se a resposta não chegar até o p95 das latências observadas, dispara
+ *       uma segunda requisição e fica com a primeira que responder; cada hedge consome
+ *       uma ficha do {@link RetryBudget}, e sem ficha não há hedge;</li>
+ *   <li>novas tentativas com espera exponencial e jitter, limitadas por um {@link RetryBudget};</li>
+ *   <li>disjuntor que, aberto, falha rápido e devolve o último valor do cache em disco.</li>
+ * </ul>
+ * Entradas frescas do cache são servidas sem rede e as vencidas são revalidadas
+ * com requisição condicional, como em {@link PokemonDoDia#fetchPokemonData(int, OkHttpClient, String, PokemonCache)}.
+ */
+public class ResilientFetcher implements PokemonFetcher {
+    public static final Duration PRAZO_PADRAO = Duration.ofSeconds(5);
+    public static final Duration ATRASO_HEDGE_PADRAO = Duration.ofMillis(300);
+    public static final int TENTATIVAS_PADRAO = 3;
+
+    /** Abaixo desse número de amostras o p95 ainda não é confiável e vale o atraso padrão. */
+    static final int AMOSTRAS_MINIMAS = 20;
+
+    /** Resposta HTTP com status de erro; 5xx e 429 podem ser repetidos, o resto não. */
+    static final class StatusException extends IOException {
+        final int status;
+
+        StatusException(int status) {
+            super("Não foi possível buscar o Pokémon (status: " + status + ")");
+            this.status = status;
+        }
+
+        boolean retryable() {
+            return status >= 500 || status == 429;
+        }
+    }
+
+    /** Resultado de uma requisição vencedora. */
+    private static final class Outcome {
+        final String body;
+        final String etag;
+        final String lastModified;
+        final boolean notModified;
+
+        Outcome(String body, String etag, String lastModified, boolean notModified) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.notModified = notModified;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final PokemonCache cache;
+    private final long deadlineNanos;
+    private final long initialHedgeNanos;
+    private final boolean hedging;
+    private final int maxAttempts;
+    private final long backoffBaseNanos;
+    private final long backoffMaxNanos;
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker circuitBreaker;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private ResilientFetcher(Builder builder) {
+        this.client = builder.concurrency > 0 ? sized(builder.client, builder.concurrency) : builder.client;
+        this.baseUrl = builder.baseUrl;
+        this.cache = builder.cache;
+        this.deadlineNanos = builder.deadline.toNanos();
+        this.initialHedgeNanos = builder.initialHedgeDelay.toNanos();
+        this.hedging = builder.hedging;
+        this.maxAttempts = builder.maxAttempts;
+        this.backoffBaseNanos = builder.backoffBase.toNanos();
+        this.backoffMaxNanos = builder.backoffMax.toNanos();
+        this.retryBudget = builder.retryBudget;
+        this.circuitBreaker = builder.circuitBreaker;
+    }
+
+    public static Builder builder(OkHttpClient client, String baseUrl) {
+        return new Builder(client, baseUrl);
+    }
+
+    /**
+     * Cliente com o dispatcher dimensionado para concurrency buscas simultâneas, cada uma
+     * com a requisição e o hedge. No limite padrão do OkHttp (5 por host) as excedentes
+     * ficariam na fila do dispatcher gastando o prazo. Threads e conexões continuam
+     * compartilhadas com o cliente original.
+     */
+    private static OkHttpClient sized(OkHttpClient client, int concurrency) {
+        Dispatcher dispatcher = new Dispatcher(client.dispatcher().executorService());
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), 2 * concurrency));
+        dispatcher.setMaxRequestsPerHost(2 * concurrency);
+        return client.newBuilder().dispatcher(dispatcher).build();
+    }
+
+    @Override
+    public String fetch(int id) throws IOException {
+        if (cache == null) {
+            return fetchRemote(id, null);
+        }
+        PokemonCache.Entry cached = cache.lookup(id);
+        if (cached != null && cache.isFresh(cached)) {
+            cache.recordHit();
+            return cached.body();
+        }
+        // só um processo do host busca o id por vez; quem esperou lê o que o outro gravou
+        try (PokemonCache.RefreshLock lock = cache.lockForRefresh(id)) {
+            cached = cache.lookup(id);
+            if (cached != null && cache.isFresh(cached)) {
+                cache.recordHit();
+                return cached.body();
+            }
+            return fetchRemote(id, cached);
+        }
+    }
+
+    private String fetchRemote(int id, PokemonCache.Entry cached) throws IOException {
+        if (!circuitBreaker.allowRequest()) {
+            rejected.incrementAndGet();
+            return fallback(cached, new IOException("Circuito aberto: a PokeAPI está indisponível"));
+        }
+
+        long deadline = System.nanoTime() + deadlineNanos;
+        IOException failure;
+        int attempt = 1;
+        boolean recorded = false;
+        try {
+            while (true) {
+                try {
+                    Outcome outcome = hedged(id, cached, deadline);
+                    recorded = true;
+                    circuitBreaker.recordSuccess();
+                    retryBudget.recordSuccess();
+                    return remember(id, cached, outcome);
+                } catch (StatusException e) {
+                    if (!e.retryable()) {
+                        // o upstream respondeu (ex.: 404); não é falha de disponibilidade
+                        recorded = true;
+                        circuitBreaker.recordSuccess();
+                        throw e;
+                    }
+                    failure = e;
+                } catch (IOException e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        // quem chamou desistiu: não é falha do upstream, nem motivo para nova tentativa
+                        throw e;
+                    }
+                    failure = e;
+                }
+                if (attempt >= maxAttempts) {
+                    break;
+                }
+                long pause = backoff(attempt);
+                if (System.nanoTime() + pause >= deadline || !retryBudget.tryAcquire()) {
+                    break;
+                }
+                retries.incrementAndGet();
+                sleep(pause);
+                attempt++;
+            }
+            recorded = true;
+            circuitBreaker.recordFailure();
+            return fallback(cached, failure);
+        } finally {
+            // interrompida ou com erro inesperado: a chamada de teste do meio aberto não pode ficar presa
+            if (!recorded) {
+                circuitBreaker.releaseTrial();
+            }
+        }
+    }
+
+    /** Dispara a requisição e, se ela passar do atraso de hedge, uma segunda; vale a primeira resposta. */
+    private Outcome hedged(int id, PokemonCache.Entry cached, long deadline) throws IOException {
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger();
+        List<Call> calls = new CopyOnWriteArrayList<>();
+        try {
+            launch(id, cached, deadline, result, pending, calls);
+            long hedgeAt = System.nanoTime() + hedgeDelayNanos();
+            if (hedging && hedgeAt < deadline) {
+                Outcome outcome = await(result, hedgeAt);
+                if (outcome != null) {
+                    return outcome;
+                }
+                // o hedge dobra a carga justo quando o upstream está lento: paga ficha como uma nova tentativa
+                if (retryBudget.tryAcquire()) {
+                    hedges.incrementAndGet();
+                    launch(id, cached, deadline, result, pending, calls);
+                }
+            }
+            Outcome outcome = await(result, deadline);
+            if (outcome == null) {
+                throw new InterruptedIOException("Prazo de " + TimeUnit.NANOSECONDS.toMillis(deadlineNanos)
+                        + " ms esgotado ao buscar o Pokémon " + id);
+            }
+            return outcome;
+        } finally {
+            // cancela a requisição que perdeu a corrida (ou as duas, se o prazo acabou)
+            for (Call call : calls) {
+                call.cancel();
+            }
+        }
+    }
+
+    private void launch(int id, PokemonCache.Entry cached, long deadline, CompletableFuture<Outcome> result,
+                        AtomicInteger pending, List<Call> calls) {
+        Request.Builder builder = new Request.Builder().url(baseUrl + id);
+        if (cached != null && cached.etag() != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            builder.header("If-Modified-Since", cached.lastModified());
+        }
+        Call call = client.newCall(builder.build());
+        call.timeout().timeout(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        calls.add(call);
+        pending.incrementAndGet();
+        long start = System.nanoTime();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                fail(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response r = response) {
+                    if (r.code() == 304 && cached != null) {
+                        latencies.record(System.nanoTime() - start);
+                        result.complete(new Outcome(cached.body(), null, null, true));
+                    } else if (r.isSuccessful() && r.body() != null) {
+                        String body = r.body().string();
+                        latencies.record(System.nanoTime() - start);
+                        result.complete(new Outcome(body, r.header("ETag"), r.header("Last-Modified"), false));
+                    } else {
+                        fail(new StatusException(r.code()));
+                    }
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+
+            private void fail(IOException e) {
+                // com um hedge ainda em voo, espera por ele; erros definitivos encerram na hora
+                boolean definitive = e instanceof StatusException && !((StatusException) e).retryable();
+                if (pending.decrementAndGet() == 0 || definitive) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private static Outcome await(CompletableFuture<Outcome> result, long until) throws IOException {
+        try {
+            return result.get(Math.max(0, until - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Busca interrompida");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /** Atualiza o cache em disco; se a gravação falhar, a resposta já recebida vale mesmo assim. */
+    private String remember(int id, PokemonCache.Entry cached, Outcome outcome) {
+        if (cache != null) {
+            try {
+                if (outcome.notModified) {
+                    cache.markRevalidated(cached, id);
+                    cache.recordHit();
+                } else {
+                    cache.store(id, outcome.body, outcome.etag, outcome.lastModified);
+                    cache.recordMiss();
+                }
+            } catch (IOException e) {
+                System.err.println("Cache em disco não atualizado para o Pokémon " + id + ": " + e.getMessage());
+            }
+        }
+        return outcome.body;
+    }
+
+    private String fallback(PokemonCache.Entry cached, IOException failure) throws IOException {
+        if (cached == null) {
+            throw failure;
+        }
+        fallbacks.incrementAndGet();
+        cache.recordHit();
+        return cached.body();
+    }
+
+    /** p95 das latências observadas; antes de haver amostras suficientes, o atraso configurado. */
+    long hedgeDelayNanos() {
+        if (latencies.count() < AMOSTRAS_MINIMAS) {
+            return initialHedgeNanos;
+        }
+        return latencies.percentile(95);
+    }
+
+    private long backoff(int attempt) {
+        return backoff(attempt, backoffBaseNanos, backoffMaxNanos);
+    }
+
+    /** Espera exponencial com metade fixa e metade aleatória ("equal jitter"). */
+    static long backoff(int attempt, long backoffBaseNanos, long backoffMaxNanos) {
+        long cap = Math.min(backoffMaxNanos, backoffBaseNanos << Math.min(attempt - 1, 20));
+        long half = cap / 2;
+        return half + (half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0);
+    }
+
+    private static void sleep(long nanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Busca interrompida");
+        }
+    }
+
+    public LatencyHistogram latencies() {
+        return latencies;
+    }
+
+    public long hedges() {
+        return hedges.get();
+    }
+
+    public long retries() {
+        return retries.get();
+    }
+
+    public long fallbacks() {
+        return fallbacks.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public static final class Builder {
+        private final OkHttpClient client;
+        private final String baseUrl;
+        private PokemonCache cache;
+        private Duration deadline = PRAZO_PADRAO;
+        private Duration initialHedgeDelay = ATRASO_HEDGE_PADRAO;
+        private boolean hedging = true;
+        private int maxAttempts = TENTATIVAS_PADRAO;
+        private Duration backoffBase = Duration.ofMillis(50);
+        private Duration backoffMax = Duration.ofSeconds(1);
+        private RetryBudget retryBudget = new RetryBudget(10, 0.1);
+        private CircuitBreaker circuitBreaker = new CircuitBreaker(5, TimeUnit.SECONDS.toNanos(30));
+        private int concurrency;
+
+        private Builder(OkHttpClient client, String baseUrl) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+        }
+
+        /** Cache usado para servir entradas frescas, revalidar as vencidas e como fallback. */
+        public Builder cache(PokemonCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public Builder deadline(Duration deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /** Atraso do hedge enquanto não há amostras suficientes para o p95. */
+        public Builder initialHedgeDelay(Duration initialHedgeDelay) {
+            this.initialHedgeDelay = initialHedgeDelay;
+            return this;
+        }
+
+        public Builder hedging(boolean hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder backoff(Duration base, Duration max) {
+            this.backoffBase = base;
+            this.backoffMax = max;
+            return this;
+        }
+
+        public Builder retryBudget(RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        public Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /** Buscas simultâneas esperadas (ex.: workers de um lote); dimensiona o dispatcher do cliente. */
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public ResilientFetcher build() {
+            return new ResilientFetcher(this);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.examplo;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Segue os links de tipos, habilidades e espécie dos payloads de um lote e monta
+ * {@link EnrichedPokemon}. As urls são deduplicadas no lote inteiro antes de qualquer
+ * requisição: cada recurso distinto é buscado uma única vez, em paralelo, e compartilhado
+ * por todos os Pokémon que o citam. A Pokédex inteira custa ~18 requisições de tipo em vez
+ * de uma por Pokémon.
+ */
+public class ResourceGraphFetcher {
+    public static final String API_ROOT = "https://pokeapi.co/api/v2/";
+    public static final int CONCORRENCIA_PADRAO = 16;
+    public static final String IDIOMA_PADRAO = "en";
+    private static final String PREFIXO_API = "/api/v2/";
+    private static final long ESPERA_BASE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long ESPERA_MAXIMA_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Campos de link que podem ser seguidos. */
+    public enum Link {
+        TYPE, ABILITY, SPECIES
+    }
+
+    /** Registros montados e o custo do lote. */
+    public static final class Result {
+        private final Map<Integer, EnrichedPokemon> records;
+        private final List<String> failedUrls;
+        private final int references;
+        private final int requests;
+
+        Result(Map<Integer, EnrichedPokemon> records, List<String> failedUrls, int references, int requests) {
+            this.records = records;
+            this.failedUrls = failedUrls;
+            this.references = references;
+            this.requests = requests;
+        }
+
+        public Map<Integer, EnrichedPokemon> records() {
+            return records;
+        }
+
+        /** Recursos que não puderam ser buscados; os registros que os citam ficam incompletos. */
+        public List<String> failedUrls() {
+            return failedUrls;
+        }
+
+        /** Links seguidos no lote, contando repetições. */
+        public int references() {
+            return references;
+        }
+
+        /** Requisições feitas, incluindo novas tentativas. */
+        public int requests() {
+            return requests;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String apiRoot;
+    private final int maxAttempts;
+    private final String language;
+
+    /**
+     * @param apiRoot raiz da API com a barra final; as urls dos payloads são reescritas
+     *                para ela, o que permite apontar para um espelho ou servidor de teste
+     */
+    public ResourceGraphFetcher(OkHttpClient client, String apiRoot, int maxInFlight, int maxAttempts) {
+        this(client, apiRoot, maxInFlight, maxAttempts, IDIOMA_PADRAO);
+    }
+
+    public ResourceGraphFetcher(OkHttpClient client, String apiRoot, int maxInFlight, int maxAttempts,
+                                String language) {
+        if (maxInFlight < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Concorrência e tentativas devem ser positivas");
+        }
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxInFlight);
+        dispatcher.setMaxRequestsPerHost(maxInFlight);
+        this.client = client.newBuilder().dispatcher(dispatcher).build();
+        this.apiRoot = apiRoot;
+        this.maxAttempts = maxAttempts;
+        this.language = language;
+    }
+
+    /** Monta os registros do lote seguindo só os links pedidos. */
+    public Result enrich(Map<Integer, String> entries, Set<Link> links) throws InterruptedException {
+        Map<Integer, PokemonInfo> infos = new TreeMap<>();
+        Map<Integer, PokemonLinks> linksById = new TreeMap<>();
+        Map<String, Link> distinct = new LinkedHashMap<>();
+        int references = 0;
+        for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+            Map.Entry<PokemonInfo, PokemonLinks> parsed = PokemonJsonExtractor.extractWithLinks(entry.getValue());
+            infos.put(entry.getKey(), parsed.getKey());
+            PokemonLinks found = parsed.getValue();
+            linksById.put(entry.getKey(), found);
+            if (links.contains(Link.TYPE)) {
+                for (String url : found.types().values()) {
+                    distinct.putIfAbsent(resolve(url), Link.TYPE);
+                    references++;
+                }
+            }
+            if (links.contains(Link.ABILITY)) {
+                for (String url : found.abilities().values()) {
+                    distinct.putIfAbsent(resolve(url), Link.ABILITY);
+                    references++;
+                }
+            }
+            if (links.contains(Link.SPECIES) && found.speciesUrl() != null) {
+                distinct.putIfAbsent(resolve(found.speciesUrl()), Link.SPECIES);
+                references++;
+            }
+        }
+
+        Map<String, String> bodies = new ConcurrentHashMap<>();
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger requests = new AtomicInteger();
+        fetchAll(distinct.keySet(), bodies, failed, requests);
+
+        // cada recurso é interpretado uma vez e o objeto resultante é compartilhado
+        Map<String, TypeRelations> types = new TreeMap<>();
+        Map<String, String> texts = new TreeMap<>();
+        for (Map.Entry<String, String> body : bodies.entrySet()) {
+            try {
+                switch (distinct.get(body.getKey())) {
+                    case TYPE:
+                        types.put(body.getKey(), PokemonJsonExtractor.extractTypeRelations(body.getValue()));
+                        break;
+                    case ABILITY:
+                        putIfNotNull(texts, body.getKey(), PokemonJsonExtractor.extractLocalized(
+                                body.getValue(), "effect_entries", "short_effect", language));
+                        break;
+                    default:
+                        putIfNotNull(texts, body.getKey(), PokemonJsonExtractor.extractLocalized(
+                                body.getValue(), "genera", "genus", language));
+                }
+            } catch (RuntimeException e) {
+                failed.add(body.getKey());
+            }
+        }
+
+        Set<String> failedSet = new HashSet<>(failed);
+        Map<Integer, EnrichedPokemon> records = new TreeMap<>();
+        for (Map.Entry<Integer, PokemonLinks> entry : linksById.entrySet()) {
+            PokemonLinks found = entry.getValue();
+            Set<Link> incomplete = EnumSet.noneOf(Link.class);
+            List<TypeRelations> typeRelations = new ArrayList<>(2);
+            for (String url : found.types().values()) {
+                TypeRelations relations = types.get(resolve(url));
+                if (relations != null) {
+                    typeRelations.add(relations);
+                } else if (failedSet.contains(resolve(url))) {
+                    incomplete.add(Link.TYPE);
+                }
+            }
+            Map<String, String> abilityEffects = new LinkedHashMap<>();
+            for (Map.Entry<String, String> ability : found.abilities().entrySet()) {
+                String effect = links.contains(Link.ABILITY) ? texts.get(resolve(ability.getValue())) : null;
+                if (effect != null) {
+                    abilityEffects.put(ability.getKey(), effect);
+                } else if (links.contains(Link.ABILITY) && failedSet.contains(resolve(ability.getValue()))) {
+                    incomplete.add(Link.ABILITY);
+                }
+            }
+            String genus = links.contains(Link.SPECIES) && found.speciesUrl() != null
+                    ? texts.get(resolve(found.speciesUrl()))
+                    : null;
+            if (genus == null && found.speciesUrl() != null && failedSet.contains(resolve(found.speciesUrl()))) {
+                incomplete.add(Link.SPECIES);
+            }
+            records.put(entry.getKey(), new EnrichedPokemon(
+                    entry.getKey(), infos.get(entry.getKey()), typeRelations, abilityEffects, genus, incomplete));
+        }
+        List<String> failedUrls = new ArrayList<>(failed);
+        Collections.sort(failedUrls);
+        return new Result(records, failedUrls, references, requests.get());
+    }
+
+    /** Encerra as threads do dispatcher próprio. */
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+    }
+
+    /** Troca a raiz da url do payload pela raiz configurada; a chave de deduplicação é o resultado. */
+    String resolve(String url) {
+        int index = url.indexOf(PREFIXO_API);
+        return index < 0 ? url : apiRoot + url.substring(index + PREFIXO_API.length());
+    }
+
+    /**
+     * Busca as urls em paralelo. Novas tentativas esperam o Retry-After do servidor (até
+     * {@link PokedexSync#ESPERA_MAXIMA_RETRY_AFTER}) ou a espera com jitter do
+     * {@link ResilientFetcher}, o que for maior. Toda url termina em bodies ou em failed,
+     * mesmo se um callback lançar uma exceção inesperada, então a espera sempre acaba.
+     */
+    private void fetchAll(Set<String> urls, Map<String, String> bodies, List<String> failed,
+                          AtomicInteger requests) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(urls.size());
+        ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor();
+        Callback callback = new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                String url = call.request().tag(String.class);
+                boolean settled = false;
+                try (ResponseBody body = response.body()) {
+                    if (response.isSuccessful() && body != null) {
+                        bodies.put(url, body.string());
+                        done.countDown();
+                    } else if (response.code() < 500 && response.code() != 429) {
+                        fail(url);
+                    } else {
+                        long retryAfter = PokedexSync.retryAfterNanos(response.header("Retry-After"));
+                        if (retryAfter > PokedexSync.ESPERA_MAXIMA_RETRY_AFTER.toNanos()) {
+                            fail(url);
+                        } else {
+                            retryOrFail(call, retryAfter);
+                        }
+                    }
+                    settled = true;
+                } catch (IOException e) {
+                    // falha ao ler o corpo: tenta de novo
+                    retryOrFail(call, 0);
+                    settled = true;
+                } finally {
+                    if (!settled) {
+                        fail(url);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                boolean settled = false;
+                try {
+                    retryOrFail(call, 0);
+                    settled = true;
+                } finally {
+                    if (!settled) {
+                        fail(call.request().tag(String.class));
+                    }
+                }
+            }
+
+            private void retryOrFail(Call call, long retryAfterNanos) {
+                String url = call.request().tag(String.class);
+                int attempt = call.request().tag(Integer.class);
+                if (attempt >= maxAttempts) {
+                    fail(url);
+                    return;
+                }
+                long pause = Math.max(retryAfterNanos,
+                        ResilientFetcher.backoff(attempt, ESPERA_BASE_NANOS, ESPERA_MAXIMA_NANOS));
+                Callback callback = this;
+                retries.schedule(() -> {
+                    boolean sent = false;
+                    try {
+                        enqueue(url, attempt + 1, callback, requests);
+                        sent = true;
+                    } finally {
+                        if (!sent) {
+                            fail(url);
+                        }
+                    }
+                }, pause, TimeUnit.NANOSECONDS);
+            }
+
+            private void fail(String url) {
+                failed.add(url);
+                done.countDown();
+            }
+        };
+        try {
+            for (String url : urls) {
+                enqueue(url, 1, callback, requests);
+            }
+            done.await();
+        } finally {
+            retries.shutdownNow();
+        }
+    }
+
+    /** A url original vai como tag: é a chave do lote, mesmo que o OkHttp a normalize. */
+    private void enqueue(String url, int attempt, Callback callback, AtomicInteger requests) {
+        requests.incrementAndGet();
+        Request request = new Request.Builder()
+                .url(url)
+                .tag(String.class, url)
+                .tag(Integer.class, attempt)
+                .build();
+        client.newCall(request).enqueue(callback);
+    }
+
+    private static void putIfNotNull(Map<String, String> map, String key, String value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
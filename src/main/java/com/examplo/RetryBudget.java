@@ -0,0 +1,35 @@
+package com.examplo;
+
+/**
+ * Orçamento de novas tentativas: cada sucesso deposita uma fração de ficha e cada
+ * nova tentativa consome uma ficha inteira. Com o upstream fora do ar, as fichas
+ * acabam e as novas tentativas param de multiplicar a carga.
+ */
+public class RetryBudget {
+    private final double maxTokens;
+    private final double depositPerSuccess;
+    private double tokens;
+
+    public RetryBudget(double maxTokens, double depositPerSuccess) {
+        this.maxTokens = maxTokens;
+        this.depositPerSuccess = depositPerSuccess;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void recordSuccess() {
+        tokens = Math.min(maxTokens, tokens + depositPerSuccess);
+    }
+
+    /** Consome uma ficha se houver; retorna false quando o orçamento acabou. */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double tokens() {
+        return tokens;
+    }
+}
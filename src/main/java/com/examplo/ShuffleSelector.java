@@ -0,0 +1,53 @@
+package com.examplo;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Modo "sem repetição": cada ciclo de total dias percorre uma permutação de todos os ids,
+ * então nenhum Pokémon se repete até que todos tenham aparecido. A permutação de cada
+ * ciclo é derivada do número do ciclo e do sal, igual em todos os nós.
+ */
+public class ShuffleSelector implements PokemonSelector {
+    private final int total;
+    private final long salt;
+
+    private long cachedCycle = Long.MIN_VALUE;
+    private int[] cachedPermutation;
+
+    public ShuffleSelector(int total, String salt) {
+        if (total < 1) {
+            throw new IllegalArgumentException("Total de Pokémon deve ser positivo");
+        }
+        this.total = total;
+        this.salt = salt.hashCode();
+    }
+
+    @Override
+    public int select(LocalDate date) {
+        long day = date.toEpochDay();
+        long cycle = Math.floorDiv(day, (long) total);
+        int position = (int) Math.floorMod(day, (long) total);
+        return permutation(cycle)[position];
+    }
+
+    private synchronized int[] permutation(long cycle) {
+        if (cycle != cachedCycle) {
+            int[] ids = new int[total];
+            for (int i = 0; i < total; i++) {
+                ids[i] = i + 1;
+            }
+            // java.util.Random tem algoritmo especificado, então o embaralhamento é reproduzível
+            Random random = new Random(PokemonSelector.mix(cycle ^ (salt << 32)));
+            for (int i = total - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = ids[i];
+                ids[i] = ids[j];
+                ids[j] = tmp;
+            }
+            cachedPermutation = ids;
+            cachedCycle = cycle;
+        }
+        return cachedPermutation;
+    }
+}
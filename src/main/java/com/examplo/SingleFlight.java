@@ -0,0 +1,71 @@
+package com.examplo;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Agrupa chamadas concorrentes para a mesma chave: o primeiro chamador executa a carga
+ * e os demais esperam o mesmo futuro em andamento, recebendo o mesmo valor ou a mesma falha.
+ * O mapa de chamadas em andamento é um ConcurrentHashMap, sem trava global.
+ */
+public class SingleFlight<K, V> {
+
+    /** Carga que pode falhar com IOException. */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws IOException;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Loader<V> loader) throws IOException {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.load();
+            created.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            // a próxima chamada depois desta volta a buscar
+            inFlight.remove(key, created);
+        }
+    }
+
+    /** Quantidade de chaves com carga em andamento. */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Espera interrompida", e);
+        } catch (CancellationException e) {
+            throw new IOException("Busca cancelada", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.examplo;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.HashingSink;
+import okio.Okio;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sprites em disco, endereçados pelo conteúdo. O corpo da resposta vai do socket para um
+ * arquivo temporário em segmentos do Okio, passando por um {@link HashingSink} SHA-256:
+ * nenhuma imagem é montada inteira no heap, qualquer que seja o tamanho. O arquivo final
+ * se chama pelo hash, então imagens idênticas (formas, shiny iguais ao normal...) são
+ * guardadas uma única vez.
+ *
+ * Layout: blobs/ab/abcdef... com os bytes da imagem e urls/{sha256 da url} com o hash do
+ * blob e o Content-Type. Ambos são gravados por rename atômico, como no {@link PokemonCache}.
+ */
+public class SpriteStore {
+    /** Sprites buscados quando POKEMON_SPRITES não diz outra coisa. */
+    public static final List<String> SPRITES_PADRAO = Collections.unmodifiableList(
+            Arrays.asList("front_default", "other/official-artwork/front_default"));
+
+    private final Path blobs;
+    private final Path urls;
+    private final OkHttpClient client;
+    private final AtomicLong downloads = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    public SpriteStore(Path directory, OkHttpClient client) throws IOException {
+        this.blobs = Files.createDirectories(directory.resolve("blobs"));
+        this.urls = Files.createDirectories(directory.resolve("urls"));
+        this.client = client;
+    }
+
+    /** Diretório em POKEMON_SPRITE_DIR ou, por padrão, ao lado do cache de JSON. */
+    public static SpriteStore fromEnvironment(OkHttpClient client) throws IOException {
+        String dir = System.getenv("POKEMON_SPRITE_DIR");
+        Path path = dir != null && !dir.isEmpty()
+                ? Paths.get(dir)
+                : Paths.get(System.getProperty("user.home"), ".pokemon-do-dia", "sprites");
+        return new SpriteStore(path, client);
+    }
+
+    /** Chaves de {@link PokemonJsonExtractor#extractSprites} em POKEMON_SPRITES, separadas por vírgula. */
+    public static List<String> chosenFromEnvironment() {
+        String chosen = System.getenv("POKEMON_SPRITES");
+        if (chosen == null || chosen.isEmpty()) {
+            return SPRITES_PADRAO;
+        }
+        List<String> keys = new ArrayList<>();
+        for (String key : chosen.split(",")) {
+            if (!key.trim().isEmpty()) {
+                keys.add(key.trim());
+            }
+        }
+        return keys;
+    }
+
+    /** Um sprite guardado: o arquivo endereçado pelo conteúdo e o tipo informado pelo servidor. */
+    public static final class Sprite {
+        private final Path path;
+        private final String hash;
+        private final String contentType;
+
+        Sprite(Path path, String hash, String contentType) {
+            this.path = path;
+            this.hash = hash;
+            this.contentType = contentType;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        /** SHA-256 do conteúdo, em hexadecimal. */
+        public String hash() {
+            return hash;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    /** Sprite já guardado para a url, sem rede; null se ainda não foi baixado. */
+    public Sprite lookup(String url) throws IOException {
+        List<String> ref;
+        try {
+            ref = Files.readAllLines(urlFile(url), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (ref.isEmpty()) {
+            return null;
+        }
+        Path blob = blobFile(ref.get(0));
+        if (!Files.exists(blob)) {
+            return null;
+        }
+        return new Sprite(blob, ref.get(0), ref.size() > 1 ? ref.get(1) : "application/octet-stream");
+    }
+
+    /** Devolve o sprite do disco ou o baixa em streaming e guarda pelo hash do conteúdo. */
+    public Sprite fetch(String url) throws IOException {
+        Sprite stored = lookup(url);
+        if (stored != null) {
+            return stored;
+        }
+        Request request = new Request.Builder().url(url).build();
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("Falha ao baixar sprite (HTTP " + response.code() + "): " + url);
+            }
+            downloads.incrementAndGet();
+            MediaType mediaType = body.contentType();
+            String contentType = mediaType != null ? mediaType.toString() : "application/octet-stream";
+
+            Path temp = Files.createTempFile(blobs, "sprite.", ".tmp");
+            try {
+                HashingSink hashing = HashingSink.sha256(Okio.sink(temp));
+                try (BufferedSink sink = Okio.buffer(hashing)) {
+                    // writeAll move segmentos da fonte para o arquivo; o heap fica em poucos KB
+                    sink.writeAll(body.source());
+                }
+                String hash = hashing.hash().hex();
+                Path blob = blobFile(hash);
+                if (Files.exists(blob)) {
+                    deduplicated.incrementAndGet();
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    moveAtomically(temp, blob);
+                }
+                Path ref = Files.createTempFile(urls, "url.", ".tmp");
+                try {
+                    Files.write(ref, (hash + "\n" + contentType + "\n").getBytes(StandardCharsets.UTF_8));
+                    moveAtomically(ref, urlFile(url));
+                } finally {
+                    Files.deleteIfExists(ref);
+                }
+                return new Sprite(blob, hash, contentType);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /** Busca os sprites escolhidos de um payload; as chaves ausentes no payload são ignoradas. */
+    public List<Sprite> fetchAll(String pokemonData, List<String> chosen) throws IOException {
+        Map<String, String> sprites = PokemonJsonExtractor.extractSprites(pokemonData);
+        List<Sprite> stored = new ArrayList<>();
+        for (String key : chosen) {
+            String url = sprites.get(key);
+            if (url != null) {
+                stored.add(fetch(url));
+            }
+        }
+        return stored;
+    }
+
+    /** Respostas baixadas da rede. */
+    public long downloads() {
+        return downloads.get();
+    }
+
+    /** Downloads cujo conteúdo já estava guardado sob outra url. */
+    public long deduplicated() {
+        return deduplicated.get();
+    }
+
+    private Path blobFile(String hash) {
+        return blobs.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path urlFile(String url) {
+        return urls.resolve(ByteString.encodeUtf8(url).sha256().hex());
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
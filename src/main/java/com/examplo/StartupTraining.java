@@ -0,0 +1,87 @@
+package com.examplo;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Execução de treino (--train-cds) usada pelo build para gerar o arquivo AppCDS.
+ * Percorre os caminhos de inicialização — Pokédex binária, cache em disco, extração e
+ * formatação do JSON, cliente HTTP contra um servidor local — sem acessar a PokeAPI,
+ * para que as classes carregadas fiquem gravadas no arquivo.
+ */
+final class StartupTraining {
+    private static final String AMOSTRA = "{\"name\":\"bulbasaur\",\"height\":7,\"weight\":69,"
+            + "\"types\":[{\"slot\":1,\"type\":{\"name\":\"grass\",\"url\":\"\"}}],"
+            + "\"abilities\":[{\"ability\":{\"name\":\"overgrow\",\"url\":\"\"}}]}";
+
+    private StartupTraining() {
+    }
+
+    static void run() {
+        Path dir = null;
+        HttpServer server = null;
+        try {
+            dir = Files.createTempDirectory("pokemon-cds");
+
+            Path dexPath = dir.resolve("pokedex.bin");
+            PokedexFile.write(dexPath, CompactPokedex.fromJson(Collections.singletonMap(1, AMOSTRA)));
+            try (PokedexFile dex = PokedexFile.open(dexPath)) {
+                dex.format(1);
+            }
+            Path snapshotPath = dir.resolve("pokedex.snapshot");
+            PokedexSnapshot.write(snapshotPath, Collections.singletonMap(1, AMOSTRA));
+            PokedexSnapshot.readEntry(snapshotPath, 1);
+            PokemonDoDia.formatPokemonInfo(1, PokemonJsonExtractor.extract(AMOSTRA));
+
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/api/v2/pokemon/", exchange -> {
+                byte[] body = AMOSTRA.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v2/pokemon/";
+
+            OkHttpClient client = PokemonDoDia.httpClient();
+            PokemonCache cache = new PokemonCache(dir.resolve("cache"), Duration.ZERO, PokemonCache.TAMANHO_MAXIMO_PADRAO);
+            ResilientFetcher fetcher = ResilientFetcher.builder(client, baseUrl).cache(cache).build();
+            PokemonJsonExtractor.extract(fetcher.fetch(1));
+            PokemonDoDia.fetchPokemonData(2, client, baseUrl);
+            PokemonMetrics.global().getReport();
+            System.out.println("Treino do CDS concluído");
+        } catch (IOException | RuntimeException e) {
+            // um treino incompleto só deixa o arquivo menor; não deve quebrar o build
+            System.err.println("Treino do CDS incompleto: " + e.getMessage());
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+            if (dir != null) {
+                deleteRecursively(dir);
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            // diretório temporário; o sistema limpa depois
+        }
+    }
+}
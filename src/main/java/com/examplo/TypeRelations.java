@@ -0,0 +1,50 @@
+package com.examplo;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Relações de dano de um tipo (/type/{id}) do ponto de vista de quem defende. */
+public final class TypeRelations {
+    private final String name;
+    private final List<String> doubleDamageFrom;
+    private final List<String> halfDamageFrom;
+    private final List<String> noDamageFrom;
+
+    public TypeRelations(String name, List<String> doubleDamageFrom, List<String> halfDamageFrom,
+                         List<String> noDamageFrom) {
+        this.name = name;
+        this.doubleDamageFrom = Collections.unmodifiableList(doubleDamageFrom);
+        this.halfDamageFrom = Collections.unmodifiableList(halfDamageFrom);
+        this.noDamageFrom = Collections.unmodifiableList(noDamageFrom);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<String> doubleDamageFrom() {
+        return doubleDamageFrom;
+    }
+
+    public List<String> halfDamageFrom() {
+        return halfDamageFrom;
+    }
+
+    public List<String> noDamageFrom() {
+        return noDamageFrom;
+    }
+
+    /** Multiplicador de dano que um ataque do tipo informado causa a este tipo. */
+    public double multiplierFrom(String attackingType) {
+        if (noDamageFrom.contains(attackingType)) {
+            return 0;
+        }
+        if (doubleDamageFrom.contains(attackingType)) {
+            return 2;
+        }
+        if (halfDamageFrom.contains(attackingType)) {
+            return 0.5;
+        }
+        return 1;
+    }
+}
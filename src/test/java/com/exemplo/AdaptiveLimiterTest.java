@@ -0,0 +1,111 @@
+package com.exemplo;
+
+import com.examplo.AdaptiveLimiter;
+import com.examplo.PokemonMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimiterTest {
+
+    private static final long UM_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("1. O limite deve crescer aos poucos e cair pela metade com 429")
+    void testAdditiveIncreaseMultiplicativeDecrease() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 10, 0, 0);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.acquire();
+            limiter.onSuccess(UM_MS);
+        }
+        assertEquals(10, limiter.limit());
+
+        limiter.acquire();
+        limiter.onThrottled(0);
+        assertEquals(5, limiter.limit());
+        assertEquals(1, limiter.throttled());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("2. Latência subindo deve reduzir o limite")
+    void testLatencyIncreaseDecreasesLimit() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(8, 1, 16, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.onSuccess(UM_MS);
+        }
+        int antes = limiter.limit();
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.onSuccess(100 * UM_MS);
+        }
+
+        assertTrue(limiter.limit() < antes, "limite " + limiter.limit() + " não caiu de " + antes);
+    }
+
+    @Test
+    @DisplayName("3. O balde de fichas deve limitar a taxa de requisições")
+    void testTokenBucketRate() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 10, 50, 1);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire();
+            limiter.onSuccess(UM_MS);
+        }
+        long decorrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // 1 ficha de rajada + 10 a 50/s
+        assertTrue(decorrido >= 180, "demorou só " + decorrido + " ms");
+    }
+
+    @Test
+    @DisplayName("4. Retry-After deve pausar novas requisições")
+    void testRetryAfterPauses() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 4, 0, 0);
+        limiter.acquire();
+        limiter.onThrottled(TimeUnit.MILLISECONDS.toNanos(300));
+
+        long inicio = System.nanoTime();
+        limiter.acquire();
+        long decorrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertTrue(decorrido >= 250, "demorou só " + decorrido + " ms");
+    }
+
+    @Test
+    @DisplayName("5. Sem vaga, acquire deve esperar e os medidores devem refletir a fila")
+    void testBlocksAtLimitAndExposesGauges() throws InterruptedException {
+        AdaptiveLimiter limiter = AdaptiveLimiter.fixed(1);
+        PokemonMetrics metrics = new PokemonMetrics();
+        limiter.registerGauges(metrics);
+        limiter.acquire();
+
+        CountDownLatch liberado = new CountDownLatch(1);
+        Thread outra = new Thread(() -> {
+            try {
+                limiter.acquire();
+                liberado.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        outra.start();
+
+        assertFalse(liberado.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1.0, metrics.gauge("limiter.waiting"));
+        assertEquals(1.0, metrics.gauge("limiter.inFlight"));
+        limiter.onSuccess(UM_MS);
+        assertTrue(liberado.await(1, TimeUnit.SECONDS));
+        assertEquals(1.0, metrics.gauge("limiter.limit"));
+        assertTrue(metrics.getReport().contains("limiter.limit"));
+        outra.join();
+    }
+}
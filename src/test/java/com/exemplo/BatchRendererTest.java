@@ -0,0 +1,328 @@
+package com.exemplo;
+
+import com.examplo.BatchRenderer;
+import com.examplo.CompactPokedex;
+import com.examplo.PokedexFile;
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonInfo;
+import com.examplo.PokemonJsonExtractor;
+import com.examplo.RecordTemplate;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRendererTest {
+
+    @TempDir
+    Path dir;
+
+    /** Canal que descarta os bytes, sem alocar nada na escrita. */
+    static final class DiscardChannel implements WritableByteChannel {
+        long bytes;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            bytes += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static String payload(int id) {
+        return PokeApiFixtures.payload(id, "pokemon-" + id, 5 + id, 40 + id * 3,
+                id % 2 == 0 ? new String[]{"fire"} : new String[]{"grass", "poison"}, new String[]{"overgrow"}, 1);
+    }
+
+    private static String texto(ByteArrayOutputStream saida) {
+        return new String(saida.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static long linhas(ByteArrayOutputStream saida) {
+        return texto(saida).chars().filter(c -> c == '\n').count();
+    }
+
+    @Test
+    @DisplayName("1. O formato texto deve ser o de formatPokemonData, lido da Pokédex binária")
+    void testTextFromPokedexFile() throws IOException {
+        CompactPokedex dex = new CompactPokedex(10);
+        for (int id = 1; id <= 3; id++) {
+            dex.put(id, PokemonJsonExtractor.extract(payload(id)));
+        }
+        Path arquivo = dir.resolve("pokedex.bin");
+        PokedexFile.write(arquivo, dex);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        BatchRenderer.Report relatorio;
+        try (PokedexFile file = PokedexFile.open(arquivo)) {
+            relatorio = new BatchRenderer(Channels.newChannel(saida), BatchRenderer.Format.TEXT)
+                    .render(new int[]{3, 1, 7}, file);
+        }
+
+        assertEquals(2, relatorio.written());
+        assertEquals(Collections.singletonList(7), relatorio.failedIds());
+        assertEquals(PokemonDoDia.formatPokemonData(3, payload(3)) + "\n\n"
+                + PokemonDoDia.formatPokemonData(1, payload(1)) + "\n\n", texto(saida));
+    }
+
+    @Test
+    @DisplayName("2. JSON Lines e CSV devem escapar os textos")
+    void testJsonLinesAndCsv() throws IOException, InterruptedException {
+        PokemonInfo estranho = new PokemonInfo("mr. \"mime\", o \\ palhaço", 13, 545,
+                Arrays.asList("psychic", "fairy"), Arrays.asList("filter", "soundproof"));
+
+        ByteArrayOutputStream jsonl = new ByteArrayOutputStream();
+        BatchRenderer json = new BatchRenderer(Channels.newChannel(jsonl), BatchRenderer.Format.JSONL);
+        json.write(122, estranho);
+        json.flush();
+        String linha = texto(jsonl);
+        assertTrue(linha.endsWith("}\n"));
+        JsonObject objeto = JsonParser.parseString(linha).getAsJsonObject();
+        assertEquals(122, objeto.get("id").getAsInt());
+        assertEquals("mr. \"mime\", o \\ palhaço", objeto.get("name").getAsString());
+        assertEquals("fairy", objeto.getAsJsonArray("types").get(1).getAsString());
+        assertEquals(545, objeto.get("weight").getAsInt());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        BatchRenderer renderer = new BatchRenderer(Channels.newChannel(csv), BatchRenderer.Format.CSV);
+        renderer.render(new int[]{122}, id -> "{\"name\":\"mr. \\\"mime\\\", o\",\"height\":13,\"weight\":545,"
+                + "\"types\":[{\"type\":{\"name\":\"psychic\"}},{\"type\":{\"name\":\"fairy\"}}]}", 1, BatchRenderer.Order.INPUT);
+        assertEquals(RecordTemplate.CSV_HEADER + "\n122,\"mr. \"\"mime\"\", o\",psychic|fairy,,13,545\n", texto(csv));
+    }
+
+    @Test
+    @DisplayName("3. A ordem de entrada deve ser mantida mesmo quando os registros chegam fora dela")
+    void testInputAndArrivalOrder() throws Exception {
+        int[] ids = {1, 2, 3, 4};
+        for (BatchRenderer.Order ordem : BatchRenderer.Order.values()) {
+            // o id 1 só termina depois de todos os outros
+            CountDownLatch outros = new CountDownLatch(3);
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            BatchRenderer.Report relatorio = new BatchRenderer(Channels.newChannel(saida), BatchRenderer.Format.JSONL)
+                    .render(ids, id -> {
+                        if (id == 1) {
+                            try {
+                                assertTrue(outros.await(5, TimeUnit.SECONDS));
+                                // na ordem de chegada, espera os outros dois saírem no canal
+                                long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                                while (ordem == BatchRenderer.Order.ARRIVAL && linhas(saida) < 2) {
+                                    assertTrue(System.nanoTime() < limite);
+                                    Thread.sleep(5);
+                                }
+                            } catch (InterruptedException e) {
+                                throw new IOException(e);
+                            }
+                        } else {
+                            outros.countDown();
+                        }
+                        if (id == 3) {
+                            throw new IOException("falha simulada");
+                        }
+                        return payload(id);
+                    }, 4, ordem);
+
+            String[] linhas = texto(saida).split("\n");
+            assertEquals(3, relatorio.written());
+            assertEquals(Collections.singletonList(3), relatorio.failedIds());
+            assertEquals(3, linhas.length);
+            if (ordem == BatchRenderer.Order.INPUT) {
+                assertTrue(linhas[0].startsWith("{\"id\":1,"));
+                assertTrue(linhas[1].startsWith("{\"id\":2,"));
+                assertTrue(linhas[2].startsWith("{\"id\":4,"));
+            } else {
+                assertTrue(linhas[2].startsWith("{\"id\":1,"), linhas[2]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("4. Cada registro pronto deve chegar ao canal sem esperar o lote inteiro")
+    void testStreamsAsRecordsAreReady() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        WritableByteChannel canal = Channels.newChannel(saida);
+        CountDownLatch primeiroEscrito = new CountDownLatch(1);
+        WritableByteChannel observado = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                int n = canal.write(src);
+                primeiroEscrito.countDown();
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        BatchRenderer.Report relatorio = new BatchRenderer(observado, BatchRenderer.Format.TEXT)
+                .render(new int[]{1, 2}, id -> {
+                    // o segundo só responde depois que o primeiro já saiu no canal
+                    try {
+                        if (id == 2 && !primeiroEscrito.await(5, TimeUnit.SECONDS)) {
+                            throw new IOException("o primeiro registro não foi escrito");
+                        }
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return payload(id);
+                }, 1, BatchRenderer.Order.INPUT);
+
+        assertTrue(relatorio.failedIds().isEmpty());
+        assertEquals(2, relatorio.written());
+    }
+
+    @Test
+    @DisplayName("5. Renderizar um registro não deve alocar memória em regime")
+    void testNearZeroAllocationPerRecord() throws IOException {
+        PokemonInfo info = new PokemonInfo("charizard", 17, 905, Arrays.asList("fire", "flying"),
+                Arrays.asList("blaze", "solar-power"));
+        DiscardChannel canal = new DiscardChannel();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (BatchRenderer.Format formato : BatchRenderer.Format.values()) {
+            BatchRenderer renderer = new BatchRenderer(canal, formato);
+            for (int i = 0; i < 20_000; i++) {
+                renderer.write(i, info);
+            }
+
+            long antes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            for (int i = 0; i < 100_000; i++) {
+                renderer.write(i, info);
+            }
+            renderer.flush();
+            long alocado = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - antes;
+
+            assertTrue(alocado < 100_000, formato + " alocou " + alocado + " bytes em 100 mil registros");
+        }
+        assertTrue(canal.bytes > 0);
+    }
+
+    @Test
+    @DisplayName("6. Ids e modelos inválidos devem ser rejeitados")
+    void testParseIdsAndTemplates() {
+        assertArrayEquals(new int[]{1, 2, 3, 25, 150, 151}, BatchRenderer.parseIds("1-3, 25,150-151"));
+        assertArrayEquals(new int[]{7}, BatchRenderer.parseIds("7"));
+        assertThrows(IllegalArgumentException.class, () -> BatchRenderer.parseIds("5-1"));
+        assertThrows(IllegalArgumentException.class, () -> BatchRenderer.parseIds("a-b"));
+        assertThrows(IllegalArgumentException.class, () -> BatchRenderer.Format.parse("xml"));
+        assertThrows(IllegalArgumentException.class, () -> RecordTemplate.compile("{cor}", RecordTemplate.Escape.NONE));
+
+        RecordTemplate modelo = RecordTemplate.compile("#{id} {name} [{types}] {}", RecordTemplate.Escape.NONE);
+        assertEquals("#6 charizard [fire, flying] {}", modelo.render(6, new PokemonInfo("charizard", 17, 905,
+                Arrays.asList("fire", "flying"), Collections.singletonList("blaze"))));
+    }
+
+    @Test
+    @DisplayName("7. Com a Pokédex cobrindo parte dos ids, só os ausentes devem ser buscados")
+    void testPartialPokedexFetchesOnlyMissing() throws Exception {
+        CompactPokedex dex = new CompactPokedex(10);
+        for (int id = 1; id <= 3; id++) {
+            dex.put(id, PokemonJsonExtractor.extract(payload(id)));
+        }
+        Path arquivo = dir.resolve("pokedex.bin");
+        PokedexFile.write(arquivo, dex);
+
+        for (BatchRenderer.Order ordem : BatchRenderer.Order.values()) {
+            List<Integer> buscados = new CopyOnWriteArrayList<>();
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            BatchRenderer.Report relatorio;
+            try (PokedexFile file = PokedexFile.open(arquivo)) {
+                relatorio = new BatchRenderer(Channels.newChannel(saida), BatchRenderer.Format.TEXT)
+                        .render(new int[]{3, 9, 1, 8}, file, id -> {
+                            buscados.add(id);
+                            if (id == 8) {
+                                throw new IOException("fora do ar");
+                            }
+                            return payload(id);
+                        }, 2, ordem);
+            }
+
+            Collections.sort(buscados);
+            assertEquals(Arrays.asList(8, 9), buscados);
+            assertEquals(3, relatorio.written());
+            assertEquals(Collections.singletonList(8), relatorio.failedIds());
+            if (ordem == BatchRenderer.Order.INPUT) {
+                assertEquals(PokemonDoDia.formatPokemonData(3, payload(3)) + "\n\n"
+                        + PokemonDoDia.formatPokemonData(9, payload(9)) + "\n\n"
+                        + PokemonDoDia.formatPokemonData(1, payload(1)) + "\n\n", texto(saida));
+            } else {
+                assertTrue(texto(saida).startsWith(PokemonDoDia.formatPokemonData(3, payload(3)) + "\n\n"
+                        + PokemonDoDia.formatPokemonData(1, payload(1)) + "\n\n"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("8. Um Error na busca deve falhar o id sem travar a renderização")
+    void testErrorInWorkerDoesNotHang() {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        BatchRenderer renderer = new BatchRenderer(Channels.newChannel(saida), BatchRenderer.Format.JSONL);
+
+        BatchRenderer.Report relatorio = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> renderer.render(new int[]{1, 2, 3}, id -> {
+                    if (id == 2) {
+                        throw new AssertionError("erro simulado");
+                    }
+                    return payload(id);
+                }, 2, BatchRenderer.Order.INPUT));
+
+        assertEquals(2, relatorio.written());
+        assertEquals(Collections.singletonList(2), relatorio.failedIds());
+    }
+
+    @Test
+    @DisplayName("9. Ids repetidos no lote devem ser buscados uma vez só")
+    void testDuplicateIdsFetchedOnce() throws Exception {
+        List<Integer> buscados = new CopyOnWriteArrayList<>();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        BatchRenderer.Report relatorio = new BatchRenderer(Channels.newChannel(saida), BatchRenderer.Format.JSONL)
+                .render(new int[]{5, 5, 6, 5, 6}, id -> {
+                    buscados.add(id);
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return payload(id);
+                }, 5, BatchRenderer.Order.INPUT);
+
+        Collections.sort(buscados);
+        assertEquals(Arrays.asList(5, 6), buscados);
+        assertEquals(5, relatorio.written());
+        assertEquals(5, linhas(saida));
+    }
+}
@@ -0,0 +1,103 @@
+package com.exemplo;
+
+import com.examplo.CoalescingFetcher;
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonFetcher;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingFetcherTest {
+
+    private static final int THREADS = 50;
+    private static final String JSON_PIKACHU = "{\"name\":\"pikachu\",\"height\":4,\"weight\":60,\"types\":[{\"type\":{\"name\":\"electric\"}}]}";
+
+    private MockWebServer server;
+    private CoalescingFetcher fetcher;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        OkHttpClient client = new OkHttpClient();
+        String baseUrl = server.url("/api/v2/pokemon/").toString();
+        PokemonFetcher http = id -> PokemonDoDia.fetchPokemonData(id, client, baseUrl);
+        fetcher = new CoalescingFetcher(http);
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdownNow();
+        server.shutdown();
+    }
+
+    private List<Future<String>> herd(int id) {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Callable<String> task = () -> {
+                largada.await();
+                return fetcher.fetch(id);
+            };
+            results.add(pool.submit(task));
+        }
+        largada.countDown();
+        return results;
+    }
+
+    @Test
+    @DisplayName("1. Uma manada de chamadas para o mesmo id deve gerar uma única requisição")
+    void testThunderingHerdSingleRequest() throws Exception {
+        server.enqueue(new MockResponse().setBody(JSON_PIKACHU).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        for (Future<String> result : herd(25)) {
+            assertEquals(JSON_PIKACHU, result.get());
+        }
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("2. A falha deve ser propagada para todos os que esperam")
+    void testFailurePropagatesToWaiters() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        for (Future<String> result : herd(25)) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertTrue(e.getCause() instanceof IOException);
+            assertTrue(e.getCause().getMessage().contains("503"));
+        }
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("3. Depois de concluída, uma nova chamada deve buscar de novo")
+    void testNewCallAfterCompletion() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody(JSON_PIKACHU));
+
+        assertThrows(IOException.class, () -> fetcher.fetch(25));
+        assertEquals(JSON_PIKACHU, fetcher.fetch(25));
+        assertEquals(2, server.getRequestCount());
+    }
+}
@@ -0,0 +1,103 @@
+package com.exemplo;
+
+import com.examplo.CompactPokedex;
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonInfo;
+import com.examplo.PokemonJsonExtractor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactPokedexTest {
+
+    private static final String[] TIPOS = {"normal", "fighting", "flying", "poison", "ground", "rock", "bug",
+            "ghost", "steel", "fire", "water", "grass", "electric", "psychic", "ice", "dragon", "dark", "fairy"};
+
+    /** Pokédex cheia com nomes, tipos e habilidades variados. */
+    static CompactPokedex fullDex() {
+        CompactPokedex dex = new CompactPokedex(1025);
+        for (int id = 1; id <= 1025; id++) {
+            dex.put(id, new PokemonInfo("pokemon-numero-" + id, id % 200 + 1, id * 3 % 9999 + 1,
+                    Arrays.asList(TIPOS[id % TIPOS.length], TIPOS[(id * 7) % TIPOS.length]),
+                    Arrays.asList("habilidade-" + id % 300, "oculta-" + id % 50)));
+        }
+        return dex;
+    }
+
+    @Test
+    @DisplayName("1. A formatação deve ser idêntica à de formatPokemonData")
+    void testFormatMatchesFormatPokemonData() {
+        CompactPokedex dex = new CompactPokedex(151);
+        String[] payloads = {PokeApiFixtures.bulbasaur(), PokeApiFixtures.ditto(), PokeApiFixtures.mew()};
+        int[] ids = {1, 132, 151};
+        for (int i = 0; i < ids.length; i++) {
+            dex.put(ids[i], PokemonJsonExtractor.extract(payloads[i]));
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(PokemonDoDia.formatPokemonData(ids[i], payloads[i]), dex.format(ids[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("2. Deve reconstruir os campos guardados")
+    void testRoundTrip() {
+        CompactPokedex dex = new CompactPokedex(10);
+        dex.put(6, new PokemonInfo("charizard", 17, 905, Arrays.asList("fire", "flying"),
+                Arrays.asList("blaze", "solar-power")));
+
+        PokemonInfo info = dex.get(6);
+        assertEquals("charizard", info.name());
+        assertEquals(17, info.height());
+        assertEquals(905, info.weight());
+        assertEquals(Arrays.asList("fire", "flying"), info.types());
+        assertEquals(Arrays.asList("blaze", "solar-power"), info.abilities());
+        assertFalse(dex.contains(5));
+        assertThrows(IllegalArgumentException.class, () -> dex.format(5));
+    }
+
+    @Test
+    @DisplayName("3. Tipos repetidos devem compartilhar o mesmo código do dicionário")
+    void testDictionaryEncoding() {
+        CompactPokedex dex = fullDex();
+
+        assertEquals(TIPOS.length, dex.typeCount());
+        assertEquals(dex.typeCode(10, 0), dex.typeCode(10 + TIPOS.length, 0));
+        assertEquals(TIPOS[10 % TIPOS.length], dex.typeName(dex.typeCode(10, 0)));
+    }
+
+    @Test
+    @DisplayName("4. A Pokédex inteira deve ocupar bem menos de 1 MB")
+    void testFullDexFootprint() {
+        CompactPokedex dex = fullDex();
+
+        assertEquals(1025, dex.size());
+        assertTrue(dex.estimatedBytes() < 256 * 1024, "bytes=" + dex.estimatedBytes());
+    }
+
+    @Test
+    @DisplayName("5. Deve rejeitar Pokémon com tipos demais")
+    void testTooManyTypes() {
+        CompactPokedex dex = new CompactPokedex(1);
+        PokemonInfo info = new PokemonInfo("x", 1, 1, Arrays.asList("a", "b", "c"), Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> dex.put(1, info));
+    }
+
+    @Test
+    @DisplayName("6. Um id repetido deve ser rejeitado sem alterar o registro guardado")
+    void testDuplicateIdRejected() {
+        CompactPokedex dex = new CompactPokedex(10);
+        dex.put(6, new PokemonInfo("charizard", 17, 905, Arrays.asList("fire", "flying"),
+                Collections.singletonList("blaze")));
+
+        assertThrows(IllegalArgumentException.class, () -> dex.put(6, new PokemonInfo("outro", 1, 1,
+                Collections.singletonList("normal"), Collections.emptyList())));
+        assertEquals("charizard", dex.name(6));
+        assertEquals(1, dex.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.exemplo;
+
+import com.examplo.PokedexFile;
+import com.examplo.PokemonDoDia;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastStartTest {
+
+    @TempDir
+    Path dir;
+
+    /** Roda a CLI numa JVM separada com -verbose:class e devolve a saída. */
+    private String runCli(Path dex, String... args) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        // a saída da filha vem em UTF-8 qualquer que seja o locale, e é lida com o mesmo charset
+        String[] command = new String[8 + args.length];
+        command[0] = java;
+        command[1] = "-verbose:class";
+        command[2] = "-Dfile.encoding=UTF-8";
+        command[3] = "-Dsun.stdout.encoding=UTF-8";
+        command[4] = "-Dsun.stderr.encoding=UTF-8";
+        command[5] = "-cp";
+        command[6] = System.getProperty("java.class.path");
+        command[7] = PokemonDoDia.class.getName();
+        System.arraycopy(args, 0, command, 8, args.length);
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        builder.environment().remove("JAVA_TOOL_OPTIONS");
+        builder.environment().put("POKEMON_DEX_FILE", dex.toString());
+        builder.environment().put("POKEMON_CACHE_DIR", dir.resolve("cache").toString());
+        builder.environment().put("POKEMON_SNAPSHOT", dir.resolve("nao-existe.snapshot").toString());
+        Process process = builder.start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+        return output;
+    }
+
+    @Test
+    @DisplayName("1. Com a Pokédex local, a CLI não deve carregar OkHttp nem Gson")
+    void testLocalDexSkipsHttpAndGson() throws Exception {
+        Path dex = dir.resolve("pokedex.bin");
+        PokedexFile.write(dex, CompactPokedexTest.fullDex());
+
+        String output = runCli(dex);
+
+        assertTrue(output.contains("=== POKÉMON DO DIA ==="), output);
+        // o verificador de bytecode pode carregar a classe OkHttpClient (sem inicializá-la),
+        // mas nada do motor do OkHttp, do Okio ou do Kotlin
+        assertFalse(output.contains("okhttp3.internal."), "OkHttp foi inicializado");
+        assertFalse(output.contains("okio."), "Okio foi carregado");
+        assertFalse(output.contains("kotlin."), "Kotlin foi carregado");
+        assertFalse(output.contains("com.google.gson."), "Gson foi carregado");
+    }
+
+    @Test
+    @DisplayName("2. O treino do CDS deve rodar sem rede")
+    void testCdsTrainingRunsOffline() throws Exception {
+        String output = runCli(dir.resolve("nao-existe.bin"), "--train-cds");
+
+        assertTrue(output.contains("Treino do CDS concluído"), output);
+        assertTrue(output.contains("okhttp3.OkHttpClient"));
+    }
+}
@@ -0,0 +1,285 @@
+package com.exemplo;
+
+import com.examplo.IncrementalSync;
+import com.examplo.PokedexFile;
+import com.examplo.PokedexManifest;
+import com.examplo.PokedexSnapshot;
+import com.examplo.PokedexSync;
+import com.examplo.PokemonListing;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalSyncTest {
+
+    /** A PokeAPI real aceita limit alto; aqui as páginas são cortadas para exercitar o next. */
+    private static final int PAGINA_MAXIMA = 25;
+
+    @TempDir
+    Path dir;
+
+    private MockWebServer server;
+    private String baseUrl;
+    private OkHttpClient client;
+    private final Map<Integer, String> nomes = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> versoes = new ConcurrentHashMap<>();
+    private final Set<Integer> falhando = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> quebrados = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int id = 1; id <= 60; id++) {
+            nomes.put(id, "pokemon-" + id);
+        }
+        nomes.put(10001, "forma-alternativa");
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                HttpUrl url = request.getRequestUrl();
+                String id = url.pathSegments().get(url.pathSize() - 1);
+                if (id.isEmpty()) {
+                    return lista(request, url);
+                }
+                return pokemon(request, Integer.parseInt(id));
+            }
+        });
+        server.start();
+        baseUrl = server.url("/api/v2/pokemon/").toString();
+        client = new OkHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse lista(RecordedRequest request, HttpUrl url) {
+        Map<Integer, String> ordenados = new TreeMap<>(nomes);
+        String etag = "\"lista-" + ordenados.hashCode() + "\"";
+        if (etag.equals(request.getHeader("If-None-Match"))) {
+            return new MockResponse().setResponseCode(304);
+        }
+        int limit = Math.min(Integer.parseInt(url.queryParameter("limit")), PAGINA_MAXIMA);
+        int offset = Integer.parseInt(url.queryParameter("offset"));
+        StringBuilder json = new StringBuilder("{\"count\":").append(ordenados.size()).append(",\"next\":");
+        if (offset + limit < ordenados.size()) {
+            json.append('"').append(url.newBuilder()
+                    .setQueryParameter("offset", Integer.toString(offset + limit))
+                    .setQueryParameter("limit", Integer.toString(limit)).build()).append('"');
+        } else {
+            json.append("null");
+        }
+        json.append(",\"previous\":null,\"results\":[");
+        int i = 0;
+        for (Map.Entry<Integer, String> entry : ordenados.entrySet()) {
+            if (i >= offset && i < offset + limit) {
+                if (i > offset) {
+                    json.append(',');
+                }
+                json.append("{\"name\":\"").append(entry.getValue()).append("\",\"url\":\"")
+                        .append(baseUrl).append(entry.getKey()).append("/\"}");
+            }
+            i++;
+        }
+        json.append("]}");
+        return new MockResponse().setBody(json.toString()).setHeader("ETag", etag);
+    }
+
+    private MockResponse pokemon(RecordedRequest request, int id) {
+        if (falhando.contains(id)) {
+            return new MockResponse().setResponseCode(500);
+        }
+        String etag = "\"" + id + "-v" + versoes.getOrDefault(id, 1) + "\"";
+        if (etag.equals(request.getHeader("If-None-Match"))) {
+            return new MockResponse().setResponseCode(304);
+        }
+        if (quebrados.contains(id)) {
+            return new MockResponse().setBody("{\"name\":\"quebrado\"").setHeader("ETag", etag);
+        }
+        String body = PokeApiFixtures.payload(id, nomes.get(id), 7, 69,
+                new String[]{"grass"}, new String[]{"overgrow"}, 1);
+        return new MockResponse().setBody(body).setHeader("ETag", etag);
+    }
+
+    private IncrementalSync.Report sincronizar(boolean revalidate) throws Exception {
+        PokedexSync sync = new PokedexSync(client, baseUrl, 8, 3);
+        try {
+            return new IncrementalSync(client, baseUrl, sync).run(
+                    dir.resolve("pokedex.snapshot"), dir.resolve("pokedex.manifest"), dir.resolve("pokedex.bin"), revalidate);
+        } finally {
+            sync.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("1. A primeira sincronização deve descobrir a lista paginada e ignorar formas alternativas")
+    void testFirstSyncDiscoversList() throws Exception {
+        IncrementalSync.Report report = sincronizar(false);
+
+        assertEquals(60, report.count());
+        assertEquals(60, report.added().size());
+        // sondagem + 3 páginas de até 25
+        assertEquals(4, report.listRequests());
+        assertEquals(4 + 60, server.getRequestCount());
+
+        PokedexSnapshot snapshot = PokedexSnapshot.read(dir.resolve("pokedex.snapshot"));
+        assertEquals(60, snapshot.size());
+        assertNull(snapshot.get(10001));
+        try (PokedexFile dex = PokedexFile.open(dir.resolve("pokedex.bin"))) {
+            assertEquals(60, dex.maxId());
+            assertEquals("pokemon-42", dex.name(42));
+        }
+        PokedexManifest manifest = PokedexManifest.readIfExists(dir.resolve("pokedex.manifest"));
+        assertEquals(61, manifest.count());
+        assertEquals(60, manifest.dexCount());
+        assertEquals("\"42-v1\"", manifest.validators(42).etag());
+    }
+
+    @Test
+    @DisplayName("2. Sem mudanças, a sincronização deve custar só duas requisições pequenas")
+    void testUnchangedCostsTwoRequests() throws Exception {
+        sincronizar(false);
+        int antes = server.getRequestCount();
+
+        IncrementalSync.Report report = sincronizar(false);
+
+        assertTrue(report.unchanged());
+        assertEquals(2, server.getRequestCount() - antes);
+        assertEquals(60, report.count());
+    }
+
+    @Test
+    @DisplayName("3. Uma nova geração deve buscar só os ids novos")
+    void testNewGenerationFetchesOnlyNewIds() throws Exception {
+        sincronizar(false);
+        for (int id = 61; id <= 65; id++) {
+            nomes.put(id, "novo-" + id);
+        }
+        int antes = server.getRequestCount();
+
+        IncrementalSync.Report report = sincronizar(false);
+
+        assertEquals(Arrays.asList(61, 62, 63, 64, 65), report.added());
+        assertTrue(report.changed().isEmpty());
+        assertEquals(report.listRequests() + 5, server.getRequestCount() - antes);
+        try (PokedexFile dex = PokedexFile.open(dir.resolve("pokedex.bin"))) {
+            assertEquals(65, dex.maxId());
+            assertEquals("novo-63", dex.name(63));
+            assertEquals("pokemon-1", dex.name(1));
+        }
+    }
+
+    @Test
+    @DisplayName("4. Um id renomeado deve ser buscado de novo com requisição condicional")
+    void testRenamedIdIsRefetchedConditionally() throws Exception {
+        sincronizar(false);
+        nomes.put(10, "renomeado");
+        versoes.put(10, 2);
+        nomes.remove(60);
+
+        IncrementalSync.Report report = sincronizar(false);
+
+        assertEquals(Collections.singletonList(10), report.changed());
+        assertEquals(Collections.singletonList(60), report.removed());
+        RecordedRequest ultima = null;
+        for (int i = server.getRequestCount(); i > 0; i--) {
+            ultima = server.takeRequest();
+        }
+        assertEquals("/api/v2/pokemon/10", ultima.getPath());
+        assertEquals("\"10-v1\"", ultima.getHeader("If-None-Match"));
+        PokedexSnapshot snapshot = PokedexSnapshot.read(dir.resolve("pokedex.snapshot"));
+        assertEquals(59, snapshot.size());
+        assertTrue(snapshot.get(10).contains("\"renomeado\""));
+    }
+
+    @Test
+    @DisplayName("5. Um id alterado cuja busca falhou deve ser tentado de novo na sincronização seguinte")
+    void testFailedChangedIdIsRetried() throws Exception {
+        sincronizar(false);
+        nomes.put(10, "renomeado");
+        versoes.put(10, 2);
+        falhando.add(10);
+
+        IncrementalSync.Report report = sincronizar(false);
+
+        assertEquals(Collections.singletonList(10), report.fetched().failedIds());
+        assertEquals("pokemon-10", PokedexManifest.readIfExists(dir.resolve("pokedex.manifest")).name(10));
+
+        falhando.clear();
+        report = sincronizar(false);
+
+        assertEquals(Collections.singletonList(10), report.changed());
+        assertTrue(PokedexSnapshot.read(dir.resolve("pokedex.snapshot")).get(10).contains("\"renomeado\""));
+        assertEquals("renomeado", PokedexManifest.readIfExists(dir.resolve("pokedex.manifest")).name(10));
+    }
+
+    @Test
+    @DisplayName("6. A revalidação deve pedir todos os ids de forma condicional")
+    void testRevalidateUsesConditionalRequests() throws Exception {
+        sincronizar(false);
+        versoes.put(7, 2);
+
+        IncrementalSync.Report report = sincronizar(true);
+
+        assertEquals(59, report.fetched().notModifiedIds().size());
+        assertEquals(Collections.singleton(7), report.fetched().entries().keySet());
+        assertEquals("\"7-v2\"", PokedexManifest.readIfExists(dir.resolve("pokedex.manifest")).validators(7).etag());
+    }
+
+    @Test
+    @DisplayName("7. Um payload ilegível deve ficar fora do snapshot, da Pokédex e do manifesto")
+    void testInvalidPayloadIsSkipped() throws Exception {
+        quebrados.add(30);
+
+        IncrementalSync.Report report = sincronizar(false);
+
+        assertEquals(Collections.singletonList(30), report.invalidIds());
+        assertEquals(60, PokedexManifest.readIfExists(dir.resolve("pokedex.manifest")).dexCount());
+        assertEquals(Collections.singletonList(30), report.failedIds());
+        assertNull(PokedexSnapshot.read(dir.resolve("pokedex.snapshot")).get(30));
+        try (PokedexFile dex = PokedexFile.open(dir.resolve("pokedex.bin"))) {
+            assertFalse(dex.contains(30));
+            assertEquals("pokemon-31", dex.name(31));
+        }
+        PokedexManifest manifest = PokedexManifest.readIfExists(dir.resolve("pokedex.manifest"));
+        assertNull(manifest.name(30));
+        assertNull(manifest.listEtag());
+
+        quebrados.clear();
+        report = sincronizar(false);
+
+        assertEquals(Collections.singletonList(30), report.added());
+        assertTrue(PokedexSnapshot.read(dir.resolve("pokedex.snapshot")).get(30).contains("\"pokemon-30\""));
+    }
+
+    @Test
+    @DisplayName("8. O id deve ser extraído da url do recurso")
+    void testListingParse() {
+        PokemonListing listing = PokemonListing.parse("{\"count\":1302,\"next\":null,\"results\":["
+                + "{\"name\":\"pikachu\",\"url\":\"https://pokeapi.co/api/v2/pokemon/25/\"}]}");
+
+        assertEquals(1302, listing.count());
+        assertNull(listing.next());
+        assertEquals("pikachu", listing.names().get(25));
+    }
+}
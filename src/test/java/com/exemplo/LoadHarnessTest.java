@@ -0,0 +1,134 @@
+package com.exemplo;
+
+import com.examplo.PokemonCache;
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonJsonExtractor;
+import com.examplo.ResilientFetcher;
+import com.exemplo.load.LoadGenerator;
+import com.exemplo.load.LoadReport;
+import com.exemplo.load.PokeApiStandIn;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadHarnessTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private static LoadReport relatorio(double vazao, double p50, double p99, long erros) {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("requests", "1000");
+        propriedades.setProperty("errors", Long.toString(erros));
+        propriedades.setProperty("throughput", Double.toString(vazao));
+        propriedades.setProperty("p50Millis", Double.toString(p50));
+        propriedades.setProperty("p99Millis", Double.toString(p99));
+        return LoadReport.fromProperties(propriedades);
+    }
+
+    @Test
+    @DisplayName("1. O substituto deve servir payloads de tamanho real com latência e erros injetados")
+    void testStandInLatencyAndErrors() throws IOException {
+        OkHttpClient client = new OkHttpClient();
+        try (PokeApiStandIn lento = new PokeApiStandIn(PokeApiStandIn.realSizePayloads(3), 60, 0, 0).start()) {
+            assertTrue(lento.averagePayloadBytes() > 100 * 1024);
+            long inicio = System.nanoTime();
+            String json = PokemonDoDia.fetchPokemonData(2, client, lento.baseUrl());
+            assertTrue(System.nanoTime() - inicio >= 60_000_000L);
+            assertEquals("pokemon-2", PokemonJsonExtractor.extract(json).name());
+            assertThrows(IOException.class, () -> PokemonDoDia.fetchPokemonData(99, client, lento.baseUrl()));
+        }
+        try (PokeApiStandIn falho = new PokeApiStandIn(PokeApiStandIn.realSizePayloads(1), 0, 0, 1.0).start()) {
+            assertThrows(IOException.class, () -> PokemonDoDia.fetchPokemonData(1, client, falho.baseUrl()));
+            assertEquals(1, falho.injectedErrors());
+        }
+        // 25%: a 4ª e a 8ª requisição falham, sempre as mesmas
+        try (PokeApiStandIn quarto = new PokeApiStandIn(PokeApiStandIn.realSizePayloads(1), 0, 0, 0.25).start()) {
+            for (int i = 1; i <= 8; i++) {
+                if (i % 4 == 0) {
+                    assertThrows(IOException.class, () -> PokemonDoDia.fetchPokemonData(1, client, quarto.baseUrl()));
+                } else {
+                    PokemonDoDia.fetchPokemonData(1, client, quarto.baseUrl());
+                }
+            }
+            assertEquals(2, quarto.injectedErrors());
+        }
+    }
+
+    @Test
+    @DisplayName("2. A carga deve seguir a taxa pedida e contar os erros")
+    void testTargetRateAndErrors() throws InterruptedException {
+        LoadReport relatorio = new LoadGenerator(4, 200).run(id -> {
+            if (id % 2 == 0) {
+                throw new IOException("falha simulada");
+            }
+        }, new int[]{1, 2, 3, 4}, 60);
+
+        assertEquals(60, relatorio.requests());
+        assertEquals(30, relatorio.errors());
+        assertEquals(0.5, relatorio.errorRate());
+        // 60 requisições a 200/s levam ~300 ms
+        assertTrue(relatorio.throughput() <= 210, "vazão " + relatorio.throughput());
+        assertTrue(relatorio.throughput() > 100, "vazão " + relatorio.throughput());
+    }
+
+    @Test
+    @DisplayName("3. A latência deve contar a espera desde o horário marcado, não só o serviço")
+    void testOpenLoopLatency() throws InterruptedException {
+        // um worker, 40 ms por requisição e uma chegada a cada 10 ms: a fila cresce
+        LoadReport relatorio = new LoadGenerator(1, 100).run(id -> Thread.sleep(40), new int[]{1}, 10);
+
+        // em malha fechada tudo pareceria levar 40 ms; aqui a espera na fila aparece
+        assertTrue(relatorio.p50Millis() > 100, "p50 " + relatorio.p50Millis());
+        assertTrue(relatorio.maxMillis() > 250, "máx " + relatorio.maxMillis());
+    }
+
+    @Test
+    @DisplayName("4. Pioras além da tolerância devem ser apontadas como regressão")
+    void testRegressionAgainstBaseline() {
+        LoadReport base = relatorio(200, 30, 80, 10);
+
+        assertTrue(relatorio(190, 33, 95, 15).regressionsAgainst(base, 0.25, 0.02).isEmpty());
+        List<String> regressoes = relatorio(140, 45, 120, 60).regressionsAgainst(base, 0.25, 0.02);
+        assertEquals(4, regressoes.size(), regressoes.toString());
+        assertTrue(regressoes.get(0).startsWith("vazão"));
+        assertTrue(regressoes.get(2).startsWith("p99"));
+
+        LoadReport relido = LoadReport.fromProperties(base.toProperties());
+        assertEquals(base.throughput(), relido.throughput(), 1e-3);
+        assertEquals(base.errorRate(), relido.errorRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("5. O caminho da CLI (cache, hedge, novas tentativas) deve rodar sob carga concorrente")
+    void testEndToEndUnderLoad() throws IOException, InterruptedException {
+        // TTL zero: toda busca passa pela trava do cache e vai à rede
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ZERO, 64L * 1024 * 1024);
+        try (PokeApiStandIn standIn = new PokeApiStandIn(PokeApiStandIn.realSizePayloads(5), 5, 5, 0.2).start()) {
+            ResilientFetcher fetcher = PokemonDoDia.resilientFetcher(new OkHttpClient(), standIn.baseUrl(), cache, 4);
+            LoadReport relatorio = new LoadGenerator(4, 0).run(id -> {
+                String texto = PokemonDoDia.formatPokemonInfo(id,
+                        PokemonJsonExtractor.extract(fetcher.fetch(id)));
+                if (!texto.contains("Nome: pokemon-" + id)) {
+                    throw new IOException("texto inesperado: " + texto);
+                }
+            }, standIn.ids(), 40);
+
+            // com 20%, uma requisição a cada 5 recebe 503; a nova tentativa cai fora da vez
+            // de falhar, então os erros injetados nunca chegam ao chamador
+            assertEquals(0, relatorio.errors());
+            assertTrue(standIn.injectedErrors() > 0);
+            assertTrue(standIn.requests() >= 40);
+            assertTrue(relatorio.p50Millis() >= 5);
+        }
+    }
+}
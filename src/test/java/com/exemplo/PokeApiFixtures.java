@@ -0,0 +1,183 @@
+package com.exemplo;
+
+/**
+ * Payloads no formato e no tamanho das respostas reais de /pokemon/{id} da PokéAPI,
+ * com as mesmas chaves e subárvores (moves, sprites, game_indices, stats...).
+ * São gerados de forma determinística para testes e benchmarks rodarem sem rede.
+ */
+public final class PokeApiFixtures {
+
+    private static final String API = "https://pokeapi.co/api/v2/";
+    private static final String SPRITES = "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/";
+    private static final String[] VERSION_GROUPS = {
+            "red-blue", "yellow", "gold-silver", "crystal", "ruby-sapphire", "emerald", "firered-leafgreen",
+            "diamond-pearl", "platinum", "heartgold-soulsilver", "black-white", "black-2-white-2", "x-y",
+            "omega-ruby-alpha-sapphire", "sun-moon", "ultra-sun-ultra-moon", "lets-go-pikachu-lets-go-eevee",
+            "sword-shield", "scarlet-violet"
+    };
+    private static final String[] VERSIONS = {
+            "red", "blue", "yellow", "gold", "silver", "crystal", "ruby", "sapphire", "emerald", "firered",
+            "leafgreen", "diamond", "pearl", "platinum", "heartgold", "soulsilver", "black", "white",
+            "black-2", "white-2"
+    };
+    private static final String[] STATS = {
+            "hp", "attack", "defense", "special-attack", "special-defense", "speed"
+    };
+
+    private PokeApiFixtures() {
+    }
+
+    /** Mew aprende quase todos os golpes: um dos maiores payloads da API. */
+    public static String mew() {
+        return payload(151, "mew", 4, 40, new String[]{"psychic"}, new String[]{"synchronize"}, 380);
+    }
+
+    /** Ditto só aprende Transform: um dos menores payloads da API. */
+    public static String ditto() {
+        return payload(132, "ditto", 3, 40, new String[]{"normal"}, new String[]{"limber", "imposter"}, 1);
+    }
+
+    public static String bulbasaur() {
+        return payload(1, "bulbasaur", 7, 69, new String[]{"grass", "poison"}, new String[]{"overgrow", "chlorophyll"}, 90);
+    }
+
+    /** Gera um payload com a estrutura da PokéAPI; moveCount controla o tamanho. */
+    public static String payload(int id, String name, int height, int weight,
+                                 String[] types, String[] abilities, int moveCount) {
+        StringBuilder json = new StringBuilder(moveCount * 1400 + 16 * 1024);
+        json.append("{\"abilities\":[");
+        for (int i = 0; i < abilities.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"ability\":");
+            ref(json, abilities[i], "ability", 30 + id % 200 + i);
+            json.append(",\"is_hidden\":").append(i == abilities.length - 1 && i > 0)
+                    .append(",\"slot\":").append(i + 1).append('}');
+        }
+        json.append("],\"base_experience\":").append(64 + id % 200);
+        json.append(",\"cries\":{\"latest\":\"https://raw.githubusercontent.com/PokeAPI/cries/main/cries/pokemon/latest/")
+                .append(id).append(".ogg\",\"legacy\":\"https://raw.githubusercontent.com/PokeAPI/cries/main/cries/pokemon/legacy/")
+                .append(id).append(".ogg\"}");
+        json.append(",\"forms\":[");
+        ref(json, name, "pokemon-form", id);
+        json.append("],\"game_indices\":[");
+        for (int i = 0; i < VERSIONS.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"game_index\":").append(id + i).append(",\"version\":");
+            ref(json, VERSIONS[i], "version", i + 1);
+            json.append('}');
+        }
+        json.append("],\"height\":").append(height);
+        json.append(",\"held_items\":[],\"id\":").append(id);
+        json.append(",\"is_default\":true,\"location_area_encounters\":\"").append(API)
+                .append("pokemon/").append(id).append("/encounters\"");
+        json.append(",\"moves\":[");
+        for (int m = 0; m < moveCount; m++) {
+            if (m > 0) {
+                json.append(',');
+            }
+            json.append("{\"move\":");
+            ref(json, "move-" + (m + 1), "move", m + 1);
+            json.append(",\"version_group_details\":[");
+            int details = 4 + (m * 7 + id) % 10;
+            for (int d = 0; d < details; d++) {
+                if (d > 0) {
+                    json.append(',');
+                }
+                int group = (m + d) % VERSION_GROUPS.length;
+                json.append("{\"level_learned_at\":").append(d % 3 == 0 ? (m % 60) + 1 : 0)
+                        .append(",\"move_learn_method\":");
+                ref(json, d % 3 == 0 ? "level-up" : "machine", "move-learn-method", d % 3 == 0 ? 1 : 4);
+                json.append(",\"order\":null,\"version_group\":");
+                ref(json, VERSION_GROUPS[group], "version-group", group + 1);
+                json.append('}');
+            }
+            json.append("]}");
+        }
+        json.append("],\"name\":\"").append(name).append('"');
+        json.append(",\"order\":").append(id).append(",\"past_abilities\":[],\"past_types\":[]");
+        json.append(",\"species\":");
+        ref(json, name, "pokemon-species", id);
+        json.append(",\"sprites\":");
+        sprites(json, id);
+        json.append(",\"stats\":[");
+        for (int i = 0; i < STATS.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"base_stat\":").append(40 + (id * (i + 3)) % 90).append(",\"effort\":0,\"stat\":");
+            ref(json, STATS[i], "stat", i + 1);
+            json.append('}');
+        }
+        json.append("],\"types\":[");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"slot\":").append(i + 1).append(",\"type\":");
+            ref(json, types[i], "type", typeId(types[i]));
+            json.append('}');
+        }
+        json.append("],\"weight\":").append(weight).append('}');
+        return json.toString();
+    }
+
+    private static void sprites(StringBuilder json, int id) {
+        json.append('{');
+        spriteSet(json, "", id);
+        json.append(",\"other\":{\"dream_world\":{\"front_default\":\"").append(SPRITES)
+                .append("other/dream-world/").append(id).append(".svg\",\"front_female\":null}")
+                .append(",\"home\":{");
+        spriteSet(json, "other/home/", id);
+        json.append("},\"official-artwork\":{\"front_default\":\"").append(SPRITES)
+                .append("other/official-artwork/").append(id).append(".png\",\"front_shiny\":\"").append(SPRITES)
+                .append("other/official-artwork/shiny/").append(id).append(".png\"}}");
+        json.append(",\"versions\":{");
+        for (int g = 0; g < 8; g++) {
+            if (g > 0) {
+                json.append(',');
+            }
+            json.append("\"generation-").append(g + 1).append("\":{");
+            for (int v = 0; v < 3; v++) {
+                if (v > 0) {
+                    json.append(',');
+                }
+                json.append('"').append(VERSIONS[(g * 3 + v) % VERSIONS.length]).append("\":{");
+                spriteSet(json, "versions/generation-" + (g + 1) + "/" + VERSIONS[(g * 3 + v) % VERSIONS.length] + "/", id);
+                json.append('}');
+            }
+            json.append('}');
+        }
+        json.append("}}");
+    }
+
+    private static void spriteSet(StringBuilder json, String prefix, int id) {
+        json.append("\"back_default\":\"").append(SPRITES).append(prefix).append("back/").append(id).append(".png\"")
+                .append(",\"back_female\":null")
+                .append(",\"back_shiny\":\"").append(SPRITES).append(prefix).append("back/shiny/").append(id).append(".png\"")
+                .append(",\"back_shiny_female\":null")
+                .append(",\"front_default\":\"").append(SPRITES).append(prefix).append(id).append(".png\"")
+                .append(",\"front_female\":null")
+                .append(",\"front_shiny\":\"").append(SPRITES).append(prefix).append("shiny/").append(id).append(".png\"")
+                .append(",\"front_shiny_female\":null");
+    }
+
+    private static void ref(StringBuilder json, String name, String resource, int id) {
+        json.append("{\"name\":\"").append(name).append("\",\"url\":\"").append(API)
+                .append(resource).append('/').append(id).append("/\"}");
+    }
+
+    private static int typeId(String type) {
+        String[] order = {"normal", "fighting", "flying", "poison", "ground", "rock", "bug", "ghost", "steel",
+                "fire", "water", "grass", "electric", "psychic", "ice", "dragon", "dark", "fairy"};
+        for (int i = 0; i < order.length; i++) {
+            if (order[i].equals(type)) {
+                return i + 1;
+            }
+        }
+        return 10001;
+    }
+}
@@ -0,0 +1,136 @@
+package com.exemplo;
+
+import com.examplo.PokedexArchive;
+import com.examplo.PokedexSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokedexArchiveTest {
+
+    private static final String[][] TIPOS = {{"grass", "poison"}, {"fire"}, {"water"}, {"bug", "flying"}};
+
+    @TempDir
+    Path dir;
+
+    private static Map<Integer, String> pokedex(int tamanho) {
+        Map<Integer, String> entradas = new TreeMap<>();
+        for (int id = 1; id <= tamanho; id++) {
+            entradas.put(id, PokeApiFixtures.payload(id, "pokemon-" + id, 5 + id % 20, 40 + id * 3,
+                    TIPOS[id % TIPOS.length], new String[]{"habilidade-" + id, "oculta-" + id}, 1 + id % 4));
+        }
+        return entradas;
+    }
+
+    private static int gzip(String json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.size();
+    }
+
+    @Test
+    @DisplayName("1. Cada registro deve ser lido sozinho, pelo índice")
+    void testRoundTripAndSingleRecord() throws IOException {
+        Map<Integer, String> entradas = pokedex(20);
+        entradas.put(132, PokeApiFixtures.ditto());
+        entradas.put(151, PokeApiFixtures.mew());
+        Path arquivo = dir.resolve("pokedex.archive");
+
+        PokedexArchive.write(arquivo, entradas);
+
+        try (PokedexArchive archive = PokedexArchive.open(arquivo)) {
+            assertEquals(22, archive.size());
+            assertEquals(PokeApiFixtures.mew(), archive.get(151));
+            assertEquals(entradas.get(7), archive.get(7));
+            assertNull(archive.get(21));
+            assertFalse(archive.contains(0));
+            assertEquals(132, archive.ids()[20]);
+            assertEquals(entradas, archive.entries());
+        }
+    }
+
+    @Test
+    @DisplayName("2. O dicionário compartilhado deve comprimir bem mais que gzip por arquivo")
+    void testSmallerThanPerFileGzip() throws IOException {
+        Map<Integer, String> entradas = pokedex(120);
+        long gzipTotal = 0;
+        long original = 0;
+        for (String json : entradas.values()) {
+            gzipTotal += gzip(json);
+            original += json.getBytes(StandardCharsets.UTF_8).length;
+        }
+        Path arquivo = dir.resolve("pokedex.archive");
+
+        PokedexArchive.write(arquivo, entradas);
+
+        try (PokedexArchive archive = PokedexArchive.open(arquivo)) {
+            assertEquals(original, archive.rawSize());
+            assertEquals(Files.size(arquivo), archive.fileSize());
+            // o dicionário é um custo fixo, diluído numa Pokédex inteira
+            long registros = archive.fileSize() - archive.dictionarySize();
+            assertTrue(registros < gzipTotal * 0.6, "registros " + registros + " bytes, gzip " + gzipTotal + " bytes");
+            assertTrue(archive.fileSize() < gzipTotal);
+        }
+    }
+
+    @Test
+    @DisplayName("3. O dicionário deve guardar os trechos comuns a todos os payloads")
+    void testTrainDictionary() {
+        byte[] dicionario = PokedexArchive.trainDictionary(pokedex(30).values(), 4096);
+
+        assertTrue(dicionario.length > 0 && dicionario.length <= 4096);
+        String texto = new String(dicionario, StandardCharsets.UTF_8);
+        assertTrue(texto.contains("https://pokeapi.co/api/v2/version-group/"));
+        assertFalse(texto.contains("habilidade-7"));
+        assertEquals(0, PokedexArchive.trainDictionary(Arrays.asList("{}", "{}"), 4096).length);
+    }
+
+    @Test
+    @DisplayName("4. Um arquivo que não é comprimido deve ser rejeitado como snapshot")
+    void testForeignFileIsRejected() throws IOException {
+        Path arquivo = dir.resolve("pokedex.snapshot");
+        byte[] json = "{\"id\":25,\"name\":\"pikachu\"}".getBytes(StandardCharsets.UTF_8);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(arquivo))) {
+            out.writeInt(0x504B534E);
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeInt(25);
+            out.writeInt(json.length);
+            out.write(json);
+        }
+
+        assertThrows(IOException.class, () -> PokedexSnapshot.readEntry(arquivo, 25));
+        assertThrows(IOException.class, () -> PokedexSnapshot.readIds(arquivo));
+
+        PokedexSnapshot.write(arquivo, Map.of(25, "{\"id\":25,\"name\":\"pikachu\"}"));
+        assertEquals("{\"id\":25,\"name\":\"pikachu\"}", PokedexSnapshot.readEntry(arquivo, 25));
+    }
+
+    @Test
+    @DisplayName("5. Um arquivo truncado deve ser rejeitado")
+    void testTruncatedArchiveIsRejected() throws IOException {
+        Path arquivo = dir.resolve("pokedex.archive");
+        PokedexArchive.write(arquivo, pokedex(5));
+        byte[] bytes = Files.readAllBytes(arquivo);
+        Files.write(arquivo, Arrays.copyOf(bytes, bytes.length - 100));
+
+        IOException erro = assertThrows(IOException.class, () -> PokedexArchive.open(arquivo));
+        assertTrue(erro.getMessage().contains("truncado"));
+    }
+}
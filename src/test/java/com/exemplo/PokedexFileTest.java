@@ -0,0 +1,136 @@
+package com.exemplo;
+
+import com.examplo.CompactPokedex;
+import com.examplo.PokedexFile;
+import com.examplo.PokemonInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokedexFileTest {
+
+    @TempDir
+    Path dir;
+
+    private Path writeFullDex() throws IOException {
+        Path arquivo = dir.resolve("pokedex.bin");
+        PokedexFile.write(arquivo, CompactPokedexTest.fullDex());
+        return arquivo;
+    }
+
+    private static void overwrite(Path arquivo, long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+
+    @Test
+    @DisplayName("1. Os registros lidos do arquivo mapeado devem ser iguais aos gravados")
+    void testRoundTrip() throws IOException {
+        CompactPokedex original = CompactPokedexTest.fullDex();
+        Path arquivo = writeFullDex();
+
+        try (PokedexFile dex = PokedexFile.open(arquivo)) {
+            assertEquals(1025, dex.size());
+            for (int id = 1; id <= 1025; id++) {
+                PokemonInfo esperado = original.get(id);
+                PokemonInfo lido = dex.get(id);
+                assertEquals(esperado.name(), lido.name());
+                assertEquals(esperado.height(), lido.height());
+                assertEquals(esperado.weight(), lido.weight());
+                assertEquals(esperado.types(), lido.types());
+                assertEquals(esperado.abilities(), lido.abilities());
+                assertEquals(original.format(id), dex.format(id));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("2. Ids ausentes não devem ser encontrados")
+    void testMissingIds() throws IOException {
+        CompactPokedex parcial = new CompactPokedex(10);
+        parcial.put(4, new PokemonInfo("charmander", 6, 85, Arrays.asList("fire"), Arrays.asList("blaze")));
+        Path arquivo = dir.resolve("parcial.bin");
+        PokedexFile.write(arquivo, parcial);
+
+        try (PokedexFile dex = PokedexFile.open(arquivo)) {
+            assertTrue(dex.contains(4));
+            assertFalse(dex.contains(5));
+            assertFalse(dex.contains(11));
+            assertFalse(dex.contains(-1));
+            assertEquals("=== POKÉMON DO DIA ===\nID: 4\nNome: charmander\nTipo: fire\nAltura: 6\nPeso: 85", dex.format(4));
+            assertThrows(IllegalArgumentException.class, () -> dex.format(5));
+        }
+    }
+
+    @Test
+    @DisplayName("3. Deve rejeitar arquivo corrompido pelo checksum")
+    void testChecksumMismatch() throws IOException {
+        Path arquivo = writeFullDex();
+        // altera um byte no meio dos registros
+        overwrite(arquivo, 32 + 1026 * 4 + 10, ByteBuffer.wrap(new byte[]{0x7F}));
+
+        IOException e = assertThrows(IOException.class, () -> PokedexFile.open(arquivo));
+        assertTrue(e.getMessage().contains("Checksum"));
+    }
+
+    @Test
+    @DisplayName("4. Deve rejeitar versão de formato desconhecida")
+    void testUnsupportedVersion() throws IOException {
+        Path arquivo = writeFullDex();
+        overwrite(arquivo, 4, ByteBuffer.allocate(4).putInt(0, PokedexFile.VERSION + 1));
+
+        IOException e = assertThrows(IOException.class, () -> PokedexFile.open(arquivo));
+        assertTrue(e.getMessage().contains("Versão"));
+    }
+
+    @Test
+    @DisplayName("5. Arquivo inexistente deve resultar em null")
+    void testOpenIfExists() throws IOException {
+        assertNull(PokedexFile.openIfExists(dir.resolve("nao-existe.bin")));
+    }
+
+    @Test
+    @DisplayName("6. Um registro sem tipos deve ser formatado como na Pokédex em memória")
+    void testRecordWithoutTypes() throws IOException {
+        CompactPokedex parcial = new CompactPokedex(10);
+        parcial.put(7, new PokemonInfo("sem-tipo", 5, 90, Collections.emptyList(), Arrays.asList("torrent")));
+        Path arquivo = dir.resolve("sem-tipo.bin");
+        PokedexFile.write(arquivo, parcial);
+
+        try (PokedexFile dex = PokedexFile.open(arquivo)) {
+            assertNull(dex.primaryType(7));
+            assertEquals(parcial.format(7), dex.format(7));
+            assertEquals("=== POKÉMON DO DIA ===\nID: 7\nNome: sem-tipo\nTipo: null\nAltura: 5\nPeso: 90", dex.format(7));
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(dir, "*.tmp")) {
+            assertFalse(arquivos.iterator().hasNext());
+        }
+    }
+
+    @Test
+    @DisplayName("7. Deve rejeitar cabeçalho com maxId ou quantidade fora das regiões do arquivo")
+    void testInconsistentHeader() throws IOException {
+        Path arquivo = writeFullDex();
+        overwrite(arquivo, 8, ByteBuffer.allocate(4).putInt(0, 5000));
+        IOException e = assertThrows(IOException.class, () -> PokedexFile.open(arquivo));
+        assertTrue(e.getMessage().contains("Cabeçalho"));
+
+        Path outro = writeFullDex();
+        overwrite(outro, 12, ByteBuffer.allocate(4).putInt(0, -1));
+        e = assertThrows(IOException.class, () -> PokedexFile.open(outro));
+        assertTrue(e.getMessage().contains("Cabeçalho"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.exemplo;
+
+import com.examplo.CompactPokedex;
+import com.examplo.FilteredSelector;
+import com.examplo.PokedexFile;
+import com.examplo.PokedexIndex;
+import com.examplo.PokemonInfo;
+import com.examplo.ShuffleSelector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokedexIndexTest {
+
+    @TempDir
+    Path dir;
+
+    /** Resposta de referência: percorre a Pokédex inteira. */
+    private static int[] varredura(CompactPokedex dex, IntPredicate filtro) {
+        return IntStream.rangeClosed(1, dex.maxId()).filter(id -> dex.contains(id) && filtro.test(id)).toArray();
+    }
+
+    @Test
+    @DisplayName("1. As consultas devem dar o mesmo resultado que percorrer a Pokédex")
+    void testMatchesFullScan() {
+        CompactPokedex dex = CompactPokedexTest.fullDex();
+        PokedexIndex index = PokedexIndex.of(dex);
+
+        assertEquals(1025, index.size());
+        assertArrayEquals(varredura(dex, id -> dex.get(id).types().contains("fire") && dex.weight(id) > 500),
+                index.query().type("fire").weightBetween(501, Integer.MAX_VALUE).toArray());
+        assertArrayEquals(varredura(dex, id -> dex.get(id).abilities().contains("oculta-7")),
+                index.query().ability("oculta-7").toArray());
+        assertArrayEquals(varredura(dex, id -> dex.height(id) >= 50 && dex.height(id) <= 60
+                        && dex.get(id).types().contains("water")),
+                index.query().heightBetween(50, 60).type("water").toArray());
+        assertEquals(0, index.query().type("shadow").count());
+        assertEquals(0, index.query().heightBetween(10, 5).count());
+    }
+
+    @Test
+    @DisplayName("2. A expressão de filtro deve aceitar igualdade, comparações e faixas")
+    void testWhereExpression() {
+        CompactPokedex dex = CompactPokedexTest.fullDex();
+        PokedexIndex index = PokedexIndex.of(dex);
+
+        assertArrayEquals(index.query().type("fire").weightBetween(501, Integer.MAX_VALUE).toArray(),
+                index.query("tipo=fire, peso>500").toArray());
+        assertArrayEquals(varredura(dex, id -> dex.height(id) <= 3),
+                index.query("altura<=3").toArray());
+        assertArrayEquals(varredura(dex, id -> dex.height(id) < 3),
+                index.query("altura<3").toArray());
+        assertArrayEquals(varredura(dex, id -> dex.weight(id) >= 9000 && dex.height(id) == 100),
+                index.query("peso>=9000,altura=100").toArray());
+        assertArrayEquals(varredura(dex, id -> dex.height(id) >= 5 && dex.height(id) <= 20),
+                index.query("altura=5..20").toArray());
+        assertEquals(0, index.query("peso>" + Integer.MAX_VALUE).count());
+        assertEquals(index.size(), index.query("").count());
+    }
+
+    @Test
+    @DisplayName("3. Filtros inválidos devem ser rejeitados com a condição no erro")
+    void testInvalidExpression() {
+        PokedexIndex index = PokedexIndex.of(CompactPokedexTest.fullDex());
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> index.query("peso>muito"));
+        assertTrue(erro.getMessage().contains("peso>muito"));
+        assertThrows(IllegalArgumentException.class, () -> index.query("cor=azul"));
+        assertThrows(IllegalArgumentException.class, () -> index.query("tipo>fire"));
+        assertThrows(IllegalArgumentException.class, () -> index.query("altura"));
+        assertThrows(IllegalArgumentException.class, () -> index.query("=3"));
+    }
+
+    @Test
+    @DisplayName("4. O sorteio filtrado deve ser determinístico e ficar dentro do resultado")
+    void testFilteredPick() {
+        PokedexIndex index = PokedexIndex.of(CompactPokedexTest.fullDex());
+        PokedexIndex.Query aquaticos = index.query("tipo=water");
+        Set<Integer> permitidos = new HashSet<>();
+        for (int id : aquaticos.toArray()) {
+            permitidos.add(id);
+        }
+
+        for (long semente = -50; semente < 50; semente++) {
+            int id = aquaticos.pick(semente);
+            assertTrue(permitidos.contains(id));
+            assertEquals(id, index.query("tipo=water").pick(semente));
+        }
+        assertThrows(NoSuchElementException.class, () -> index.query("tipo=shadow").pick(1));
+    }
+
+    @Test
+    @DisplayName("5. O seletor filtrado deve percorrer todo o subconjunto sem repetir")
+    void testFilteredSelector() {
+        PokedexIndex index = PokedexIndex.of(CompactPokedexTest.fullDex());
+        PokedexIndex.Query consulta = index.query("tipo=fire,altura<=60");
+        int total = consulta.count();
+        FilteredSelector seletor = new FilteredSelector(consulta, new ShuffleSelector(total, "sal"));
+        LocalDate inicio = LocalDate.ofEpochDay(total * 10L);
+
+        Set<Integer> vistos = new HashSet<>();
+        for (int id : seletor.schedule(inicio, total)) {
+            assertTrue(vistos.add(id), "repetido: " + id);
+        }
+        Set<Integer> esperados = new HashSet<>();
+        for (int id : consulta.toArray()) {
+            esperados.add(id);
+        }
+        assertEquals(esperados, vistos);
+        assertThrows(IllegalArgumentException.class,
+                () -> FilteredSelector.fromEnvironment(index.query("tipo=shadow")));
+    }
+
+    @Test
+    @DisplayName("6. O índice deve ser montado também a partir da Pokédex binária")
+    void testFromPokedexFile() throws IOException {
+        CompactPokedex dex = new CompactPokedex(151);
+        dex.put(6, new PokemonInfo("charizard", 17, 905, Arrays.asList("fire", "flying"),
+                Arrays.asList("blaze", "solar-power")));
+        dex.put(9, new PokemonInfo("blastoise", 16, 855, Collections.singletonList("water"),
+                Collections.singletonList("torrent")));
+        dex.put(146, new PokemonInfo("moltres", 20, 600, Arrays.asList("fire", "flying"),
+                Collections.singletonList("pressure")));
+        Path arquivo = dir.resolve("pokedex.bin");
+        PokedexFile.write(arquivo, dex);
+
+        try (PokedexFile file = PokedexFile.open(arquivo)) {
+            PokedexIndex index = PokedexIndex.of(file);
+            assertArrayEquals(new int[]{6, 146}, index.query("tipo=flying").toArray());
+            assertArrayEquals(new int[]{6}, index.query("tipo=fire,peso>800").toArray());
+            assertArrayEquals(new int[]{9}, index.query("habilidade=torrent").toArray());
+        }
+    }
+}
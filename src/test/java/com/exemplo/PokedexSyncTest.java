@@ -0,0 +1,247 @@
+package com.exemplo;
+
+import com.examplo.AdaptiveLimiter;
+import com.examplo.PokedexSnapshot;
+import com.examplo.PokedexSync;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokedexSyncTest {
+
+    private static final int QUANTIDADE = 100;
+
+    @TempDir
+    Path dir;
+
+    private MockWebServer server;
+    private String baseUrl;
+    private final Set<Integer> falhasInjetadas = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                int id = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+                // a primeira tentativa dos múltiplos de 7 falha, forçando nova tentativa
+                if (id % 7 == 0 && falhasInjetadas.add(id)) {
+                    return new MockResponse().setResponseCode(503);
+                }
+                return new MockResponse()
+                        .setBody("{\"id\":" + id + ",\"name\":\"pokemon-" + id + "\"}")
+                        .setBodyDelay(20, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        baseUrl = server.url("/api/v2/pokemon/").toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("1. Sincronização deve gravar cada entrada exatamente uma vez mesmo com novas tentativas")
+    void testEveryEntryOnceWithRetries() throws Exception {
+        PokedexSync sync = new PokedexSync(new OkHttpClient(), baseUrl, 16, 3);
+        PokedexSync.Result result = sync.fetchRange(1, QUANTIDADE);
+        sync.shutdown();
+
+        Path arquivo = dir.resolve("pokedex.snapshot");
+        PokedexSnapshot.write(arquivo, result.entries());
+        PokedexSnapshot snapshot = PokedexSnapshot.read(arquivo);
+
+        assertEquals(QUANTIDADE, snapshot.size());
+        assertTrue(result.failedIds().isEmpty());
+        assertEquals(QUANTIDADE / 7, result.retries());
+        for (int id = 1; id <= QUANTIDADE; id++) {
+            assertEquals("{\"id\":" + id + ",\"name\":\"pokemon-" + id + "\"}", snapshot.get(id));
+        }
+        assertEquals("{\"id\":42,\"name\":\"pokemon-42\"}", PokedexSnapshot.readEntry(arquivo, 42));
+        assertNull(PokedexSnapshot.readEntry(arquivo, QUANTIDADE + 1));
+    }
+
+    @Test
+    @DisplayName("2. Sincronização concorrente deve levar uma fração do tempo sequencial")
+    void testConcurrentFasterThanSequential() throws Exception {
+        OkHttpClient client = new OkHttpClient();
+
+        PokedexSync sequencial = new PokedexSync(client, baseUrl, 1, 3);
+        long inicio = System.nanoTime();
+        sequencial.fetchRange(1, QUANTIDADE);
+        long tempoSequencial = System.nanoTime() - inicio;
+        sequencial.shutdown();
+
+        falhasInjetadas.clear();
+        PokedexSync concorrente = new PokedexSync(client, baseUrl, 16, 3);
+        inicio = System.nanoTime();
+        PokedexSync.Result result = concorrente.fetchRange(1, QUANTIDADE);
+        long tempoConcorrente = System.nanoTime() - inicio;
+        concorrente.shutdown();
+
+        assertEquals(QUANTIDADE, result.entries().size());
+        assertTrue(tempoConcorrente * 4 < tempoSequencial,
+                "concorrente=" + tempoConcorrente + "ns, sequencial=" + tempoSequencial + "ns");
+    }
+
+    @Test
+    @DisplayName("3. Ids que esgotam as tentativas devem ser reportados como falha")
+    void testExhaustedRetriesReported() throws Exception {
+        PokedexSync sync = new PokedexSync(new OkHttpClient(), baseUrl, 4, 1);
+        PokedexSync.Result result = sync.fetchRange(1, 14);
+        sync.shutdown();
+
+        assertEquals(Arrays.asList(7, 14), result.failedIds());
+        Map<Integer, String> entries = result.entries();
+        assertEquals(12, entries.size());
+        assertFalse(entries.containsKey(7));
+    }
+
+    @Test
+    @DisplayName("4. O limitador adaptativo deve recuar com 429 e ainda assim buscar tudo")
+    void testAdaptiveLimiterBacksOffOn429() throws Exception {
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        MockWebServer limitado = new MockWebServer();
+        limitado.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String path = request.getPath();
+                int id = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+                // o servidor só tolera 4 requisições simultâneas
+                if (emAndamento.incrementAndGet() > 4) {
+                    emAndamento.decrementAndGet();
+                    recusadas.incrementAndGet();
+                    return new MockResponse().setResponseCode(429).setHeader("Retry-After", "0");
+                }
+                try {
+                    Thread.sleep(10);
+                    return new MockResponse().setBody("{\"id\":" + id + "}");
+                } finally {
+                    emAndamento.decrementAndGet();
+                }
+            }
+        });
+        limitado.start();
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 1, 16, 0, 0);
+        PokedexSync sync = new PokedexSync(new OkHttpClient(),
+                limitado.url("/api/v2/pokemon/").toString(), limiter, 10);
+        PokedexSync.Result result = sync.fetchRange(1, QUANTIDADE);
+        sync.shutdown();
+        limitado.shutdown();
+
+        assertEquals(QUANTIDADE, result.entries().size());
+        assertTrue(result.failedIds().isEmpty());
+        assertTrue(limiter.throttled() > 0);
+        assertEquals(recusadas.get(), limiter.throttled());
+        assertTrue(limiter.limit() < 16, "limite final " + limiter.limit());
+        assertEquals(0, sync.queueDepth());
+    }
+
+    @Test
+    @DisplayName("5. Um Retry-After longo demais deve falhar o id em vez de parar a sincronização")
+    void testExcessiveRetryAfterFailsTheId() throws Exception {
+        MockWebServer limitado = new MockWebServer();
+        limitado.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                int id = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+                if (id == 3) {
+                    return new MockResponse().setResponseCode(429).setHeader("Retry-After", "86400");
+                }
+                return new MockResponse().setBody("{\"id\":" + id + "}");
+            }
+        });
+        limitado.start();
+
+        PokedexSync sync = new PokedexSync(new OkHttpClient(), limitado.url("/api/v2/pokemon/").toString(), 2, 3);
+        long inicio = System.nanoTime();
+        PokedexSync.Result result = sync.fetchRange(1, 10);
+        long decorrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        sync.shutdown();
+        limitado.shutdown();
+
+        assertEquals(Arrays.asList(3), result.failedIds());
+        assertEquals(9, result.entries().size());
+        assertTrue(decorrido < 5000, "demorou " + decorrido + " ms");
+    }
+
+    @Test
+    @DisplayName("6. Uma exceção inesperada num callback deve falhar o id sem travar a sincronização")
+    void testUnexpectedCallbackExceptionDoesNotHang() {
+        AtomicInteger chamadas = new AtomicInteger();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 4, 0, 4) {
+            @Override
+            public synchronized void onSuccess(long latencyNanos) {
+                if (chamadas.incrementAndGet() == 1) {
+                    throw new IllegalStateException("falha injetada");
+                }
+                super.onSuccess(latencyNanos);
+            }
+        };
+        PokedexSync sync = new PokedexSync(new OkHttpClient(), baseUrl, limiter, 3);
+
+        PokedexSync.Result result = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> sync.fetchRange(1, 6));
+        sync.shutdown();
+
+        assertEquals(1, result.failedIds().size());
+        assertEquals(5, result.entries().size());
+        // a vaga da resposta que lançou a exceção também voltou ao limitador
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("7. Um 404 deve falhar o id com uma única requisição e sem reduzir o limite")
+    void testClientErrorKeepsTheLimit() throws Exception {
+        AtomicInteger pedidos = new AtomicInteger();
+        MockWebServer servidor = new MockWebServer();
+        servidor.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                pedidos.incrementAndGet();
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        servidor.start();
+
+        // só respostas 404: nenhuma latência entra no limitador, então o limite só cairia pelo 4xx
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 1, 4, 0, 4);
+        PokedexSync sync = new PokedexSync(new OkHttpClient(), servidor.url("/api/v2/pokemon/").toString(), limiter, 3);
+        PokedexSync.Result result = sync.fetchRange(1, 3);
+        sync.shutdown();
+        servidor.shutdown();
+
+        assertEquals(Arrays.asList(1, 2, 3), result.failedIds());
+        assertTrue(result.entries().isEmpty());
+        assertEquals(3, pedidos.get());
+        assertEquals(0, result.retries());
+        assertEquals(4, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+}
@@ -0,0 +1,181 @@
+package com.exemplo;
+
+import com.examplo.PokemonCache;
+import com.examplo.PokemonDoDia;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokemonCacheTest {
+
+    private static final String JSON_BULBASAUR = "{\"name\":\"bulbasaur\",\"height\":7,\"weight\":69,\"types\":[{\"type\":{\"name\":\"grass\"}}]}";
+
+    @TempDir
+    Path cacheDir;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient();
+        baseUrl = server.url("/api/v2/pokemon/").toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("1. Execução quente não deve tocar a rede")
+    void testWarmRunSkipsNetwork() throws IOException {
+        server.enqueue(new MockResponse().setBody(JSON_BULBASAUR).setHeader("ETag", "\"v1\""));
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+
+        assertEquals(JSON_BULBASAUR, PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache));
+        assertEquals(JSON_BULBASAUR, PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache));
+
+        // uma nova instância simula uma nova execução lendo o mesmo diretório
+        PokemonCache warm = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+        assertEquals(JSON_BULBASAUR, PokemonDoDia.fetchPokemonData(1, client, baseUrl, warm));
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(1, warm.hits());
+        assertEquals(0, warm.misses());
+    }
+
+    @Test
+    @DisplayName("2. Entrada vencida deve ser revalidada com ETag e aceitar 304")
+    void testStaleEntryRevalidatesWithEtag() throws Exception {
+        server.enqueue(new MockResponse().setBody(JSON_BULBASAUR)
+                .setHeader("ETag", "\"v1\"")
+                .setHeader("Last-Modified", "Wed, 01 Jan 2025 00:00:00 GMT"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ZERO, 1024 * 1024);
+
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache);
+        String result = PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache);
+
+        assertEquals(JSON_BULBASAUR, result);
+        server.takeRequest();
+        RecordedRequest conditional = server.takeRequest();
+        assertEquals("\"v1\"", conditional.getHeader("If-None-Match"));
+        assertEquals("Wed, 01 Jan 2025 00:00:00 GMT", conditional.getHeader("If-Modified-Since"));
+        assertEquals(1, cache.revalidations());
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    @DisplayName("3. Entrada vencida deve ser substituída quando o servidor devolve 200")
+    void testStaleEntryReplacedOnChange() throws IOException {
+        String atualizado = JSON_BULBASAUR.replace("69", "70");
+        server.enqueue(new MockResponse().setBody(JSON_BULBASAUR).setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setBody(atualizado).setHeader("ETag", "\"v2\""));
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ZERO, 1024 * 1024);
+
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache);
+        assertEquals(atualizado, PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache));
+        assertEquals("\"v2\"", cache.lookup(1).etag());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    @DisplayName("4. Deve remover a entrada menos usada quando o limite de tamanho é excedido")
+    void testLruEviction() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody(JSON_BULBASAUR));
+        }
+        // o limite conta corpo e .meta: mede uma entrada e cabe exatamente duas
+        PokemonCache medida = new PokemonCache(cacheDir.resolve("medida"), Duration.ofHours(1), 1024 * 1024);
+        medida.store(1, JSON_BULBASAUR, null, null);
+        long limite = medida.sizeInBytes() * 2L;
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ofHours(1), limite);
+
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache);
+        PokemonDoDia.fetchPokemonData(2, client, baseUrl, cache);
+        // acessar o 1 faz do 2 o menos usado recentemente
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache);
+        PokemonDoDia.fetchPokemonData(3, client, baseUrl, cache);
+
+        assertNotNull(cache.lookup(1));
+        assertNull(cache.lookup(2));
+        assertNotNull(cache.lookup(3));
+        assertFalse(Files.exists(cacheDir.resolve("2.json")));
+        assertFalse(Files.exists(cacheDir.resolve("2.lock")));
+        assertEquals(1, cache.evictions());
+        assertTrue(cache.sizeInBytes() <= limite);
+    }
+
+    @Test
+    @DisplayName("5. Erro do servidor não deve ser guardado no cache")
+    void testErrorNotCached() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+
+        IOException exception = assertThrows(IOException.class,
+                () -> PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache));
+
+        assertTrue(exception.getMessage().contains("500"));
+        assertNull(cache.lookup(1));
+    }
+
+    @Test
+    @DisplayName("6. Acerto só deve regravar a data de modificação quando ela passa da granularidade")
+    void testTouchRespectsGranularity() throws IOException {
+        server.enqueue(new MockResponse().setBody(JSON_BULBASAUR));
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache);
+        Path corpo = cacheDir.resolve("1.json");
+        assertEquals(Files.size(corpo) + Files.size(cacheDir.resolve("1.meta")), cache.sizeInBytes());
+
+        FileTime recente = FileTime.fromMillis(System.currentTimeMillis() - 10_000);
+        Files.setLastModifiedTime(corpo, recente);
+        PokemonCache quente = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, quente);
+        assertEquals(recente, Files.getLastModifiedTime(corpo));
+
+        FileTime antiga = FileTime.fromMillis(System.currentTimeMillis()
+                - PokemonCache.GRANULARIDADE_ACESSO.toMillis() * 2);
+        Files.setLastModifiedTime(corpo, antiga);
+        PokemonCache outra = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, outra);
+        assertTrue(Files.getLastModifiedTime(corpo).compareTo(antiga) > 0);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("7. Um .meta corrompido deve valer como ausência, buscando de novo na rede")
+    void testCorruptMetaIsAMiss() throws IOException {
+        server.enqueue(new MockResponse().setBody(JSON_BULBASAUR));
+        server.enqueue(new MockResponse().setBody(JSON_BULBASAUR));
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache);
+        Files.write(cacheDir.resolve("1.meta"), "crc=abc\nfetchedAt=ontem\n".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(cache.lookup(1));
+        assertEquals(JSON_BULBASAUR, PokemonDoDia.fetchPokemonData(1, client, baseUrl, cache));
+        assertEquals(2, server.getRequestCount());
+        assertNotNull(cache.lookup(1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.exemplo;
+
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonInfo;
+import com.examplo.PokemonJsonExtractor;
+import com.examplo.PokemonLinks;
+import com.google.gson.JsonSyntaxException;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokemonJsonExtractorTest {
+
+    private static final String JSON_COMPLETO = "{"
+            + "\"abilities\":[{\"ability\":{\"name\":\"overgrow\",\"url\":\"https://pokeapi.co/api/v2/ability/65/\"},\"is_hidden\":false,\"slot\":1},"
+            + "{\"ability\":{\"name\":\"chlorophyll\",\"url\":\"https://pokeapi.co/api/v2/ability/34/\"},\"is_hidden\":true,\"slot\":3}],"
+            + "\"game_indices\":[{\"game_index\":153,\"version\":{\"name\":\"red\",\"url\":\"https://pokeapi.co/api/v2/version/1/\"}}],"
+            + "\"height\":7,"
+            + "\"moves\":[{\"move\":{\"name\":\"razor-wind\",\"url\":\"https://pokeapi.co/api/v2/move/13/\"},\"version_group_details\":[]}],"
+            + "\"name\":\"bulbasaur\","
+            + "\"sprites\":{\"front_default\":\"https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/1.png\",\"other\":{\"home\":{\"front_default\":null}}},"
+            + "\"types\":[{\"slot\":1,\"type\":{\"name\":\"grass\",\"url\":\"https://pokeapi.co/api/v2/type/12/\"}},"
+            + "{\"slot\":2,\"type\":{\"name\":\"poison\",\"url\":\"https://pokeapi.co/api/v2/type/4/\"}}],"
+            + "\"weight\":69}";
+
+    @Test
+    @DisplayName("1. Deve extrair todos os campos pulando moves, sprites e game_indices")
+    void testExtractSkipsUnusedSubtrees() {
+        PokemonInfo info = PokemonJsonExtractor.extract(JSON_COMPLETO);
+
+        assertEquals("bulbasaur", info.name());
+        assertEquals(7, info.height());
+        assertEquals(69, info.weight());
+        assertEquals(Arrays.asList("grass", "poison"), info.types());
+        assertEquals("grass", info.primaryType());
+        assertEquals(Arrays.asList("overgrow", "chlorophyll"), info.abilities());
+    }
+
+    @Test
+    @DisplayName("2. Deve extrair diretamente do ResponseBody")
+    void testExtractFromResponseBody() {
+        ResponseBody body = ResponseBody.create(JSON_COMPLETO, MediaType.get("application/json"));
+
+        PokemonInfo info = PokemonJsonExtractor.extract(body);
+
+        assertEquals("bulbasaur", info.name());
+        assertEquals("grass", info.primaryType());
+    }
+
+    @Test
+    @DisplayName("3. Habilidades ausentes devem resultar em lista vazia")
+    void testMissingAbilities() {
+        String json = "{\"name\":\"ditto\",\"height\":3,\"weight\":40,\"types\":[{\"type\":{\"name\":\"normal\"}}]}";
+
+        assertEquals(Collections.emptyList(), PokemonJsonExtractor.extract(json).abilities());
+    }
+
+    @Test
+    @DisplayName("4. Deve lançar exceção se houver conteúdo após o documento")
+    void testTrailingContent() {
+        String json = JSON_COMPLETO + "{}";
+
+        assertThrows(JsonSyntaxException.class, () -> PokemonJsonExtractor.extract(json));
+    }
+
+    @Test
+    @DisplayName("5. Deve lançar exceção se o documento não for um objeto")
+    void testNotAnObject() {
+        assertThrows(IllegalStateException.class, () -> PokemonJsonExtractor.extract("[1,2,3]"));
+    }
+
+    @Test
+    @DisplayName("6. Deve aceitar JSON leniente como o JsonParser usado antes")
+    void testLenientPayload() {
+        String json = "{name:'pikachu',height:4,weight:60,types:[{type:{name:'electric',url:'https://pokeapi.co/api/v2/type/13/'}}]}";
+
+        PokemonInfo info = PokemonJsonExtractor.extract(json);
+        Map.Entry<PokemonInfo, PokemonLinks> withLinks = PokemonJsonExtractor.extractWithLinks(json);
+
+        assertEquals("pikachu", info.name());
+        assertEquals("electric", info.primaryType());
+        assertEquals("pikachu", withLinks.getKey().name());
+        assertEquals("https://pokeapi.co/api/v2/type/13/", withLinks.getValue().types().get("electric"));
+        assertTrue(PokemonDoDia.formatPokemonData(25, json).contains("Nome: pikachu"));
+    }
+
+    @Test
+    @DisplayName("7. extractWithLinks deve rejeitar conteúdo extra e documentos que não são objetos")
+    void testExtractWithLinksValidatesDocument() {
+        assertThrows(JsonSyntaxException.class, () -> PokemonJsonExtractor.extractWithLinks(JSON_COMPLETO + "{}"));
+        assertThrows(IllegalStateException.class, () -> PokemonJsonExtractor.extractWithLinks("[1,2,3]"));
+    }
+}
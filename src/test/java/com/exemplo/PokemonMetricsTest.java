@@ -0,0 +1,148 @@
+package com.exemplo;
+
+import com.examplo.LatencyHistogram;
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonMetrics;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokemonMetricsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("1. Percentis do histograma devem ter erro relativo pequeno")
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(5_000_000, histogram.percentile(50), 5_000_000 * 0.04);
+        assertEquals(9_900_000, histogram.percentile(99), 9_900_000 * 0.04);
+        assertEquals(10_000_000, histogram.percentile(100));
+        assertEquals(10_000_000, histogram.max());
+    }
+
+    @Test
+    @DisplayName("2. Histograma vazio deve retornar zero")
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.mean());
+    }
+
+    @Test
+    @DisplayName("3. O EventListener deve registrar as fases da chamada HTTP")
+    void testEventListenerRecordsPhases() throws IOException {
+        PokemonMetrics metrics = new PokemonMetrics();
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{}").setHeadersDelay(20, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.start();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .eventListenerFactory(metrics.eventListenerFactory())
+                .build();
+        String baseUrl = server.url("/api/v2/pokemon/").toString();
+
+        PokemonDoDia.fetchPokemonData(1, client, baseUrl);
+        assertThrows(IOException.class, () -> PokemonDoDia.fetchPokemonData(2, client, baseUrl));
+        server.shutdown();
+
+        assertEquals(2, metrics.getCallCount());
+        assertEquals(1, metrics.histogram(PokemonMetrics.CONNECT).count());
+        assertEquals(2, metrics.histogram(PokemonMetrics.TTFB).count());
+        assertTrue(metrics.histogram(PokemonMetrics.TTFB).max() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(1, metrics.upstreamErrors());
+    }
+
+    @Test
+    @DisplayName("4. O relatório JSON deve conter todas as fases e ser gravado em disco")
+    void testReport() throws IOException {
+        PokemonMetrics metrics = new PokemonMetrics();
+        long start = metrics.start();
+        metrics.stop(PokemonMetrics.PARSE, start);
+        Path arquivo = dir.resolve("metricas.json");
+
+        metrics.dumpReport(arquivo.toString());
+
+        JsonObject report = JsonParser.parseString(new String(Files.readAllBytes(arquivo), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        JsonObject phases = report.getAsJsonObject("phases");
+        assertEquals(metrics.getPhases().length, phases.size());
+        assertEquals(1, phases.getAsJsonObject("parse").get("count").getAsLong());
+    }
+
+    @Test
+    @DisplayName("5. As métricas devem ficar acessíveis via JMX")
+    void testJmx() throws Exception {
+        PokemonMetrics metrics = PokemonMetrics.global();
+        metrics.registerMBean();
+        metrics.registerMBean();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(PokemonMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        String[] phases = (String[]) server.getAttribute(name, "Phases");
+        assertEquals(PokemonMetrics.CALL, phases[5]);
+    }
+
+    @Test
+    @DisplayName("6. Uma chamada cancelada de propósito não deve contar como falha")
+    void testCancelledCallIsNotAFailure() throws Exception {
+        PokemonMetrics metrics = new PokemonMetrics();
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{}").setHeadersDelay(1, TimeUnit.SECONDS));
+        server.start();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .eventListenerFactory(metrics.eventListenerFactory())
+                .build();
+        CountDownLatch terminou = new CountDownLatch(1);
+
+        Call call = client.newCall(new Request.Builder().url(server.url("/api/v2/pokemon/1")).build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                terminou.countDown();
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                response.close();
+                terminou.countDown();
+            }
+        });
+        server.takeRequest();
+        call.cancel();
+        assertTrue(terminou.await(5, TimeUnit.SECONDS));
+        server.shutdown();
+
+        assertEquals(0, metrics.failures());
+        assertEquals(0, metrics.getCallCount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.exemplo;
+
+import com.examplo.DateSeededSelector;
+import com.examplo.PokemonSelector;
+import com.examplo.ShuffleSelector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokemonSelectorTest {
+
+    private static final int TOTAL = 1025;
+    private static final LocalDate DIA = LocalDate.of(2026, 10, 18);
+
+    @Test
+    @DisplayName("1. Instâncias diferentes devem escolher o mesmo id na mesma data")
+    void testDeterministicAcrossInstances() {
+        PokemonSelector a = new DateSeededSelector(TOTAL, "frota");
+        PokemonSelector b = new DateSeededSelector(TOTAL, "frota");
+
+        for (int i = 0; i < 365; i++) {
+            assertEquals(a.select(DIA.plusDays(i)), b.select(DIA.plusDays(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("2. Ids escolhidos devem estar entre 1 e o total")
+    void testRange() {
+        PokemonSelector selector = new DateSeededSelector(TOTAL, "");
+        Set<Integer> vistos = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            int id = selector.select(DIA.plusDays(i));
+            assertTrue(id >= 1 && id <= TOTAL);
+            vistos.add(id);
+        }
+        // dias consecutivos não devem cair sempre nos mesmos poucos ids
+        assertTrue(vistos.size() > TOTAL / 2);
+    }
+
+    @Test
+    @DisplayName("3. Sais diferentes devem produzir agendas diferentes")
+    void testSaltChangesSchedule() {
+        int[] semSal = new DateSeededSelector(TOTAL, "").schedule(DIA, 30);
+        int[] comSal = new DateSeededSelector(TOTAL, "outro").schedule(DIA, 30);
+
+        assertFalse(Arrays.equals(semSal, comSal));
+    }
+
+    @Test
+    @DisplayName("4. Modo sem repetição deve mostrar todos antes de repetir")
+    void testShuffleCoversAllIds() {
+        PokemonSelector selector = new ShuffleSelector(TOTAL, "sal");
+        // primeiro dia de um ciclo: epochDay múltiplo do total
+        LocalDate inicioCiclo = LocalDate.ofEpochDay(TOTAL * 20L);
+        int[] ciclo = selector.schedule(inicioCiclo, TOTAL);
+
+        Set<Integer> vistos = new HashSet<>();
+        for (int id : ciclo) {
+            assertTrue(vistos.add(id), "id repetido no ciclo: " + id);
+        }
+        assertEquals(TOTAL, vistos.size());
+    }
+
+    @Test
+    @DisplayName("5. A agenda deve coincidir com as escolhas diárias")
+    void testScheduleMatchesSelect() {
+        PokemonSelector selector = new ShuffleSelector(TOTAL, "");
+        int[] agenda = selector.schedule(DIA, 10);
+
+        for (int i = 0; i < agenda.length; i++) {
+            assertEquals(selector.select(DIA.plusDays(i)), agenda[i]);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.exemplo;
+
+import com.examplo.PokemonServer;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokemonServerTest {
+
+    private static final String JSON_CHARIZARD = "{\"name\":\"charizard\",\"height\":17,\"weight\":905,"
+            + "\"types\":[{\"type\":{\"name\":\"fire\"}},{\"type\":{\"name\":\"flying\"}}],"
+            + "\"abilities\":[{\"ability\":{\"name\":\"blaze\"}}]}";
+
+    /** Relógio ajustável para simular a virada do dia. */
+    static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2026-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private volatile boolean fonteFora;
+    private final MutableClock clock = new MutableClock();
+    private final OkHttpClient client = new OkHttpClient();
+    private PokemonServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new PokemonServer(id -> {
+            fetches.incrementAndGet();
+            if (fonteFora) {
+                throw new IOException("fonte fora do ar");
+            }
+            return JSON_CHARIZARD;
+        }, date -> 6, clock);
+        server.start(0);
+        baseUrl = "http://localhost:" + server.port();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private String get(String path) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(baseUrl + path).build()).execute()) {
+            assertEquals(200, response.code());
+            return response.body().string();
+        }
+    }
+
+    private int status(String path) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(baseUrl + path).build()).execute()) {
+            return response.code();
+        }
+    }
+
+    /** A busca da virada do dia roda em segundo plano; espera até ela acontecer. */
+    private void aguardarBuscas(int esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (fetches.get() < esperadas && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(esperadas, fetches.get());
+    }
+
+    @Test
+    @DisplayName("1. Deve servir o texto formatado do Pokémon do dia")
+    void testServesText() throws IOException {
+        assertEquals("=== POKÉMON DO DIA ===\nID: 6\nNome: charizard\nTipo: fire\nAltura: 17\nPeso: 905", get("/"));
+    }
+
+    @Test
+    @DisplayName("2. Deve servir a visão JSON")
+    void testServesJson() throws IOException {
+        JsonObject json = JsonParser.parseString(get("/json")).getAsJsonObject();
+
+        assertEquals(6, json.get("id").getAsInt());
+        assertEquals("charizard", json.get("name").getAsString());
+        assertEquals("flying", json.getAsJsonArray("types").get(1).getAsString());
+        assertEquals("blaze", json.getAsJsonArray("abilities").get(0).getAsString());
+    }
+
+    @Test
+    @DisplayName("3. Leitores concorrentes devem causar uma única busca na fonte")
+    void testConcurrentReadersFetchOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String path = i % 2 == 0 ? "/" : "/json";
+            results.add(pool.submit(() -> get(path)));
+        }
+        for (Future<String> result : results) {
+            assertTrue(result.get().contains("charizard"));
+        }
+        pool.shutdown();
+
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    @DisplayName("4. A fonte só deve ser consultada de novo quando o dia muda")
+    void testRefetchOnlyOnRotation() throws Exception {
+        get("/");
+        clock.advance(Duration.ofHours(6));
+        get("/json");
+        assertEquals(1, fetches.get());
+
+        clock.advance(Duration.ofDays(1));
+        get("/");
+        aguardarBuscas(2);
+    }
+
+    @Test
+    @DisplayName("5. Na virada do dia com a fonte fora, deve servir a escolha anterior e esperar para buscar de novo")
+    void testServesPreviousPickWhileRefreshFails() throws Exception {
+        get("/");
+        fonteFora = true;
+        clock.advance(Duration.ofDays(1));
+
+        assertTrue(get("/").contains("charizard"));
+        aguardarBuscas(2);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(get(i % 2 == 0 ? "/" : "/json").contains("charizard"));
+        }
+        assertEquals(2, fetches.get());
+
+        // passada a espera, uma nova busca; com a fonte de volta, a escolha do dia é trocada
+        fonteFora = false;
+        clock.advance(Duration.ofSeconds(6));
+        get("/");
+        aguardarBuscas(3);
+        get("/");
+        assertEquals(3, fetches.get());
+    }
+
+    @Test
+    @DisplayName("6. Sem escolha anterior, uma falha deve responder 502 sem repetir a busca a cada requisição")
+    void testFailedFirstPickBacksOff() throws Exception {
+        fonteFora = true;
+        for (int i = 0; i < 10; i++) {
+            assertEquals(502, status("/"));
+        }
+        assertEquals(1, fetches.get());
+
+        fonteFora = false;
+        clock.advance(Duration.ofSeconds(6));
+        assertTrue(get("/").contains("charizard"));
+        assertEquals(2, fetches.get());
+    }
+}
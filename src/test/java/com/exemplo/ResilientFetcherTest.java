@@ -0,0 +1,318 @@
+package com.exemplo;
+
+import com.examplo.CircuitBreaker;
+import com.examplo.PokemonCache;
+import com.examplo.ResilientFetcher;
+import com.examplo.RetryBudget;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResilientFetcherTest {
+
+    private static final String JSON_DITTO = PokeApiFixtures.ditto();
+
+    @TempDir
+    Path cacheDir;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient();
+        baseUrl = server.url("/api/v2/pokemon/").toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private ResilientFetcher.Builder builder() {
+        return ResilientFetcher.builder(client, baseUrl)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    @Test
+    @DisplayName("1. O hedge deve responder antes da primeira requisição lenta")
+    void testHedgeWinsOverSlowResponse() throws IOException {
+        AtomicInteger chamadas = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                MockResponse response = new MockResponse().setBody(JSON_DITTO);
+                if (chamadas.getAndIncrement() == 0) {
+                    response.setHeadersDelay(3, TimeUnit.SECONDS);
+                }
+                return response;
+            }
+        });
+        ResilientFetcher fetcher = builder().initialHedgeDelay(Duration.ofMillis(50)).build();
+
+        long inicio = System.nanoTime();
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        long decorrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertTrue(decorrido < 2000, "demorou " + decorrido + " ms");
+        assertEquals(1, fetcher.hedges());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("2. Erro 5xx deve ser repetido até o sucesso")
+    void testRetriesServerErrors() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody(JSON_DITTO));
+        ResilientFetcher fetcher = builder().hedging(false).build();
+
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(2, fetcher.retries());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, fetcher.circuitBreaker().state());
+    }
+
+    @Test
+    @DisplayName("3. Erro 404 não deve ser repetido")
+    void testNotFoundIsNotRetried() {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        ResilientFetcher fetcher = builder().hedging(false).build();
+
+        IOException e = assertThrows(IOException.class, () -> fetcher.fetch(99999));
+        assertEquals("Não foi possível buscar o Pokémon (status: 404)", e.getMessage());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("4. O prazo deve limitar a busca inteira")
+    void testDeadline() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(JSON_DITTO).setHeadersDelay(3, TimeUnit.SECONDS);
+            }
+        });
+        ResilientFetcher fetcher = builder()
+                .deadline(Duration.ofMillis(300))
+                .initialHedgeDelay(Duration.ofMillis(100))
+                .build();
+
+        long inicio = System.nanoTime();
+        assertThrows(InterruptedIOException.class, () -> fetcher.fetch(132));
+        long decorrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertTrue(decorrido < 1500, "demorou " + decorrido + " ms");
+    }
+
+    @Test
+    @DisplayName("5. Sem fichas no orçamento, não deve haver novas tentativas")
+    void testRetryBudgetExhausted() {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        ResilientFetcher fetcher = builder()
+                .hedging(false)
+                .maxAttempts(5)
+                .retryBudget(new RetryBudget(1, 0.1))
+                .build();
+
+        assertThrows(IOException.class, () -> fetcher.fetch(132));
+        assertEquals(1, fetcher.retries());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("6. Com o circuito aberto, deve falhar rápido e devolver o valor do cache")
+    void testCircuitBreakerFallsBackToCache() throws IOException {
+        // TTL zero: a entrada existe mas está sempre vencida
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ZERO, 1024 * 1024);
+        cache.store(132, JSON_DITTO, "\"v1\"", null);
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        ResilientFetcher fetcher = builder()
+                .cache(cache)
+                .hedging(false)
+                .maxAttempts(2)
+                .circuitBreaker(new CircuitBreaker(2, TimeUnit.MINUTES.toNanos(1)))
+                .build();
+
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(CircuitBreaker.State.OPEN, fetcher.circuitBreaker().state());
+        assertEquals(4, server.getRequestCount());
+
+        // aberto: não toca a rede
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(4, server.getRequestCount());
+        assertEquals(1, fetcher.rejected());
+        assertEquals(3, fetcher.fallbacks());
+    }
+
+    @Test
+    @DisplayName("7. O disjuntor deve fechar depois de uma chamada de teste bem-sucedida")
+    void testCircuitBreakerHalfOpen() {
+        long[] agora = {0};
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, () -> agora[0]);
+
+        breaker.recordFailure();
+        assertFalse(breaker.allowRequest());
+        agora[0] = 1000;
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("8. Busca interrompida durante a chamada de teste deve liberar o meio aberto")
+    void testInterruptedTrialIsReleased() throws Exception {
+        long[] agora = {0};
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, () -> agora[0]);
+        breaker.recordFailure();
+        agora[0] = 1000;
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody(JSON_DITTO));
+        ResilientFetcher fetcher = ResilientFetcher.builder(client, baseUrl)
+                .hedging(false)
+                .backoff(Duration.ofSeconds(4), Duration.ofSeconds(4))
+                .circuitBreaker(breaker)
+                .build();
+
+        // a chamada de teste recebe 503 e fica na espera antes de repetir; aí é interrompida
+        Thread worker = new Thread(() -> assertThrows(InterruptedIOException.class, () -> fetcher.fetch(132)));
+        worker.start();
+        server.takeRequest(2, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        worker.interrupt();
+        worker.join(2000);
+
+        assertFalse(worker.isAlive());
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    @DisplayName("9. O dispatcher deve comportar a concorrência configurada sem fila")
+    void testDispatcherSizedToConcurrency() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(JSON_DITTO).setHeadersDelay(1, TimeUnit.SECONDS);
+            }
+        });
+        // acima de 5 por host o dispatcher padrão enfileiraria, e as últimas estourariam o prazo
+        ResilientFetcher fetcher = builder()
+                .hedging(false)
+                .maxAttempts(1)
+                .deadline(Duration.ofMillis(1800))
+                .concurrency(8)
+                .build();
+
+        AtomicInteger sucessos = new AtomicInteger();
+        Thread[] workers = new Thread[8];
+        for (int i = 0; i < workers.length; i++) {
+            int id = i + 1;
+            workers[i] = new Thread(() -> {
+                try {
+                    fetcher.fetch(id);
+                    sucessos.incrementAndGet();
+                } catch (IOException e) {
+                    // conta como falha
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(8, sucessos.get());
+    }
+
+    @Test
+    @DisplayName("10. Interrupção não deve contar como falha nem gerar nova tentativa")
+    void testInterruptIsNotAFailure() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(JSON_DITTO).setHeadersDelay(1, TimeUnit.SECONDS);
+            }
+        });
+        CircuitBreaker breaker = new CircuitBreaker(1, TimeUnit.MINUTES.toNanos(1));
+        ResilientFetcher ultima = builder().hedging(false).maxAttempts(1).circuitBreaker(breaker).build();
+        ResilientFetcher comTentativas = builder().hedging(false).build();
+
+        for (ResilientFetcher fetcher : new ResilientFetcher[]{ultima, comTentativas}) {
+            boolean[] interrompida = {false};
+            Thread worker = new Thread(() -> {
+                assertThrows(InterruptedIOException.class, () -> fetcher.fetch(132));
+                interrompida[0] = Thread.currentThread().isInterrupted();
+            });
+            worker.start();
+            server.takeRequest(2, TimeUnit.SECONDS);
+            worker.interrupt();
+            worker.join(2000);
+
+            assertFalse(worker.isAlive());
+            assertTrue(interrompida[0]);
+            assertEquals(0, fetcher.retries());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    @DisplayName("11. Sem fichas no orçamento, não deve haver hedge")
+    void testHedgeChargedToRetryBudget() throws IOException {
+        server.enqueue(new MockResponse().setBody(JSON_DITTO).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody(JSON_DITTO));
+        ResilientFetcher fetcher = builder()
+                .initialHedgeDelay(Duration.ofMillis(50))
+                .retryBudget(new RetryBudget(1, 0))
+                .build();
+
+        // a primeira busca gasta a única ficha no hedge; a segunda espera a requisição lenta
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(1, fetcher.hedges());
+        server.enqueue(new MockResponse().setBody(JSON_DITTO).setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(1, fetcher.hedges());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("12. Falha ao gravar no cache não deve falhar uma busca que já tem a resposta")
+    void testCacheWriteFailureStillReturnsBody() throws IOException {
+        PokemonCache cache = new PokemonCache(cacheDir, Duration.ofHours(1), 1024 * 1024);
+        // um diretório no lugar do arquivo do corpo faz a gravação falhar
+        Files.createDirectories(cacheDir.resolve("132.json").resolve("ocupado"));
+        server.enqueue(new MockResponse().setBody(JSON_DITTO));
+        ResilientFetcher fetcher = builder().cache(cache).hedging(false).build();
+
+        assertEquals(JSON_DITTO, fetcher.fetch(132));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, fetcher.circuitBreaker().state());
+    }
+}
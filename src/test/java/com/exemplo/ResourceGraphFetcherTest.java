@@ -0,0 +1,250 @@
+package com.exemplo;
+
+import com.examplo.EnrichedPokemon;
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonInfo;
+import com.examplo.PokemonJsonExtractor;
+import com.examplo.PokemonLinks;
+import com.examplo.ResourceGraphFetcher;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceGraphFetcherTest {
+
+    private static final Set<ResourceGraphFetcher.Link> TODOS = EnumSet.allOf(ResourceGraphFetcher.Link.class);
+
+    /** Relações de dano de alguns tipos, pelo id usado nas urls da PokéAPI. */
+    private static final Map<String, String> TIPOS = new HashMap<>();
+
+    static {
+        TIPOS.put("3", tipo("flying", new String[]{"electric", "ice", "rock"},
+                new String[]{"grass", "fighting", "bug"}, new String[]{"ground"}));
+        TIPOS.put("4", tipo("poison", new String[]{"ground", "psychic"},
+                new String[]{"fighting", "poison", "bug", "grass", "fairy"}, new String[0]));
+        TIPOS.put("10", tipo("fire", new String[]{"water", "ground", "rock"},
+                new String[]{"fire", "grass", "ice", "bug", "steel", "fairy"}, new String[0]));
+        TIPOS.put("12", tipo("grass", new String[]{"fire", "ice", "poison", "flying", "bug"},
+                new String[]{"ground", "water", "grass", "electric"}, new String[0]));
+    }
+
+    private MockWebServer server;
+    private ResourceGraphFetcher fetcher;
+    private final Map<String, AtomicInteger> pedidos = new ConcurrentHashMap<>();
+    private final Map<String, Integer> falhasRestantes = new ConcurrentHashMap<>();
+    private final Map<String, String> retryAfter = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                pedidos.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                String espera = retryAfter.remove(path);
+                if (espera != null) {
+                    return new MockResponse().setResponseCode(429).setHeader("Retry-After", espera);
+                }
+                Integer falhas = falhasRestantes.get(path);
+                if (falhas != null) {
+                    // negativo: o recurso não existe
+                    if (falhas < 0) {
+                        return new MockResponse().setResponseCode(404);
+                    }
+                    if (falhas > 0 && falhasRestantes.replace(path, falhas, falhas - 1)) {
+                        return new MockResponse().setResponseCode(503);
+                    }
+                }
+                String[] partes = path.split("/");
+                String recurso = partes[3];
+                String id = partes[4];
+                if ("type".equals(recurso) && TIPOS.containsKey(id)) {
+                    return new MockResponse().setBody(TIPOS.get(id));
+                }
+                if ("ability".equals(recurso)) {
+                    return new MockResponse().setBody("{\"name\":\"habilidade-" + id + "\",\"effect_entries\":["
+                            + "{\"effect\":\"Lang.\",\"language\":{\"name\":\"de\",\"url\":\"x\"},\"short_effect\":\"Kurz " + id + "\"},"
+                            + "{\"effect\":\"Long.\",\"language\":{\"name\":\"en\",\"url\":\"x\"},\"short_effect\":\"Short " + id + "\"}]}");
+                }
+                if ("pokemon-species".equals(recurso)) {
+                    return new MockResponse().setBody("{\"id\":" + id + ",\"genera\":["
+                            + "{\"genus\":\"たねポケモン\",\"language\":{\"name\":\"ja\",\"url\":\"x\"}},"
+                            + "{\"genus\":\"Species " + id + "\",\"language\":{\"name\":\"en\",\"url\":\"x\"}}]}");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+        fetcher = new ResourceGraphFetcher(new OkHttpClient(), server.url("/api/v2/").toString(), 8, 3);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        fetcher.shutdown();
+        server.shutdown();
+    }
+
+    private static String tipo(String nome, String[] dobro, String[] metade, String[] nenhum) {
+        return "{\"id\":1,\"name\":\"" + nome + "\",\"damage_relations\":{"
+                + "\"double_damage_from\":" + refs(dobro) + ",\"double_damage_to\":[],"
+                + "\"half_damage_from\":" + refs(metade) + ",\"half_damage_to\":[],"
+                + "\"no_damage_from\":" + refs(nenhum) + ",\"no_damage_to\":[]},\"moves\":[]}";
+    }
+
+    private static String refs(String[] nomes) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < nomes.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"").append(nomes[i]).append("\",\"url\":\"x\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static Map<Integer, String> lote(int tamanho) {
+        String[][] tipos = {{"grass", "poison"}, {"fire"}, {"fire", "flying"}, {"grass"}};
+        Map<Integer, String> entradas = new TreeMap<>();
+        for (int id = 1; id <= tamanho; id++) {
+            entradas.put(id, PokeApiFixtures.payload(id, "pokemon-" + id, 7, 69,
+                    tipos[id % tipos.length], new String[]{"overgrow", "chlorophyll"}, 1));
+        }
+        return entradas;
+    }
+
+    @Test
+    @DisplayName("1. Cada recurso ligado deve ser buscado uma única vez no lote inteiro")
+    void testEachLinkedResourceFetchedOnce() throws InterruptedException {
+        ResourceGraphFetcher.Result resultado = fetcher.enrich(lote(40), TODOS);
+
+        assertEquals(40, resultado.records().size());
+        assertTrue(resultado.failedUrls().isEmpty());
+        for (Map.Entry<String, AtomicInteger> pedido : pedidos.entrySet()) {
+            assertEquals(1, pedido.getValue().get(), pedido.getKey());
+        }
+        long requisicoesDeTipo = pedidos.keySet().stream().filter(p -> p.startsWith("/api/v2/type/")).count();
+        assertEquals(4, requisicoesDeTipo);
+        assertEquals(pedidos.size(), resultado.requests());
+        // 40 espécies, 80 habilidades e 60 tipos citados
+        assertEquals(180, resultado.references());
+    }
+
+    @Test
+    @DisplayName("2. Os registros devem combinar as relações de dano e os textos no idioma pedido")
+    void testAssembledRecords() throws InterruptedException {
+        Map<Integer, String> entradas = new TreeMap<>();
+        entradas.put(1, PokeApiFixtures.payload(1, "bulbasaur", 7, 69,
+                new String[]{"grass", "poison"}, new String[]{"overgrow", "chlorophyll"}, 1));
+        entradas.put(6, PokeApiFixtures.payload(6, "charizard", 17, 905,
+                new String[]{"fire", "flying"}, new String[]{"blaze"}, 1));
+
+        Map<Integer, EnrichedPokemon> registros = fetcher.enrich(entradas, TODOS).records();
+
+        EnrichedPokemon bulbasaur = registros.get(1);
+        assertEquals("bulbasaur", bulbasaur.info().name());
+        assertEquals("Species 1", bulbasaur.genus());
+        assertEquals(Arrays.asList("overgrow", "chlorophyll"), Arrays.asList(bulbasaur.abilityEffects().keySet().toArray()));
+        assertEquals("Short 31", bulbasaur.abilityEffects().get("overgrow"));
+        assertEquals(Arrays.asList("fire", "ice", "flying", "psychic"),
+                Arrays.asList(bulbasaur.weaknesses().keySet().toArray()));
+
+        EnrichedPokemon charizard = registros.get(6);
+        Map<String, Double> fraquezas = charizard.weaknesses();
+        assertEquals("rock", fraquezas.keySet().iterator().next());
+        assertEquals(4.0, fraquezas.get("rock"));
+        assertEquals(2.0, fraquezas.get("water"));
+        assertFalse(fraquezas.containsKey("ground"));
+        assertEquals(0.0, charizard.types().get(1).multiplierFrom("ground"));
+    }
+
+    @Test
+    @DisplayName("3. Erros 5xx devem ser repetidos e recursos ausentes devem ficar de fora")
+    void testRetriesAndFailures() throws InterruptedException {
+        falhasRestantes.put("/api/v2/type/4/", -1);
+        falhasRestantes.put("/api/v2/type/12/", 2);
+        Map<Integer, String> entradas = new TreeMap<>();
+        entradas.put(1, PokeApiFixtures.payload(1, "bulbasaur", 7, 69,
+                new String[]{"grass", "poison"}, new String[]{"overgrow"}, 1));
+
+        ResourceGraphFetcher.Result resultado = fetcher.enrich(entradas, EnumSet.of(ResourceGraphFetcher.Link.TYPE));
+
+        assertEquals(1, resultado.failedUrls().size());
+        assertTrue(resultado.failedUrls().get(0).endsWith("/api/v2/type/4/"));
+        assertEquals(3, pedidos.get("/api/v2/type/12/").get());
+        EnrichedPokemon registro = resultado.records().get(1);
+        assertEquals(1, registro.types().size());
+        assertEquals("grass", registro.types().get(0).name());
+        // sem as relações do poison, as fraquezas calculadas só com grass estariam erradas
+        assertFalse(registro.isComplete());
+        assertEquals(EnumSet.of(ResourceGraphFetcher.Link.TYPE), registro.incompleteLinks());
+        assertThrows(IllegalStateException.class, registro::weaknesses);
+    }
+
+    @Test
+    @DisplayName("4. Só os links pedidos devem ser seguidos")
+    void testOnlySelectedLinks() throws InterruptedException {
+        ResourceGraphFetcher.Result resultado = fetcher.enrich(lote(8), EnumSet.of(ResourceGraphFetcher.Link.SPECIES));
+
+        assertEquals(8, resultado.requests());
+        assertTrue(pedidos.keySet().stream().allMatch(p -> p.startsWith("/api/v2/pokemon-species/")));
+        assertTrue(resultado.records().get(3).types().isEmpty());
+        assertTrue(resultado.records().get(3).abilityEffects().isEmpty());
+        assertEquals("Species 3", resultado.records().get(3).genus());
+    }
+
+    @Test
+    @DisplayName("5. Os links devem ser extraídos do payload na ordem dos slots")
+    void testExtractLinks() {
+        String json = PokeApiFixtures.payload(6, "charizard", 17, 905,
+                new String[]{"fire", "flying"}, new String[]{"blaze", "solar-power"}, 3);
+        Map.Entry<PokemonInfo, PokemonLinks> ambos = PokemonJsonExtractor.extractWithLinks(json);
+        PokemonLinks links = ambos.getValue();
+
+        assertEquals(Arrays.asList("fire", "flying"), Arrays.asList(links.types().keySet().toArray()));
+        assertEquals("https://pokeapi.co/api/v2/type/10/", links.types().get("fire"));
+        assertEquals("https://pokeapi.co/api/v2/ability/37/", links.abilities().get("solar-power"));
+        assertEquals("https://pokeapi.co/api/v2/pokemon-species/6/", links.speciesUrl());
+
+        // na mesma leitura, os mesmos campos de extract
+        assertEquals(PokemonDoDia.formatPokemonInfo(6, PokemonJsonExtractor.extract(json)),
+                PokemonDoDia.formatPokemonInfo(6, ambos.getKey()));
+    }
+
+    @Test
+    @DisplayName("6. Um 429 deve ser repetido só depois do Retry-After")
+    void testRetryAfterIsHonoured() throws InterruptedException {
+        retryAfter.put("/api/v2/pokemon-species/1/", "1");
+        Map<Integer, String> entradas = new TreeMap<>();
+        entradas.put(1, PokeApiFixtures.payload(1, "bulbasaur", 7, 69,
+                new String[]{"grass"}, new String[]{"overgrow"}, 1));
+
+        long inicio = System.nanoTime();
+        ResourceGraphFetcher.Result resultado = fetcher.enrich(entradas, EnumSet.of(ResourceGraphFetcher.Link.SPECIES));
+
+        assertTrue(System.nanoTime() - inicio >= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, pedidos.get("/api/v2/pokemon-species/1/").get());
+        assertTrue(resultado.failedUrls().isEmpty());
+        assertEquals("Species 1", resultado.records().get(1).genus());
+        assertTrue(resultado.records().get(1).isComplete());
+    }
+}
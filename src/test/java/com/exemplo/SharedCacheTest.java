@@ -0,0 +1,198 @@
+package com.exemplo;
+
+import com.examplo.PokemonCache;
+import com.examplo.PokemonDoDia;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedCacheTest {
+
+    private static final String JSON_DITTO = PokeApiFixtures.ditto();
+
+    @TempDir
+    Path cacheDir;
+
+    private MockWebServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        // resposta lenta: todos os processos chegam enquanto o primeiro ainda busca
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(JSON_DITTO).setHeader("ETag", "\"v1\"")
+                        .setHeadersDelay(500, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        baseUrl = server.url("/api/v2/pokemon/").toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private PokemonCache novoCache() throws IOException {
+        return new PokemonCache(cacheDir, Duration.ofHours(1), PokemonCache.TAMANHO_MAXIMO_PADRAO);
+    }
+
+    @Test
+    @DisplayName("1. Várias JVMs com o mesmo diretório devem buscar o id uma única vez")
+    void testConcurrentJvmsFetchOnce() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            processos.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    SharedCacheWorker.class.getName(), cacheDir.toString(), baseUrl, "132")
+                    .redirectErrorStream(true)
+                    .start());
+        }
+        for (Process processo : processos) {
+            String saida;
+            try (InputStream in = processo.getInputStream()) {
+                saida = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(processo.waitFor(60, TimeUnit.SECONDS));
+            assertTrue(saida.contains("corpo=" + JSON_DITTO.length()), saida);
+        }
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("2. Threads com instâncias separadas do cache devem buscar o id uma única vez")
+    void testConcurrentThreadsFetchOnce() throws Exception {
+        OkHttpClient client = new OkHttpClient();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                PokemonCache cache = novoCache();
+                resultados.add(executor.submit(() -> PokemonDoDia.fetchPokemonData(132, client, baseUrl, cache)));
+            }
+            for (Future<String> resultado : resultados) {
+                assertEquals(JSON_DITTO, resultado.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("3. Um leitor nunca deve ver corpo e metadados de gravações diferentes")
+    void testReadersNeverSeeTornEntries() throws Exception {
+        PokemonCache escritor = novoCache();
+        PokemonCache leitor = novoCache();
+        escritor.store(7, "{\"versao\":0}", "\"0\"", null);
+        AtomicBoolean parar = new AtomicBoolean();
+        Thread gravacoes = new Thread(() -> {
+            try {
+                for (int versao = 1; !parar.get(); versao++) {
+                    escritor.store(7, "{\"versao\":" + versao + "}", "\"" + versao + "\"", null);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        gravacoes.start();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                PokemonCache.Entry entrada = leitor.lookup(7);
+                if (entrada != null) {
+                    String versao = entrada.etag().replace("\"", "");
+                    assertEquals("{\"versao\":" + versao + "}", entrada.body());
+                }
+            }
+        } finally {
+            parar.set(true);
+            gravacoes.join();
+        }
+    }
+
+    @Test
+    @DisplayName("4. Leituras não devem esperar pela trava de atualização")
+    void testReadersDoNotBlockOnRefreshLock() throws Exception {
+        PokemonCache cache = novoCache();
+        cache.store(25, JSON_DITTO, "\"v1\"", null);
+        CountDownLatch leu = new CountDownLatch(1);
+
+        try (PokemonCache.RefreshLock trava = cache.lockForRefresh(25)) {
+            Thread leitor = new Thread(() -> {
+                try {
+                    if (novoCache().lookup(25) != null) {
+                        leu.countDown();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            leitor.start();
+            assertTrue(leu.await(5, TimeUnit.SECONDS));
+            leitor.join();
+        }
+    }
+
+    @Test
+    @DisplayName("5. O limite de tamanho deve valer para o diretório, com entradas de outras instâncias")
+    void testSizeLimitCoversOtherInstances() throws Exception {
+        // o limite conta corpo e .meta: mede uma entrada e cabem exatamente três
+        PokemonCache medida = new PokemonCache(cacheDir.resolve("medida"), Duration.ofHours(1), 1024 * 1024);
+        medida.store(1, JSON_DITTO, null, null);
+        long limite = medida.sizeInBytes() * 3L;
+        PokemonCache outro = new PokemonCache(cacheDir, Duration.ofHours(1), limite);
+        PokemonCache este = new PokemonCache(cacheDir, Duration.ofHours(1), limite);
+        for (int id = 1; id <= 3; id++) {
+            outro.store(id, JSON_DITTO, null, null);
+        }
+        Thread.sleep(50);
+
+        for (int id = 4; id <= 7; id++) {
+            este.store(id, JSON_DITTO, null, null);
+        }
+
+        // sem recontar, "este" só veria as próprias 4 entradas e deixaria 6 no diretório
+        List<String> restantes = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(cacheDir, "*.json")) {
+            for (Path arquivo : arquivos) {
+                restantes.add(arquivo.getFileName().toString());
+            }
+        }
+        Collections.sort(restantes);
+        assertEquals(Arrays.asList("5.json", "6.json", "7.json"), restantes);
+        assertTrue(este.sizeInBytes() <= limite);
+    }
+}
@@ -0,0 +1,33 @@
+package com.exemplo;
+
+import com.examplo.PokemonCache;
+import com.examplo.ResilientFetcher;
+import okhttp3.OkHttpClient;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Processo filho do {@link SharedCacheTest}: busca um id pelo cache compartilhado
+ * e imprime o tamanho do corpo obtido.
+ * Argumentos: diretório do cache, url base e id.
+ */
+public final class SharedCacheWorker {
+
+    private SharedCacheWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        PokemonCache cache = new PokemonCache(Paths.get(args[0]), Duration.ofHours(1), PokemonCache.TAMANHO_MAXIMO_PADRAO);
+        OkHttpClient client = new OkHttpClient();
+        ResilientFetcher fetcher = ResilientFetcher.builder(client, args[1])
+                .cache(cache)
+                .hedging(false)
+                .deadline(Duration.ofSeconds(20))
+                .build();
+        String body = fetcher.fetch(Integer.parseInt(args[2]));
+        System.out.println("corpo=" + body.length());
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+}
@@ -0,0 +1,247 @@
+package com.exemplo;
+
+import com.examplo.PokemonJsonExtractor;
+import com.examplo.PokemonServer;
+import com.examplo.SpriteStore;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private MockWebServer server;
+    private final OkHttpClient client = new OkHttpClient();
+    private final Map<String, byte[]> imagens = new ConcurrentHashMap<>();
+    private final AtomicInteger pedidos = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                pedidos.incrementAndGet();
+                byte[] imagem = imagens.get(request.getPath());
+                if (imagem == null) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                return new MockResponse().setHeader("Content-Type", "image/png").setBody(new Buffer().write(imagem));
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private static byte[] imagem(int tamanho, long semente) {
+        byte[] bytes = new byte[tamanho];
+        new Random(semente).nextBytes(bytes);
+        return bytes;
+    }
+
+    /** Bytes alocados pela thread atual: o download síncrono do OkHttp roda nela. */
+    private static long alocadoNaThread() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    @DisplayName("1. O sprite deve ir para disco com o nome do hash do conteúdo e depois ser lido dele")
+    void testContentAddressedAndServedFromDisk() throws IOException {
+        byte[] png = imagem(50_000, 1);
+        imagens.put("/sprites/6.png", png);
+        SpriteStore store = new SpriteStore(dir, client);
+        String url = server.url("/sprites/6.png").toString();
+
+        SpriteStore.Sprite sprite = store.fetch(url);
+
+        assertEquals(ByteString.of(png).sha256().hex(), sprite.hash());
+        assertEquals(sprite.hash(), sprite.path().getFileName().toString());
+        assertArrayEquals(png, Files.readAllBytes(sprite.path()));
+        assertEquals("image/png", sprite.contentType());
+
+        SpriteStore reaberto = new SpriteStore(dir, client);
+        assertEquals(sprite.path(), reaberto.fetch(url).path());
+        assertEquals(1, pedidos.get());
+        assertEquals(0, reaberto.downloads());
+    }
+
+    @Test
+    @DisplayName("2. Imagens idênticas em urls diferentes devem ser guardadas uma única vez")
+    void testIdenticalImagesDeduplicated() throws IOException {
+        byte[] png = imagem(20_000, 2);
+        imagens.put("/sprites/25.png", png);
+        imagens.put("/sprites/25-cosplay.png", png);
+        imagens.put("/sprites/26.png", imagem(20_000, 3));
+        SpriteStore store = new SpriteStore(dir, client);
+
+        Path a = store.fetch(server.url("/sprites/25.png").toString()).path();
+        Path b = store.fetch(server.url("/sprites/25-cosplay.png").toString()).path();
+        Path c = store.fetch(server.url("/sprites/26.png").toString()).path();
+
+        assertEquals(a, b);
+        assertNotEquals(a, c);
+        assertEquals(3, store.downloads());
+        assertEquals(1, store.deduplicated());
+        try (Stream<Path> arquivos = Files.walk(dir.resolve("blobs"))) {
+            assertEquals(2, arquivos.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("3. O heap usado no download não deve crescer com o tamanho da imagem")
+    void testConstantHeapRegardlessOfSize() throws IOException {
+        imagens.put("/pequena.png", imagem(256 * 1024, 4));
+        imagens.put("/grande.png", imagem(32 * 1024 * 1024, 5));
+        SpriteStore store = new SpriteStore(dir, client);
+        // aquece conexão, pool de segmentos e classes
+        imagens.put("/aquecimento.png", imagem(64 * 1024, 6));
+        store.fetch(server.url("/aquecimento.png").toString());
+
+        long antes = alocadoNaThread();
+        store.fetch(server.url("/pequena.png").toString());
+        long pequena = alocadoNaThread() - antes;
+        antes = alocadoNaThread();
+        SpriteStore.Sprite grande = store.fetch(server.url("/grande.png").toString());
+        long alocadoGrande = alocadoNaThread() - antes;
+
+        assertEquals(32 * 1024 * 1024, Files.size(grande.path()));
+        // 128x mais bytes; a alocação fica na mesma ordem e muito abaixo do tamanho da imagem
+        assertTrue(alocadoGrande < 4 * 1024 * 1024, "grande alocou " + alocadoGrande + " bytes");
+        assertTrue(alocadoGrande < pequena + 4 * 1024 * 1024, "pequena " + pequena + ", grande " + alocadoGrande);
+    }
+
+    @Test
+    @DisplayName("4. Falhas não devem deixar arquivos no disco")
+    void testFailureLeavesNothingBehind() throws IOException {
+        SpriteStore store = new SpriteStore(dir, client);
+
+        assertThrows(IOException.class, () -> store.fetch(server.url("/ausente.png").toString()));
+        assertNull(store.lookup(server.url("/ausente.png").toString()));
+        try (Stream<Path> arquivos = Files.walk(dir)) {
+            assertEquals(0, arquivos.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("5. Devem ser extraídas as urls de sprites, e só as escolhidas baixadas")
+    void testExtractAndFetchChosen() throws IOException {
+        String payload = PokeApiFixtures.payload(6, "charizard", 17, 905,
+                new String[]{"fire", "flying"}, new String[]{"blaze"}, 1);
+        Map<String, String> sprites = PokemonJsonExtractor.extractSprites(payload);
+
+        assertEquals("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/6.png",
+                sprites.get("front_default"));
+        assertEquals("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/6.png",
+                sprites.get("other/official-artwork/front_default"));
+        assertFalse(sprites.containsKey("front_female"));
+        assertTrue(sprites.keySet().stream().anyMatch(k -> k.startsWith("versions/generation-8/")));
+
+        String local = payload.replace("https://raw.githubusercontent.com/PokeAPI/sprites/master",
+                server.url("").toString().replaceAll("/$", ""));
+        imagens.put("/sprites/pokemon/6.png", imagem(1000, 7));
+        imagens.put("/sprites/pokemon/other/official-artwork/6.png", imagem(3000, 8));
+        SpriteStore store = new SpriteStore(dir, client);
+
+        List<SpriteStore.Sprite> baixados = store.fetchAll(local, Arrays.asList("front_default", "inexistente",
+                "other/official-artwork/front_default"));
+
+        assertEquals(2, baixados.size());
+        assertEquals(3000, Files.size(baixados.get(1).path()));
+        assertEquals(2, pedidos.get());
+    }
+
+    @Test
+    @DisplayName("6. O servidor deve entregar a imagem do dia a partir do disco")
+    void testServerServesSprite() throws IOException {
+        byte[] png = imagem(70_000, 9);
+        imagens.put("/sprites/pokemon/6.png", png);
+        String payload = PokeApiFixtures.payload(6, "charizard", 17, 905,
+                new String[]{"fire", "flying"}, new String[]{"blaze"}, 1)
+                .replace("https://raw.githubusercontent.com/PokeAPI/sprites/master",
+                        server.url("").toString().replaceAll("/$", ""));
+        PokemonServer pokemonServer = new PokemonServer(id -> payload, date -> 6, Clock.systemUTC(),
+                new SpriteStore(dir, client), "front_default");
+        pokemonServer.start(0);
+        try {
+            for (int i = 0; i < 3; i++) {
+                Request request = new Request.Builder().url("http://localhost:" + pokemonServer.port() + "/sprite").build();
+                try (Response response = client.newCall(request).execute()) {
+                    assertEquals(200, response.code());
+                    assertEquals("image/png", response.header("Content-Type"));
+                    assertArrayEquals(png, response.body().bytes());
+                }
+            }
+        } finally {
+            pokemonServer.stop();
+        }
+        assertEquals(1, pedidos.get());
+    }
+
+    @Test
+    @DisplayName("7. O servidor deve responder 304 quando o If-None-Match casa com o ETag do sprite")
+    void testServerAnswersNotModified() throws IOException {
+        imagens.put("/sprites/pokemon/6.png", imagem(5_000, 10));
+        String payload = PokeApiFixtures.payload(6, "charizard", 17, 905,
+                new String[]{"fire", "flying"}, new String[]{"blaze"}, 1)
+                .replace("https://raw.githubusercontent.com/PokeAPI/sprites/master",
+                        server.url("").toString().replaceAll("/$", ""));
+        PokemonServer pokemonServer = new PokemonServer(id -> payload, date -> 6, Clock.systemUTC(),
+                new SpriteStore(dir, client), "front_default");
+        pokemonServer.start(0);
+        try {
+            String url = "http://localhost:" + pokemonServer.port() + "/sprite";
+            String etag;
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                assertEquals(200, response.code());
+                etag = response.header("ETag");
+                assertNotNull(etag);
+            }
+            Request condicional = new Request.Builder().url(url).header("If-None-Match", "W/" + etag).build();
+            try (Response response = client.newCall(condicional).execute()) {
+                assertEquals(304, response.code());
+                assertEquals(etag, response.header("ETag"));
+                assertEquals(0, response.body().bytes().length);
+            }
+            Request outro = new Request.Builder().url(url).header("If-None-Match", "\"outro\"").build();
+            try (Response response = client.newCall(outro).execute()) {
+                assertEquals(200, response.code());
+            }
+        } finally {
+            pokemonServer.stop();
+        }
+        assertEquals(1, pedidos.get());
+    }
+}
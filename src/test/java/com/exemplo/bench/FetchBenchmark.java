@@ -0,0 +1,78 @@
+package com.exemplo.bench;
+
+import com.examplo.PokemonDoDia;
+import com.exemplo.PokeApiFixtures;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca, extração e formatação de ponta a ponta contra um MockWebServer local.
+ * "cold" descarta o pool de conexões a cada chamada; "warm" reaproveita a conexão.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FetchBenchmark {
+
+    @Param({"ditto", "mew"})
+    public String pokemon;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        String body = "mew".equals(pokemon) ? PokeApiFixtures.mew() : PokeApiFixtures.ditto();
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(body);
+            }
+        });
+        server.start();
+        client = new OkHttpClient();
+        baseUrl = server.url("/api/v2/pokemon/").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws IOException {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        server.shutdown();
+    }
+
+    @Benchmark
+    public String warmConnection() throws IOException {
+        return PokemonDoDia.formatPokemonData(151, PokemonDoDia.fetchPokemonData(151, client, baseUrl));
+    }
+
+    @Benchmark
+    public String coldConnection() throws IOException {
+        client.connectionPool().evictAll();
+        return PokemonDoDia.formatPokemonData(151, PokemonDoDia.fetchPokemonData(151, client, baseUrl));
+    }
+}
@@ -0,0 +1,43 @@
+package com.exemplo.bench;
+
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/** Vazão da renderização do texto do Pokémon do dia. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+    private final PokemonInfo info = new PokemonInfo("charizard", 17, 905,
+            Arrays.asList("fire", "flying"), Collections.singletonList("blaze"));
+
+    private final String json = "{\"name\":\"charizard\",\"height\":17,\"weight\":905,"
+            + "\"types\":[{\"type\":{\"name\":\"fire\"}},{\"type\":{\"name\":\"flying\"}}]}";
+
+    @Benchmark
+    public String formatInfo() {
+        return PokemonDoDia.formatPokemonInfo(6, info);
+    }
+
+    @Benchmark
+    public String parseAndFormat() {
+        return PokemonDoDia.formatPokemonData(6, json);
+    }
+}
@@ -0,0 +1,67 @@
+package com.exemplo.bench;
+
+import com.examplo.PokemonInfo;
+import com.examplo.PokemonJsonExtractor;
+import com.exemplo.PokeApiFixtures;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extração dos campos em payloads de tamanho real: o extrator em streaming
+ * comparado com a árvore completa do JsonParser usada antes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"ditto", "bulbasaur", "mew"})
+    public String pokemon;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        switch (pokemon) {
+            case "ditto":
+                json = PokeApiFixtures.ditto();
+                break;
+            case "mew":
+                json = PokeApiFixtures.mew();
+                break;
+            default:
+                json = PokeApiFixtures.bulbasaur();
+        }
+    }
+
+    @Benchmark
+    public PokemonInfo streamingExtractor() {
+        return PokemonJsonExtractor.extract(json);
+    }
+
+    @Benchmark
+    public String jsonParserTree() {
+        JsonObject tree = JsonParser.parseString(json).getAsJsonObject();
+        return tree.get("name").getAsString()
+                + tree.get("height").getAsInt()
+                + tree.get("weight").getAsInt()
+                + tree.getAsJsonArray("types").get(0).getAsJsonObject()
+                .getAsJsonObject("type").get("name").getAsString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.exemplo.bench;
+
+import com.examplo.CompactPokedex;
+import com.examplo.PokedexIndex;
+import com.examplo.PokemonInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/** Latência de consultas e do sorteio filtrado sobre uma Pokédex cheia. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final String[] TIPOS = {"normal", "fighting", "flying", "poison", "ground", "rock", "bug",
+            "ghost", "steel", "fire", "water", "grass", "electric", "psychic", "ice", "dragon", "dark", "fairy"};
+
+    private PokedexIndex index;
+    private long day;
+
+    @Setup
+    public void setUp() {
+        CompactPokedex dex = new CompactPokedex(1025);
+        for (int id = 1; id <= 1025; id++) {
+            dex.put(id, new PokemonInfo("pokemon-" + id, id % 200 + 1, id * 3 % 9999 + 1,
+                    Arrays.asList(TIPOS[id % TIPOS.length], TIPOS[(id * 7) % TIPOS.length]),
+                    Arrays.asList("habilidade-" + id % 300, "oculta-" + id % 50)));
+        }
+        index = PokedexIndex.of(dex);
+    }
+
+    @Benchmark
+    public int typeAndWeight() {
+        return index.query().type("fire").weightBetween(501, Integer.MAX_VALUE).count();
+    }
+
+    @Benchmark
+    public int parsedExpression() {
+        return index.query("tipo=water,altura=10..80").count();
+    }
+
+    @Benchmark
+    public int filteredPick() {
+        return index.query().type("water").pick(day++);
+    }
+}
@@ -0,0 +1,66 @@
+package com.exemplo.load;
+
+import com.examplo.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gera carga em malha aberta: a requisição i tem horário marcado em início + i / taxa, e a
+ * latência é medida a partir desse horário, não de quando um worker ficou livre. Assim,
+ * um servidor lento aparece como latência alta em vez de simplesmente reduzir a carga
+ * (a "omissão coordenada" de geradores em malha fechada). Taxa zero dispara sem pausa.
+ */
+public final class LoadGenerator {
+
+    /** Uma operação medida: busca, extração e formatação de um id. */
+    public interface Task {
+        void run(int id) throws Exception;
+    }
+
+    private final int workers;
+    private final double ratePerSecond;
+
+    public LoadGenerator(int workers, double ratePerSecond) {
+        if (workers < 1 || ratePerSecond < 0) {
+            throw new IllegalArgumentException("Workers devem ser positivos e a taxa não negativa");
+        }
+        this.workers = workers;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /** Executa total requisições, percorrendo ids em ordem circular, e mede cada uma. */
+    public LoadReport run(Task task, int[] ids, long total) throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong next = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long interval = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0;
+        long start = System.nanoTime();
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            threads[w] = new Thread(() -> {
+                long i;
+                while ((i = next.getAndIncrement()) < total) {
+                    long scheduled = start + i * interval;
+                    long wait;
+                    while ((wait = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long begin = interval > 0 ? scheduled : System.nanoTime();
+                    try {
+                        task.run(ids[(int) (i % ids.length)]);
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    // as falhas também entram no histograma: o usuário esperou por elas
+                    histogram.record(System.nanoTime() - begin);
+                }
+            }, "carga-" + w);
+            threads[w].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new LoadReport(total, errors.get(), System.nanoTime() - start, histogram);
+    }
+}
@@ -0,0 +1,135 @@
+package com.exemplo.load;
+
+import com.examplo.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/** Resultado de uma rodada de carga: vazão, percentis de latência e taxa de erro. */
+public final class LoadReport {
+    private final long requests;
+    private final long errors;
+    private final double throughput;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    LoadReport(long requests, long errors, long elapsedNanos, LatencyHistogram histogram) {
+        this(requests, errors,
+                elapsedNanos > 0 ? requests * 1e9 / elapsedNanos : 0,
+                histogram.percentile(50) / 1e6,
+                histogram.percentile(90) / 1e6,
+                histogram.percentile(99) / 1e6,
+                histogram.max() / 1e6);
+    }
+
+    LoadReport(long requests, long errors, double throughput, double p50Millis, double p90Millis,
+               double p99Millis, double maxMillis) {
+        this.requests = requests;
+        this.errors = errors;
+        this.throughput = throughput;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public long requests() {
+        return requests;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    /** Requisições concluídas por segundo, com ou sem erro. */
+    public double throughput() {
+        return throughput;
+    }
+
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    public double p50Millis() {
+        return p50Millis;
+    }
+
+    public double p90Millis() {
+        return p90Millis;
+    }
+
+    public double p99Millis() {
+        return p99Millis;
+    }
+
+    public double maxMillis() {
+        return maxMillis;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%d requisições, %.1f req/s, erros %.2f%%, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, máx %.2f ms",
+                requests, throughput, errorRate() * 100, p50Millis, p90Millis, p99Millis, maxMillis);
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("requests", Long.toString(requests));
+        properties.setProperty("errors", Long.toString(errors));
+        properties.setProperty("throughput", format(throughput));
+        properties.setProperty("errorRate", format(errorRate()));
+        properties.setProperty("p50Millis", format(p50Millis));
+        properties.setProperty("p90Millis", format(p90Millis));
+        properties.setProperty("p99Millis", format(p99Millis));
+        properties.setProperty("maxMillis", format(maxMillis));
+        return properties;
+    }
+
+    public static LoadReport fromProperties(Properties properties) {
+        long requests = Long.parseLong(properties.getProperty("requests", "0"));
+        return new LoadReport(requests,
+                Long.parseLong(properties.getProperty("errors", "0")),
+                Double.parseDouble(properties.getProperty("throughput", "0")),
+                Double.parseDouble(properties.getProperty("p50Millis", "0")),
+                Double.parseDouble(properties.getProperty("p90Millis", "0")),
+                Double.parseDouble(properties.getProperty("p99Millis", "0")),
+                Double.parseDouble(properties.getProperty("maxMillis", "0")));
+    }
+
+    /**
+     * Regressões em relação à linha de base. Vazão e latências podem piorar até a fração
+     * tolerance (0.25 = 25%); a taxa de erro, até errorMargin pontos absolutos, porque os
+     * 503 injetados são absorvidos ou não conforme caiam em primeira tentativa, nova
+     * tentativa ou hedge, o que depende da concorrência da rodada. Lista vazia: sem regressão.
+     */
+    public List<String> regressionsAgainst(LoadReport baseline, double tolerance, double errorMargin) {
+        List<String> regressions = new ArrayList<>();
+        if (throughput < baseline.throughput * (1 - tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "vazão %.1f req/s abaixo de %.1f (base %.1f)",
+                    throughput, baseline.throughput * (1 - tolerance), baseline.throughput));
+        }
+        checkLatency(regressions, "p50", p50Millis, baseline.p50Millis, tolerance);
+        checkLatency(regressions, "p99", p99Millis, baseline.p99Millis, tolerance);
+        if (errorRate() > baseline.errorRate() + errorMargin) {
+            regressions.add(String.format(Locale.ROOT, "taxa de erro %.2f%% acima de %.2f%% (base %.2f%%)",
+                    errorRate() * 100, (baseline.errorRate() + errorMargin) * 100, baseline.errorRate() * 100));
+        }
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String name, double value, double baseline,
+                                     double tolerance) {
+        if (value > baseline * (1 + tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s %.2f ms acima de %.2f ms (base %.2f ms)",
+                    name, value, baseline * (1 + tolerance), baseline));
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
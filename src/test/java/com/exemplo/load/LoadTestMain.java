@@ -0,0 +1,178 @@
+package com.exemplo.load;
+
+import com.examplo.PokemonCache;
+import com.examplo.PokemonDoDia;
+import com.examplo.PokemonJsonExtractor;
+import com.examplo.ResilientFetcher;
+import okhttp3.OkHttpClient;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Teste de carga de busca + extração + formatação contra o {@link PokeApiStandIn}, com
+ * comparação contra uma linha de base gravada. A busca é a da CLI: {@link ResilientFetcher}
+ * com cache em disco, hedge, novas tentativas e disjuntor. Sai com código 1 se houver
+ * regressão, o que falha o build no perfil loadtest: mvn -Ploadtest verify.
+ *
+ * A linha de base guarda milissegundos absolutos e só vale para a máquina em que foi
+ * gravada; com outro número de processadores, ou outro cenário, o teste falha pedindo que
+ * ela seja regravada na máquina que for usá-lo (ex.: no runner de CI). Com errorRate
+ * positivo, uma rodada sem nenhum 503 injetado também falha: as novas tentativas, o hedge
+ * e o disjuntor não teriam sido exercitados.
+ *
+ * Propriedades (-Dload.X): workers, rate (req/s), duration e warmup (s), latencyMs,
+ * jitterMs, errorRate, cacheTtl (s; zero revalida toda busca na rede), payloads (diretório
+ * com {id}.json gravados), tolerance, errorMargin, baseline, result e updateBaseline=true
+ * para regravar a linha de base com esta rodada.
+ */
+public final class LoadTestMain {
+    /** Chaves que definem o cenário; a comparação só vale se forem iguais às da base. */
+    private static final String[] CENARIO = {"workers", "rate", "latencyMs", "jitterMs", "errorRate", "cacheTtl"};
+    private static final String PREFIXO_CENARIO = "scenario.";
+    private static final String PROCESSADORES = "host.processors";
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties scenario = new Properties();
+        scenario.setProperty("workers", property("workers", "16"));
+        scenario.setProperty("rate", property("rate", "100"));
+        scenario.setProperty("latencyMs", property("latencyMs", "20"));
+        scenario.setProperty("jitterMs", property("jitterMs", "20"));
+        scenario.setProperty("errorRate", property("errorRate", "0.01"));
+        scenario.setProperty("cacheTtl", property("cacheTtl", "0"));
+        int workers = Integer.parseInt(scenario.getProperty("workers"));
+        double rate = Double.parseDouble(scenario.getProperty("rate"));
+        long duration = Long.parseLong(property("duration", "20"));
+        long warmup = Long.parseLong(property("warmup", "5"));
+        double tolerance = Double.parseDouble(property("tolerance", "0.30"));
+        double errorMargin = Double.parseDouble(property("errorMargin", "0.02"));
+        Path baselinePath = Paths.get(property("baseline", "src/test/resources/load-baseline.properties"));
+        Path resultPath = Paths.get(property("result", "target/load-result.properties"));
+        String payloads = property("payloads", "");
+
+        LoadReport report;
+        long injectedErrors;
+        Path cacheDir = Files.createTempDirectory("pokemon-carga");
+        try (PokeApiStandIn standIn = new PokeApiStandIn(
+                PokeApiStandIn.recordedPayloads(payloads.isEmpty() ? null : Paths.get(payloads), 151),
+                Long.parseLong(scenario.getProperty("latencyMs")),
+                Long.parseLong(scenario.getProperty("jitterMs")),
+                Double.parseDouble(scenario.getProperty("errorRate"))).start()) {
+            System.out.println("Servindo " + standIn.ids().length + " payloads de ~"
+                    + standIn.averagePayloadBytes() / 1024 + " KB em " + standIn.baseUrl());
+            PokemonCache cache = new PokemonCache(cacheDir,
+                    Duration.ofSeconds(Long.parseLong(scenario.getProperty("cacheTtl"))), 512L * 1024 * 1024);
+            ResilientFetcher fetcher = PokemonDoDia.resilientFetcher(new OkHttpClient(), standIn.baseUrl(), cache, workers);
+            LoadGenerator.Task task = id -> PokemonDoDia.formatPokemonInfo(id,
+                    PokemonJsonExtractor.extract(fetcher.fetch(id)));
+            LoadGenerator generator = new LoadGenerator(workers, rate);
+
+            // o aquecimento deixa JIT, pool de conexões e caches no estado de regime
+            generator.run(task, standIn.ids(), requestsFor(rate, warmup));
+            report = generator.run(task, standIn.ids(), requestsFor(rate, duration));
+            injectedErrors = standIn.injectedErrors();
+            System.out.println("Erros injetados " + injectedErrors + " de " + standIn.requests()
+                    + " requisições");
+            System.out.println("Hedges " + fetcher.hedges() + ", novas tentativas " + fetcher.retries()
+                    + ", respostas do cache por falha " + fetcher.fallbacks()
+                    + ", disjuntor " + fetcher.circuitBreaker().state());
+        } finally {
+            deleteRecursively(cacheDir);
+        }
+        System.out.println(report.summary());
+        if (Double.parseDouble(scenario.getProperty("errorRate")) > 0 && injectedErrors == 0) {
+            System.out.println("FALHA: nenhum erro injetado com errorRate " + scenario.getProperty("errorRate")
+                    + "; aumente a duração ou a taxa de erros");
+            System.exit(1);
+        }
+
+        Properties result = report.toProperties();
+        for (String key : CENARIO) {
+            result.setProperty(PREFIXO_CENARIO + key, scenario.getProperty(key));
+        }
+        String processors = Integer.toString(Runtime.getRuntime().availableProcessors());
+        result.setProperty(PROCESSADORES, processors);
+        store(result, resultPath);
+        if (Boolean.parseBoolean(property("updateBaseline", "false"))) {
+            store(result, baselinePath);
+            System.out.println("Linha de base regravada em " + baselinePath);
+            return;
+        }
+        if (!Files.exists(baselinePath)) {
+            System.out.println("Sem linha de base em " + baselinePath + "; use -Dload.updateBaseline=true para criá-la");
+            return;
+        }
+        Properties baseline = load(baselinePath);
+        // sem comparação válida o portão não pode passar em silêncio
+        if (!processors.equals(baseline.getProperty(PROCESSADORES))) {
+            System.out.println("FALHA: linha de base gravada em outra máquina (" + baseline.getProperty(PROCESSADORES)
+                    + " processadores, aqui " + processors + "). Regrave-a nesta máquina com"
+                    + " mvn -Ploadtest verify -Dload.updateBaseline=true");
+            System.exit(1);
+        }
+        for (String key : CENARIO) {
+            String stored = baseline.getProperty(PREFIXO_CENARIO + key);
+            if (stored == null || Double.parseDouble(stored) != Double.parseDouble(scenario.getProperty(key))) {
+                System.out.println("FALHA: cenário diferente da linha de base (" + key + "). Rode o cenário"
+                        + " gravado ou regrave a base com -Dload.updateBaseline=true");
+                System.exit(1);
+            }
+        }
+        List<String> regressions = report.regressionsAgainst(LoadReport.fromProperties(baseline), tolerance, errorMargin);
+        if (regressions.isEmpty()) {
+            System.out.println("Sem regressão em relação à linha de base (tolerância " + tolerance + ")");
+            return;
+        }
+        for (String regression : regressions) {
+            System.out.println("REGRESSÃO: " + regression);
+        }
+        System.exit(1);
+    }
+
+    /** Sem taxa-alvo, a duração vira 200 requisições por segundo pedido. */
+    private static long requestsFor(double rate, long seconds) {
+        return Math.max(1, (long) ((rate > 0 ? rate : 200) * seconds));
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            // diretório temporário; o sistema limpa depois
+        }
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("load." + name, defaultValue);
+    }
+
+    private static Properties load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private static void store(Properties properties, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Teste de carga de busca + extração + formatação");
+        }
+    }
+}
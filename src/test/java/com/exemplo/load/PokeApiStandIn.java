@@ -0,0 +1,158 @@
+package com.exemplo.load;
+
+import com.exemplo.PokeApiFixtures;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Substituto local da PokéAPI para testes de carga: responde /api/v2/pokemon/{id} com
+ * payloads gravados (ou gerados no tamanho real), com latência base, jitter uniforme e
+ * uma fração de respostas 503. Os 503 não são sorteados: com taxa r, a n-ésima requisição
+ * recebida falha quando floor(n * r) avança, contando todo o tráfego, então mesmo uma taxa
+ * baixa gera erros numa rodada curta e a mesma quantidade de requisições produz a mesma
+ * quantidade de erros. Cada conexão é atendida na sua própria thread do MockWebServer,
+ * então a latência injetada não serializa os clientes.
+ */
+public final class PokeApiStandIn implements AutoCloseable {
+    private static final String PREFIXO = "/api/v2/pokemon/";
+
+    private final Map<Integer, byte[]> payloads = new TreeMap<>();
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    public PokeApiStandIn(Map<Integer, String> payloads, long latencyMillis, long jitterMillis, double errorRate) {
+        if (payloads.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum payload para servir");
+        }
+        // codificados uma vez: o custo de servir não deve competir com o cliente medido
+        for (Map.Entry<Integer, String> payload : payloads.entrySet()) {
+            this.payloads.put(payload.getKey(), payload.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Payloads gravados da PokéAPI: arquivos {id}.json do diretório. Sem diretório ou sem
+     * arquivos, gera {@link #realSizePayloads} com a quantidade pedida.
+     */
+    public static Map<Integer, String> recordedPayloads(Path directory, int fallbackCount) throws IOException {
+        Map<Integer, String> payloads = new TreeMap<>();
+        if (directory != null && Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    try {
+                        int id = Integer.parseInt(name.substring(0, name.length() - ".json".length()));
+                        payloads.put(id, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                    } catch (NumberFormatException e) {
+                        // arquivo que não é de um id: ignorado
+                    }
+                }
+            }
+        }
+        return payloads.isEmpty() ? realSizePayloads(fallbackCount) : payloads;
+    }
+
+    /**
+     * Payloads com as chaves e subárvores da PokéAPI e o tamanho dos reais: de 70 a 199
+     * moves, o que dá de ~150 KB a ~400 KB por Pokémon.
+     */
+    public static Map<Integer, String> realSizePayloads(int count) {
+        String[][] tipos = {{"grass", "poison"}, {"fire"}, {"water"}, {"bug", "flying"}, {"normal"}, {"electric"}};
+        Map<Integer, String> payloads = new TreeMap<>();
+        for (int id = 1; id <= count; id++) {
+            payloads.put(id, PokeApiFixtures.payload(id, "pokemon-" + id, 3 + id % 25, 40 + id * 37 % 4000,
+                    tipos[id % tipos.length], new String[]{"habilidade-" + id, "oculta-" + id % 40},
+                    70 + id * 53 % 130));
+        }
+        return payloads;
+    }
+
+    public PokeApiStandIn start() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                long n = requests.incrementAndGet();
+                long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                if (injectError(n)) {
+                    injectedErrors.incrementAndGet();
+                    return new MockResponse().setResponseCode(503);
+                }
+                String path = request.getPath();
+                byte[] body = null;
+                if (path != null && path.startsWith(PREFIXO)) {
+                    try {
+                        body = payloads.get(Integer.parseInt(path.substring(PREFIXO.length()).replace("/", "")));
+                    } catch (NumberFormatException e) {
+                        // id inválido: 404
+                    }
+                }
+                return body == null
+                        ? new MockResponse().setResponseCode(404)
+                        : new MockResponse().setHeader("Content-Type", "application/json; charset=utf-8").setBody(new Buffer().write(body));
+            }
+        });
+        server.start();
+        return this;
+    }
+
+    /** Espalha os erros pela sequência de requisições à taxa pedida, sem sorteio. */
+    private boolean injectError(long n) {
+        if (errorRate <= 0) {
+            return false;
+        }
+        return (long) Math.floor(n * errorRate) > (long) Math.floor((n - 1) * errorRate);
+    }
+
+    /** Base no formato de PokemonDoDia: o id é concatenado no final. */
+    public String baseUrl() {
+        return server.url(PREFIXO).toString();
+    }
+
+    public int[] ids() {
+        return payloads.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public long averagePayloadBytes() {
+        long total = 0;
+        for (byte[] payload : payloads.values()) {
+            total += payload.length;
+        }
+        return total / payloads.size();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+}